@@ -4,6 +4,8 @@
 package it.unicam.cs.asdl2425.mp2;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 //TODO completare gli import necessari
 
@@ -35,11 +37,44 @@ import java.util.*;
  * supporta tutti i metodi che usano indici, utilizzando l'indice assegnato a
  * ogni nodo in fase di inserimento.
  * 
+ * La cancellazione di un nodo avviene secondo la {@link RemovalMode} scelta
+ * alla costruzione. Con {@code SHIFT}, il comportamento predefinito, gli
+ * indici dei nodi successivi scalano di uno e il costo è O(n^2). Con
+ * {@code SWAP_WITH_LAST} l'ultimo nodo prende l'indice liberato e il costo è
+ * O(n). Con {@code TOMBSTONE} gli indici dei nodi rimasti non cambiano: la
+ * riga e la colonna del nodo vengono svuotate e restano inutilizzate fino
+ * alla chiamata di {@link #compact()}; nel frattempo gli indici possono
+ * superare nodeCount() - 1, quindi gli algoritmi che assumono indici contigui
+ * devono essere eseguiti dopo la compattazione.
+ * 
  * @author Luca Tesei (template)
  *         Riccardo Catervi - riccardo.catervi@studenti.unicam.it (implementazione)
  *
  */
 public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
+
+    /**
+     * Modalità di cancellazione dei nodi.
+     */
+    public enum RemovalMode {
+        /**
+         * Rimuove la riga e la colonna del nodo e scala di uno gli indici dei
+         * nodi successivi, preservando l'ordine di inserimento. Costo O(n^2).
+         */
+        SHIFT,
+        /**
+         * Sposta l'ultimo nodo nell'indice liberato, aggiornando solo la sua
+         * riga, la sua colonna e il suo indice. Costo O(n).
+         */
+        SWAP_WITH_LAST,
+        /**
+         * Svuota la riga e la colonna del nodo senza cambiare gli indici
+         * degli altri nodi; lo spazio viene recuperato da
+         * {@link AdjacencyMatrixUndirectedGraph#compact()}. Costo O(n).
+         */
+        TOMBSTONE
+    }
+
     /*
      * Le seguenti variabili istanza sono protected al solo scopo di agevolare
      * il JUnit testing
@@ -57,16 +92,127 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     private ArrayList<GraphNode<L>> indexToNode; // Lista che consente di recuperare il nodo direttamente dall'indice.
     private int edgesCount; // Contatore degli archi, per migliorare la complessità di edgeCount() a O(1).
     private static final GraphEdge<?> NO_EDGE = null; // Costante per indicare l'assenza di un arco tra due nodi nella matrice.
+    private final RemovalMode removalMode; // Modalità di cancellazione dei nodi.
+    private int tombstones; // Numero di indici liberati in modalità TOMBSTONE e non ancora compattati.
 
     /**
      * Crea un grafo vuoto.
      */
     public AdjacencyMatrixUndirectedGraph() {
+        this(RemovalMode.SHIFT);
+    }
+
+    /**
+     * Crea un grafo vuoto che cancella i nodi nella modalità indicata.
+     * 
+     * @param removalMode
+     *                        la modalità di cancellazione dei nodi
+     * @throws NullPointerException
+     *                                  se la modalità passata è null
+     */
+    public AdjacencyMatrixUndirectedGraph(RemovalMode removalMode) {
+        this.removalMode = Objects.requireNonNull(removalMode, "La modalità di cancellazione è nulla.");
         this.matrix = new ArrayList<ArrayList<GraphEdge<L>>>();
         this.nodesIndex = new HashMap<GraphNode<L>, Integer>();
         this.labelToNodeMap = new HashMap<L, GraphNode<L>>();
         this.indexToNode = new ArrayList<GraphNode<L>>();
         this.edgesCount = 0; // Inizialmente, non esistono archi.
+        this.tombstones = 0;
+    }
+
+    /**
+     * Crea un grafo con i nodi e gli archi dati, costruendo la matrice in
+     * un'unica passata: le strutture sono dimensionate una volta sola e ogni
+     * riga è allocata direttamente con la sua lunghezza finale, invece di
+     * aggiungere una colonna a tutte le righe ad ogni nodo. Usato da
+     * {@code UndirectedGraphBuilder}.
+     *
+     * @param nodes
+     *                        i nodi, senza ripetizioni, nell'ordine dei loro
+     *                        indici
+     * @param edges
+     *                        gli archi; se più archi collegano gli stessi
+     *                        nodi viene mantenuto il primo, come farebbe
+     *                        {@code addEdge}
+     * @param removalMode
+     *                        la modalità di cancellazione dei nodi
+     * @throws NullPointerException
+     *                                      se un arco è null
+     * @throws IllegalArgumentException
+     *                                      se un arco è orientato o ha un
+     *                                      estremo che non è tra i nodi
+     */
+    AdjacencyMatrixUndirectedGraph(List<GraphNode<L>> nodes, Collection<GraphEdge<L>> edges,
+            RemovalMode removalMode) {
+        this.removalMode = removalMode;
+        int n = nodes.size();
+        int capacity = (n * 4) / 3 + 1;
+        this.nodesIndex = new HashMap<GraphNode<L>, Integer>(capacity);
+        this.labelToNodeMap = new HashMap<L, GraphNode<L>>(capacity);
+        this.indexToNode = new ArrayList<GraphNode<L>>(nodes);
+        this.matrix = new ArrayList<ArrayList<GraphEdge<L>>>(n);
+        for (int i = 0; i < n; i++) {
+            GraphNode<L> node = nodes.get(i);
+            this.nodesIndex.put(node, i);
+            this.labelToNodeMap.put(node.getLabel(), node);
+            this.matrix.add(new ArrayList<GraphEdge<L>>(Collections.nCopies(n, AdjacencyMatrixUndirectedGraph.<L>noEdge())));
+        }
+        this.edgesCount = 0;
+        this.tombstones = 0;
+        for (GraphEdge<L> edge : edges)
+            this.addEdge(edge);
+    }
+
+    /**
+     * Restituisce la modalità di cancellazione dei nodi di questo grafo.
+     * 
+     * @return la modalità di cancellazione dei nodi
+     */
+    public RemovalMode getRemovalMode() { return this.removalMode; }
+
+    /**
+     * Restituisce il numero di indici liberati dalla cancellazione di nodi in
+     * modalità {@code TOMBSTONE} e non ancora recuperati da
+     * {@link #compact()}.
+     * 
+     * @return il numero di indici inutilizzati, sempre 0 nelle altre modalità
+     */
+    public int getTombstoneCount() { return this.tombstones; }
+
+    /**
+     * Recupera gli indici liberati in modalità {@code TOMBSTONE}: le righe e
+     * le colonne inutilizzate vengono eliminate in un'unica passata e i nodi
+     * rimasti ricevono indici contigui, mantenendo il loro ordine relativo.
+     * Costo O(n^2), nullo se non ci sono indici liberati.
+     */
+    public void compact() {
+        if (this.tombstones == 0)
+            return;
+        int size = this.matrix.size();
+        // Nuovo indice di ogni vecchio indice, -1 per quelli liberati.
+        int[] newIndex = new int[size];
+        int next = 0;
+        for (int i = 0; i < size; i++)
+            newIndex[i] = this.indexToNode.get(i) == null ? -1 : next++;
+
+        ArrayList<ArrayList<GraphEdge<L>>> compacted = new ArrayList<>(next);
+        ArrayList<GraphNode<L>> nodes = new ArrayList<>(next);
+        for (int i = 0; i < size; i++) {
+            if (newIndex[i] == -1)
+                continue;
+            ArrayList<GraphEdge<L>> row = this.matrix.get(i);
+            ArrayList<GraphEdge<L>> newRow = new ArrayList<>(next);
+            for (int j = 0; j < size; j++)
+                if (newIndex[j] != -1)
+                    newRow.add(row.get(j));
+            compacted.add(newRow);
+            GraphNode<L> node = this.indexToNode.get(i);
+            nodes.add(node);
+            this.nodesIndex.put(node, newIndex[i]);
+        }
+        this.matrix = compacted;
+        this.indexToNode = nodes;
+        this.tombstones = 0;
     }
 
     @Override
@@ -83,6 +229,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         this.labelToNodeMap.clear();
         this.indexToNode.clear();
         this.edgesCount = 0;
+        this.tombstones = 0;
     }
 
     @Override
@@ -100,7 +247,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         if (this.containsNode(node)) // Verifichiamo se il nodo passato è già presente nella mappa.
             return false;
 
-        int index = this.nodesIndex.size(); // Aggiorniamo la dimensione della matrice.
+        int index = this.matrix.size(); // Il nuovo nodo occupa una nuova riga in fondo alla matrice.
         this.nodesIndex.put(node, index); // Inseriamo il nodo alla mappa con il metodo put().
         this.indexToNode.add(node); // Inseriamo il nodo alla lista con add().
         this.labelToNodeMap.put(node.getLabel(), node); // Aggiorniamo la mappa inversa.
@@ -138,22 +285,19 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
             }
         }
 
-        // Rimuoviamo la riga e la colonna dalla matrice
-        this.matrix.remove((int)nodeIndex);
-        for (ArrayList<GraphEdge<L>> riga : this.matrix) {
-            riga.remove((int)nodeIndex);
-        }
-
-        // Aggiorniamo gli indici di tutti i nodi che seguono quello rimosso
-        for (Map.Entry<GraphNode<L>, Integer> entry : this.nodesIndex.entrySet()) {
-            if (entry.getValue() > nodeIndex) {
-                entry.setValue(entry.getValue() - 1);
-            }
+        switch (this.removalMode) {
+        case SWAP_WITH_LAST:
+            swapWithLastAndRemove(nodeIndex);
+            break;
+        case TOMBSTONE:
+            tombstone(nodeIndex);
+            break;
+        default:
+            shiftAndRemove(nodeIndex);
         }
 
         // Rimuoviamo il nodo dalle altre strutture dati
         this.labelToNodeMap.remove(node.getLabel());
-        this.indexToNode.remove((int)nodeIndex);
         this.nodesIndex.remove(node);
 
         return true;
@@ -184,7 +328,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
 
     @Override
     public GraphNode<L> getNodeAtIndex(int i) {
-        if (i < 0 || i >= nodeCount())
+        if (i < 0 || i >= this.matrix.size() || this.indexToNode.get(i) == null) // Fuori dal range o liberato.
             throw new IndexOutOfBoundsException("L'indice inserito è fuori dal range.");
 
         return this.indexToNode.get(i); // Accediamo al nodo associato all'indice i attraverso la lista indexToNode in O(1).
@@ -213,7 +357,8 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     @Override
     public Set<GraphEdge<L>> getEdges() {
         // Raccolta di tutti gli archi presenti nella matrice, scorrendo
-        // soltanto la parte sopra la diagonale per evitare duplicati
+        // soltanto la parte sopra la diagonale, diagonale compresa per i
+        // cappi, per evitare duplicati
         Set<GraphEdge<L>> allEdges = new HashSet<>((edgesCount * 4) / 3 + 1); // Creiamo un nuovo set dove inseriremo tutti gli archi.
 
         int size = matrix.size();
@@ -223,7 +368,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
             // Iteriamo su tutti gli elementi della riga. Ogni elemento può essere:
             // - null, se non c'è un arco
             // - un oggetto GraphEdge<L>, se esiste un arco tra i due nodi.
-            for (int j = i + 1; j < size; j++) {
+            for (int j = i; j < size; j++) {
                 GraphEdge<L> edge = row.get(j);
                 if (edge != NO_EDGE)
                     // Se troviamo un arco, lo aggiungiamo all'insieme degli archi.
@@ -330,6 +475,163 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
                 "Operazione non supportata in un grafo non orientato");
     }
 
+    @Override
+    public void forEachEdge(Consumer<? super GraphEdge<L>> action) {
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        // Stessa visita di getEdges(), senza creare l'insieme: triangolo
+        // superiore, riga per riga.
+        int size = this.matrix.size();
+        for (int i = 0; i < size; i++) {
+            ArrayList<GraphEdge<L>> row = this.matrix.get(i);
+            for (int j = i; j < size; j++) {
+                GraphEdge<L> edge = row.get(j);
+                if (edge != NO_EDGE)
+                    action.accept(edge);
+            }
+        }
+    }
+
+    @Override
+    public void forEachEdgeOf(GraphNode<L> node, Consumer<? super GraphEdge<L>> action) {
+        ArrayList<GraphEdge<L>> row = this.matrix.get(checkAndGetIndex(node));
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        for (GraphEdge<L> edge : row)
+            if (edge != NO_EDGE)
+                action.accept(edge);
+    }
+
+    @Override
+    public void forEachNeighbour(GraphNode<L> node, Consumer<? super GraphNode<L>> action) {
+        ArrayList<GraphEdge<L>> row = this.matrix.get(checkAndGetIndex(node));
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        for (int j = 0; j < row.size(); j++)
+            if (row.get(j) != NO_EDGE)
+                action.accept(this.indexToNode.get(j));
+    }
+
+    @Override
+    public void forEachNeighbourIndex(int i, IntConsumer action) {
+        ArrayList<GraphEdge<L>> row = this.matrix.get(checkIndex(i));
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        for (int j = 0; j < row.size(); j++)
+            if (row.get(j) != NO_EDGE)
+                action.accept(j);
+    }
+
+    // Gli indici liberati in modalità TOMBSTONE restano validi per i metodi
+    // seguenti e si comportano come nodi isolati, perché la loro riga e la
+    // loro colonna sono vuote.
+
+    @Override
+    public int getIndexBound() { return this.matrix.size(); } // O(1)
+
+    @Override
+    public int getDegreeAt(int i) {
+        int degree = 0;
+        for (GraphEdge<L> edge : this.matrix.get(checkIndex(i)))
+            if (edge != NO_EDGE)
+                degree++;
+        return degree;
+    }
+
+    @Override
+    public GraphEdge<L> getEdgeAt(int i, int j) {
+        return this.matrix.get(checkIndex(i)).get(checkIndex(j)); // Accesso diretto alla cella, null se non c'è l'arco.
+    }
+
+    @Override
+    public boolean containsEdgeAt(int i, int j) {
+        return this.getEdgeAt(i, j) != NO_EDGE;
+    }
+
+    @Override
+    public double getEdgeWeightAt(int i, int j) {
+        GraphEdge<L> edge = this.getEdgeAt(i, j);
+        return edge == NO_EDGE ? Double.NaN : edge.getWeight();
+    }
+
+    @Override
+    public void forEachEdgeIndex(EdgeIndexConsumer action) {
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        // Stesso ordine di forEachEdge: triangolo superiore, riga per riga.
+        int size = this.matrix.size();
+        for (int i = 0; i < size; i++) {
+            ArrayList<GraphEdge<L>> row = this.matrix.get(i);
+            for (int j = i; j < size; j++) {
+                GraphEdge<L> edge = row.get(j);
+                if (edge != NO_EDGE)
+                    action.accept(i, j, edge.getWeight());
+            }
+        }
+    }
+
+    /*
+     * Cancellazione in modalità SHIFT: rimuove la riga e la colonna del nodo
+     * e scala gli indici dei nodi successivi.
+     */
+    private void shiftAndRemove(int nodeIndex) {
+        // Rimuoviamo la riga e la colonna dalla matrice
+        this.matrix.remove(nodeIndex);
+        for (ArrayList<GraphEdge<L>> riga : this.matrix) {
+            riga.remove(nodeIndex);
+        }
+
+        // Aggiorniamo gli indici di tutti i nodi che seguono quello rimosso
+        for (Map.Entry<GraphNode<L>, Integer> entry : this.nodesIndex.entrySet()) {
+            if (entry.getValue() > nodeIndex) {
+                entry.setValue(entry.getValue() - 1);
+            }
+        }
+        this.indexToNode.remove(nodeIndex);
+    }
+
+    /*
+     * Cancellazione in modalità SWAP_WITH_LAST: la riga e la colonna
+     * dell'ultimo nodo prendono il posto di quelle del nodo cancellato, poi
+     * vengono eliminate l'ultima riga e l'ultima colonna, che in un
+     * ArrayList non richiedono spostamenti.
+     */
+    private void swapWithLastAndRemove(int nodeIndex) {
+        int last = this.matrix.size() - 1;
+        if (nodeIndex != last) {
+            ArrayList<GraphEdge<L>> lastRow = this.matrix.get(last);
+            lastRow.set(nodeIndex, lastRow.get(last)); // L'eventuale cappio dell'ultimo nodo.
+            this.matrix.set(nodeIndex, lastRow);
+            for (int i = 0; i < last; i++)
+                if (i != nodeIndex)
+                    this.matrix.get(i).set(nodeIndex, this.matrix.get(i).get(last));
+
+            GraphNode<L> lastNode = this.indexToNode.get(last);
+            this.indexToNode.set(nodeIndex, lastNode);
+            this.nodesIndex.put(lastNode, nodeIndex);
+        }
+        this.matrix.remove(last);
+        for (ArrayList<GraphEdge<L>> riga : this.matrix)
+            riga.remove(last);
+        this.indexToNode.remove(last);
+    }
+
+    /*
+     * Cancellazione in modalità TOMBSTONE: svuota la riga e la colonna del
+     * nodo e libera il suo indice senza toccare gli altri.
+     */
+    private void tombstone(int nodeIndex) {
+        ArrayList<GraphEdge<L>> row = this.matrix.get(nodeIndex);
+        GraphEdge<L> noEdge = noEdge();
+        for (int i = 0; i < row.size(); i++) {
+            row.set(i, noEdge);
+            this.matrix.get(i).set(nodeIndex, noEdge);
+        }
+        this.indexToNode.set(nodeIndex, null);
+        this.tombstones++;
+    }
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= this.matrix.size())
+            throw new IndexOutOfBoundsException("L'indice inserito è fuori dal range.");
+        return i;
+    }
+
     private int checkAndGetIndex(GraphNode<L> node) {
         Objects.requireNonNull(node, "Il nodo passato è nullo.");
 
@@ -345,4 +647,13 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         return index;
     }
 
+    /*
+     * Restituisce NO_EDGE con il tipo degli elementi della matrice. Il cast è
+     * sicuro perché NO_EDGE è null.
+     */
+    @SuppressWarnings("unchecked")
+    private static <L> GraphEdge<L> noEdge() {
+        return (GraphEdge<L>) NO_EDGE;
+    }
+
 }
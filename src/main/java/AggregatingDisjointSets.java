@@ -0,0 +1,240 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Estensione di {@code ForestDisjointSets} che mantiene per ogni insieme un
+ * valore aggregato, calcolato da un {@link Aggregator} fornito alla
+ * costruzione.
+ *
+ * Il valore aggregato di un insieme singoletto è ottenuto dal suo elemento;
+ * quando due insiemi vengono uniti i valori delle due radici vengono fusi
+ * nella nuova radice. Poiché l'aggregatore deve essere associativo e
+ * commutativo, il risultato non dipende dall'ordine delle unioni. Il valore
+ * di un insieme si ottiene con {@link #getAggregate(Object)} al costo di una
+ * ricerca del rappresentante, senza enumerare gli elementi dell'insieme.
+ * Poiché l'aggregatore non prevede l'operazione inversa di
+ * {@code combine}, la rimozione di un elemento ricalcola il valore
+ * dell'insieme dai suoi elementi rimasti, in tempo proporzionale alla
+ * dimensione dell'insieme.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ * @param <E>
+ *                il tipo degli elementi degli insiemi disgiunti
+ * @param <A>
+ *                il tipo dei valori aggregati
+ */
+public class AggregatingDisjointSets<E, A> extends ForestDisjointSets<E> {
+
+    /**
+     * Funzione di aggregazione dei valori associati agli insiemi. Il metodo
+     * {@code combine} deve essere associativo e commutativo.
+     *
+     * @param <E>
+     *                il tipo degli elementi
+     * @param <A>
+     *                il tipo dei valori aggregati
+     */
+    public interface Aggregator<E, A> {
+
+        /**
+         * Restituisce il valore aggregato dell'insieme singoletto che contiene
+         * solo l'elemento dato.
+         *
+         * @param e
+         *              l'elemento
+         * @return il valore aggregato del singoletto
+         */
+        A lift(E e);
+
+        /**
+         * Fonde i valori aggregati di due insiemi disgiunti.
+         *
+         * @param a
+         *              il valore aggregato del primo insieme
+         * @param b
+         *              il valore aggregato del secondo insieme
+         * @return il valore aggregato dell'unione
+         */
+        A combine(A a, A b);
+
+        /**
+         * Restituisce un aggregatore che calcola le statistiche di una chiave
+         * numerica degli elementi.
+         *
+         * @param key
+         *                la chiave numerica di ogni elemento
+         * @return un aggregatore di statistiche
+         * @throws NullPointerException
+         *                                  se la chiave è null
+         */
+        static <E> Aggregator<E, Statistics> statistics(ToDoubleFunction<? super E> key) {
+            Objects.requireNonNull(key, "La chiave passata è nulla.");
+            return new Aggregator<E, Statistics>() {
+                @Override
+                public Statistics lift(E e) {
+                    double value = key.applyAsDouble(e);
+                    return new Statistics(1, value, value, value);
+                }
+
+                @Override
+                public Statistics combine(Statistics a, Statistics b) {
+                    return new Statistics(a.count + b.count, Math.min(a.min, b.min), Math.max(a.max, b.max),
+                            a.sum + b.sum);
+                }
+            };
+        }
+    }
+
+    /**
+     * Statistiche immutabili di una chiave numerica sugli elementi di un
+     * insieme.
+     */
+    public static final class Statistics {
+
+        private final int count;
+        private final double min;
+        private final double max;
+        private final double sum;
+
+        private Statistics(int count, double min, double max, double sum) {
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.sum = sum;
+        }
+
+        /**
+         * @return il numero di elementi dell'insieme
+         */
+        public int getCount() { return this.count; }
+
+        /**
+         * @return il valore minimo della chiave
+         */
+        public double getMin() { return this.min; }
+
+        /**
+         * @return il valore massimo della chiave
+         */
+        public double getMax() { return this.max; }
+
+        /**
+         * @return la somma dei valori della chiave
+         */
+        public double getSum() { return this.sum; }
+
+        /**
+         * @return la media dei valori della chiave
+         */
+        public double getMean() { return this.sum / this.count; }
+
+        @Override
+        public String toString() {
+            return "Statistics [count=" + count + ", min=" + min + ", max=" + max + ", sum=" + sum + "]";
+        }
+    }
+
+    /*
+     * Nodo della foresta che conserva il valore aggregato del suo insieme,
+     * significativo solo per le radici. Solo questa classe crea nodi con il
+     * campo aggiuntivo, così ForestDisjointSets non ne paga il costo.
+     */
+    private static class AggregateNode<E, A> extends Node<E> {
+        private A aggregate;
+
+        AggregateNode(E item) {
+            super(item);
+        }
+    }
+
+    private final Aggregator<? super E, A> aggregator; // Funzione di aggregazione.
+
+    /**
+     * Costruisce una foresta vuota di insiemi disgiunti che mantiene i valori
+     * aggregati calcolati dall'aggregatore dato, con compressione completa
+     * del cammino.
+     *
+     * @param aggregator
+     *                       l'aggregatore
+     * @throws NullPointerException
+     *                                  se l'aggregatore è null
+     */
+    public AggregatingDisjointSets(Aggregator<? super E, A> aggregator) {
+        this(CompressionStrategy.FULL, aggregator);
+    }
+
+    /**
+     * Costruisce una foresta vuota di insiemi disgiunti che mantiene i valori
+     * aggregati calcolati dall'aggregatore dato, con la strategia di
+     * compressione del cammino data.
+     *
+     * @param compression
+     *                        la strategia di compressione del cammino
+     * @param aggregator
+     *                        l'aggregatore
+     * @throws NullPointerException
+     *                                  se la strategia o l'aggregatore è null
+     */
+    public AggregatingDisjointSets(CompressionStrategy compression, Aggregator<? super E, A> aggregator) {
+        super(compression);
+        this.aggregator = Objects.requireNonNull(aggregator, "L'aggregatore passato è nullo.");
+    }
+
+    /**
+     * Restituisce il valore aggregato dell'insieme che contiene l'elemento
+     * dato.
+     *
+     * @param e
+     *              l'elemento
+     * @return il valore aggregato dell'insieme di e
+     * @throws NullPointerException
+     *                                      se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento passato non è
+     *                                      presente
+     */
+    public A getAggregate(E e) {
+        return aggregateNode(findRootOf(e)).aggregate;
+    }
+
+    @Override
+    protected Node<E> newNode(E e) {
+        return new AggregateNode<E, A>(e);
+    }
+
+    @Override
+    protected void setCreated(Node<E> node) {
+        aggregateNode(node).aggregate = this.aggregator.lift(node.item);
+    }
+
+    @Override
+    protected void setsLinked(Node<E> root, Node<E> child) {
+        AggregateNode<E, A> target = aggregateNode(root);
+        AggregateNode<E, A> linked = aggregateNode(child);
+        target.aggregate = this.aggregator.combine(target.aggregate, linked.aggregate);
+        linked.aggregate = null; // Il valore di una radice collegata non serve più.
+    }
+
+    @Override
+    protected void elementDeleted(Node<E> root) {
+        A aggregate = this.aggregator.lift(root.item);
+        for (Node<E> current = root.next; current != root; current = current.next)
+            aggregate = this.aggregator.combine(aggregate, this.aggregator.lift(current.item));
+        aggregateNode(root).aggregate = aggregate;
+    }
+
+    // METODI PRIVATI
+
+    /*
+     * Tutti i nodi sono creati da newNode, quindi il cast è sicuro.
+     */
+    @SuppressWarnings("unchecked")
+    private AggregateNode<E, A> aggregateNode(Node<E> node) {
+        return (AggregateNode<E, A>) node;
+    }
+}
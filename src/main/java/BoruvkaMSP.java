@@ -0,0 +1,211 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe singoletto che implementa una versione parallela dell'algoritmo di
+ * Borůvka per trovare un Minimum Spanning Tree di un grafo non orientato,
+ * pesato e con pesi non negativi.
+ *
+ * L'algoritmo procede per fasi. In ogni fase tutti gli archi ancora utili
+ * vengono esaminati in parallelo sul fork-join pool per trovare, per ogni
+ * componente corrente, l'arco uscente di peso minimo; le componenti vengono
+ * poi contratte unendo, sempre in parallelo, gli estremi degli archi scelti in
+ * un {@code ConcurrentDisjointSets}, una union-find senza lock basata su
+ * compare-and-set. Gli archi che dopo la
+ * contrazione collegano nodi della stessa componente vengono scartati. Poiché
+ * ogni fase almeno dimezza il numero di componenti, le fasi sono al più
+ * O(log n).
+ *
+ * A parità di peso gli archi sono confrontati per ordine di visita nel grafo,
+ * come nell'ordinamento stabile di {@code KruskalMSP}. Con questo ordine
+ * totale l'albero di copertura minimo è unico, quindi il risultato è
+ * riproducibile, non dipende dal numero di thread e coincide con quello di
+ * {@code KruskalMSP.computeMSP}.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ *
+ */
+public class BoruvkaMSP<L> implements MSPComputer<L> {
+
+    // Sotto questo numero di archi una fase viene eseguita sequenzialmente,
+    // perché il costo di suddividere il lavoro supererebbe il guadagno.
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    // Valore che indica l'assenza di un arco scelto per una componente.
+    private static final int NO_EDGE = -1;
+
+    // Pool su cui eseguire il calcolo, null per il pool comune.
+    private final ForkJoinPool pool;
+
+    // Numero di fasi eseguite durante l'ultima computazione.
+    private int rounds;
+
+    /**
+     * Costruisce un calcolatore di un albero di copertura minimo che usa
+     * l'algoritmo di Borůvka parallelo sul fork-join pool comune.
+     */
+    public BoruvkaMSP() {
+        this.pool = null;
+        this.rounds = 0;
+    }
+
+    /**
+     * Costruisce un calcolatore di un albero di copertura minimo che usa
+     * l'algoritmo di Borůvka parallelo sul fork-join pool specificato, ad
+     * esempio per limitare il numero di thread utilizzati.
+     *
+     * @param pool
+     *                 il pool su cui eseguire il calcolo
+     * @throws NullPointerException
+     *                                  se il pool passato è null
+     */
+    public BoruvkaMSP(ForkJoinPool pool) {
+        if (pool == null)
+            throw new NullPointerException("Pool nullo non ammesso");
+        this.pool = pool;
+        this.rounds = 0;
+    }
+
+    /**
+     * Utilizza l'algoritmo di Borůvka parallelo per trovare un albero di
+     * copertura minimo in un grafo non orientato e pesato, con pesi degli
+     * archi non negativi. Se il grafo non è connesso viene restituita una
+     * foresta di copertura minima.
+     *
+     * @param g
+     *              un grafo non orientato, pesato, con pesi non negativi
+     * @return l'insieme degli archi del grafo g che costituiscono l'albero di
+     *         copertura minimo trovato
+     * @throw NullPointerException se il grafo g è null
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi
+     */
+    @Override
+    public Set<GraphEdge<L>> computeMSP(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Grafo nullo non ammesso");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Il grafo deve essere non orientato");
+
+        IndexedEdgeList<L> edges = IndexedEdgeList.of(g); // Estrae indici e pesi, validando i pesi.
+        boolean[] selected;
+        if (pool == null)
+            selected = run(edges);
+        else
+            selected = pool.submit(() -> run(edges)).join(); // Gli stream paralleli usano il pool che li esegue.
+
+        // Raccogliamo gli archi scelti nell'ordine dei loro identificatori,
+        // così anche l'ordine di iterazione del risultato è riproducibile.
+        Set<GraphEdge<L>> mst = new LinkedHashSet<>();
+        for (int id = 0; id < edges.edgeCount; id++)
+            if (selected[id])
+                mst.add(edges.edge(id));
+        return mst;
+    }
+
+    /**
+     * Restituisce il numero di fasi eseguite dall'ultima computazione.
+     *
+     * @return il numero di fasi dell'ultima computazione, 0 se non è stata
+     *         ancora eseguita alcuna computazione
+     */
+    public int getRoundCount() {
+        return this.rounds;
+    }
+
+    // METODI PRIVATI
+
+    /**
+     * Esegue le fasi dell'algoritmo fino a che non rimangono archi tra
+     * componenti diverse.
+     *
+     * @param edges gli archi del grafo
+     * @return per ogni identificatore di arco, se l'arco fa parte dell'albero
+     */
+    private boolean[] run(IndexedEdgeList<L> edges) {
+        int n = edges.indexBound;
+        ConcurrentDisjointSets<Integer> sets = ConcurrentDisjointSets.ofSize(n);
+        AtomicIntegerArray cheapest = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++)
+            cheapest.set(i, NO_EDGE);
+        boolean[] selected = new boolean[edges.edgeCount];
+
+        int[] alive = new int[edges.edgeCount]; // Archi che collegano ancora componenti diverse.
+        for (int i = 0; i < alive.length; i++)
+            alive[i] = i;
+
+        rounds = 0;
+        while (alive.length > 0) {
+            rounds++;
+            final int[] current = alive;
+
+            // Fase 1: per ogni componente cerchiamo l'arco uscente minimo.
+            range(current.length).forEach(k -> {
+                int id = current[k];
+                int root1 = sets.find(edges.sources[id]);
+                int root2 = sets.find(edges.targets[id]);
+                if (root1 != root2) {
+                    offer(edges, cheapest, root1, id);
+                    offer(edges, cheapest, root2, id);
+                }
+            });
+
+            // Fase 2: contraiamo le componenti lungo gli archi scelti. Se due
+            // componenti hanno scelto lo stesso arco, solo la prima unione
+            // ha effetto e l'arco viene selezionato una volta sola.
+            range(n).forEach(root -> {
+                int id = cheapest.get(root);
+                if (id == NO_EDGE)
+                    return;
+                cheapest.set(root, NO_EDGE); // Prepariamo la fase successiva.
+                if (sets.union(edges.sources[id], edges.targets[id]))
+                    selected[id] = true;
+            });
+
+            // Fase 3: scartiamo gli archi interni alle nuove componenti.
+            alive = range(current.length)
+                    .filter(k -> !sets.connected(edges.sources[current[k]], edges.targets[current[k]]))
+                    .map(k -> current[k])
+                    .toArray();
+        }
+        return selected;
+    }
+
+    /**
+     * Restituisce lo stream degli interi in <code>[0, size)</code>, parallelo
+     * solo se il lavoro è sufficiente a giustificarlo.
+     */
+    private static IntStream range(int size) {
+        IntStream stream = IntStream.range(0, size);
+        return size >= PARALLEL_THRESHOLD ? stream.parallel() : stream;
+    }
+
+    /**
+     * Propone un arco come arco uscente minimo di una componente,
+     * sostituendo quello corrente solo se il nuovo arco lo precede.
+     *
+     * @param edges gli archi del grafo
+     * @param cheapest l'arco uscente minimo corrente di ogni componente
+     * @param root la radice della componente
+     * @param id l'arco proposto
+     */
+    private static void offer(IndexedEdgeList<?> edges, AtomicIntegerArray cheapest, int root, int id) {
+        while (true) {
+            int current = cheapest.get(root);
+            if (current != NO_EDGE && edges.compare(current, id) <= 0)
+                return;
+            if (cheapest.compareAndSet(root, current, id))
+                return;
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe che implementa un grafo non orientato immutabile in formato
+ * Compressed Sparse Row (CSR). Non sono accettate etichette dei nodi null e non
+ * sono accettate etichette duplicate nei nodi (che in quel caso sono lo stesso
+ * nodo).
+ *
+ * I nodi sono indicizzati da 0 a nodeCount() - 1 seguendo l'ordine in cui sono
+ * forniti al costruttore. Le liste di adiacenza di tutti i nodi sono
+ * memorizzate una dopo l'altra in due array paralleli, {@code targets} con gli
+ * indici dei nodi adiacenti e {@code weights} con i pesi dei corrispondenti
+ * archi; la lista del nodo di indice i occupa le posizioni
+ * <code>[offsets[i], offsets[i + 1])</code>. Ogni arco non orientato compare
+ * nelle liste di entrambi i suoi estremi, un cappio compare una volta sola
+ * nella lista del suo nodo. Ogni lista è ordinata per indice del nodo
+ * adiacente, quindi {@code containsEdge} è una ricerca binaria.
+ *
+ * L'occupazione di memoria è O(n + m), contro le Θ(n^2) celle di
+ * {@code AdjacencyMatrixUndirectedGraph}: è la rappresentazione adatta a grafi
+ * grandi e sparsi. Gli oggetti {@code GraphEdge} non vengono conservati ma
+ * sono creati ad ogni lettura; essendo l'uguaglianza tra archi definita sui
+ * nodi, gli archi restituiti sono uguali a quelli forniti al costruttore. Il
+ * grafo viene costruito una sola volta da una lista di archi e i metodi di
+ * modifica lanciano {@code UnsupportedOperationException}.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ * @param <L>
+ *                etichette dei nodi
+ */
+public class CompressedSparseRowUndirectedGraph<L> extends Graph<L> {
+
+    // Nodo associato ad ogni indice.
+    private final GraphNode<L>[] nodes;
+
+    // Associazione di ogni etichetta con l'indice del suo nodo.
+    private final Map<L, Integer> labelIndex;
+
+    // Inizio della lista di adiacenza di ogni nodo; offsets[n] è la
+    // lunghezza totale delle liste.
+    private final int[] offsets;
+
+    // Indici dei nodi adiacenti, lista per lista.
+    private final int[] targets;
+
+    // Pesi degli archi, paralleli a targets (NaN se l'arco non è pesato).
+    private final double[] weights;
+
+    private final int edgesCount; // Numero di archi distinti.
+
+    private final Set<GraphNode<L>> nodeSet; // Vista immutabile dei nodi.
+
+    /**
+     * Costruisce un grafo con i nodi e gli archi dati. I nodi ripetuti vengono
+     * considerati una sola volta; se più archi collegano la stessa coppia di
+     * nodi viene mantenuto il primo, come farebbe {@code addEdge}.
+     *
+     * @param nodes
+     *                  i nodi del grafo
+     * @param edges
+     *                  gli archi del grafo
+     * @throws NullPointerException
+     *                                      se una delle collezioni, uno dei
+     *                                      nodi o uno degli archi è null
+     * @throws IllegalArgumentException
+     *                                      se un arco è orientato o ha un
+     *                                      estremo che non è tra i nodi
+     */
+    @SuppressWarnings("unchecked")
+    public CompressedSparseRowUndirectedGraph(Collection<? extends GraphNode<L>> nodes,
+            Collection<? extends GraphEdge<L>> edges) {
+        Objects.requireNonNull(nodes, "La collezione dei nodi è nulla.");
+        Objects.requireNonNull(edges, "La collezione degli archi è nulla.");
+
+        // Fase 1: indicizzazione dei nodi.
+        this.labelIndex = new HashMap<>((nodes.size() * 4) / 3 + 1);
+        GraphNode<L>[] indexed = (GraphNode<L>[]) new GraphNode<?>[nodes.size()];
+        int n = 0;
+        for (GraphNode<L> node : nodes) {
+            Objects.requireNonNull(node, "Il nodo passato è nullo.");
+            if (this.labelIndex.putIfAbsent(node.getLabel(), n) == null)
+                indexed[n++] = node;
+        }
+        this.nodes = Arrays.copyOf(indexed, n);
+
+        // Fase 2: liste di adiacenza non ordinate, nell'ordine degli archi.
+        int m = edges.size();
+        int[] sources = new int[m];
+        int[] ends = new int[m];
+        double[] edgeWeights = new double[m];
+        int[] degrees = new int[n + 1];
+        int k = 0;
+        for (GraphEdge<L> edge : edges) {
+            Objects.requireNonNull(edge, "L'arco passato è nullo.");
+            if (edge.isDirected())
+                throw new IllegalArgumentException("Gli archi orientati non sono supportati in questo grafo.");
+            sources[k] = checkAndGetIndex(edge.getNode1());
+            ends[k] = checkAndGetIndex(edge.getNode2());
+            edgeWeights[k] = edge.getWeight();
+            degrees[sources[k]]++;
+            if (sources[k] != ends[k])
+                degrees[ends[k]]++;
+            k++;
+        }
+        int[] unsortedOffsets = prefixSums(degrees, n);
+        int[] unsortedTargets = new int[unsortedOffsets[n]];
+        double[] unsortedWeights = new double[unsortedOffsets[n]];
+        int[] next = Arrays.copyOf(unsortedOffsets, n);
+        for (int e = 0; e < m; e++) {
+            int u = sources[e];
+            int v = ends[e];
+            unsortedTargets[next[u]] = v;
+            unsortedWeights[next[u]++] = edgeWeights[e];
+            if (u != v) {
+                unsortedTargets[next[v]] = u;
+                unsortedWeights[next[v]++] = edgeWeights[e];
+            }
+        }
+
+        // Fase 3: ordinamento delle liste tramite trasposizione. Visitando i
+        // nodi in ordine crescente e aggiungendo u alla lista di ogni suo
+        // adiacente v, ogni lista risulta ordinata; essendo il grafo non
+        // orientato, il trasposto è il grafo stesso. L'ordine relativo degli
+        // archi paralleli è preservato, quindi il primo resta il primo.
+        int[] sortedTargets = new int[unsortedTargets.length];
+        double[] sortedWeights = new double[unsortedTargets.length];
+        next = Arrays.copyOf(unsortedOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int p = unsortedOffsets[u]; p < unsortedOffsets[u + 1]; p++) {
+                int v = unsortedTargets[p];
+                sortedTargets[next[v]] = u;
+                sortedWeights[next[v]++] = unsortedWeights[p];
+            }
+        }
+
+        // Fase 4: eliminazione degli archi paralleli e compattazione.
+        this.offsets = new int[n + 1];
+        int size = 0;
+        int selfLoops = 0;
+        for (int u = 0; u < n; u++) {
+            this.offsets[u] = size;
+            for (int p = unsortedOffsets[u]; p < unsortedOffsets[u + 1]; p++) {
+                if (size > this.offsets[u] && sortedTargets[size - 1] == sortedTargets[p])
+                    continue; // Arco parallelo a quello precedente: lo scartiamo.
+                sortedTargets[size] = sortedTargets[p];
+                sortedWeights[size++] = sortedWeights[p];
+                if (sortedTargets[p] == u)
+                    selfLoops++;
+            }
+        }
+        this.offsets[n] = size;
+        this.targets = Arrays.copyOf(sortedTargets, size);
+        this.weights = Arrays.copyOf(sortedWeights, size);
+        this.edgesCount = (size + selfLoops) / 2; // I cappi compaiono una volta sola.
+
+        Set<GraphNode<L>> nodeSet = new HashSet<>((n * 4) / 3 + 1);
+        Collections.addAll(nodeSet, this.nodes);
+        this.nodeSet = Collections.unmodifiableSet(nodeSet);
+    }
+
+    @Override
+    public int nodeCount() { return this.nodes.length; } // O(1)
+
+    @Override
+    public int edgeCount() { return this.edgesCount; } // O(1)
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Il grafo CSR è immutabile");
+    }
+
+    @Override
+    public boolean isDirected() { return false; } // Grafo non orientato.
+
+    @Override
+    public Set<GraphNode<L>> getNodes() { return this.nodeSet; }
+
+    @Override
+    public boolean addNode(GraphNode<L> node) {
+        throw new UnsupportedOperationException("Il grafo CSR è immutabile");
+    }
+
+    @Override
+    public boolean removeNode(GraphNode<L> node) {
+        throw new UnsupportedOperationException("Il grafo CSR è immutabile");
+    }
+
+    @Override
+    public boolean containsNode(GraphNode<L> node) {
+        Objects.requireNonNull(node, "Il nodo passato è nullo.");
+        return this.labelIndex.containsKey(node.getLabel()); // I nodi sono uguali se hanno la stessa etichetta.
+    }
+
+    @Override
+    public GraphNode<L> getNodeOf(L label) {
+        Objects.requireNonNull(label, "L'etichetta passata è nulla.");
+        Integer index = this.labelIndex.get(label);
+        return index == null ? null : this.nodes[index];
+    }
+
+    @Override
+    public int getNodeIndexOf(L label) {
+        Objects.requireNonNull(label, "L'etichetta passata è nulla.");
+        Integer index = this.labelIndex.get(label);
+        if (index == null)
+            throw new IllegalArgumentException("Nessun nodo associato a questa etichetta presente nel grafo.");
+        return index;
+    }
+
+    @Override
+    public GraphNode<L> getNodeAtIndex(int i) {
+        if (i < 0 || i >= nodeCount())
+            throw new IndexOutOfBoundsException("L'indice inserito è fuori dal range.");
+        return this.nodes[i];
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+        int u = checkAndGetIndex(node);
+        Set<GraphNode<L>> adjacentNodes = new HashSet<>();
+        for (int p = this.offsets[u]; p < this.offsets[u + 1]; p++)
+            adjacentNodes.add(this.nodes[this.targets[p]]);
+        return adjacentNodes;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdges() {
+        Set<GraphEdge<L>> allEdges = new HashSet<>((this.edgesCount * 4) / 3 + 1);
+        for (int u = 0; u < this.nodes.length; u++) {
+            // Le liste sono ordinate: gli archi verso nodi di indice minore di
+            // u sono già stati raccolti dalle liste precedenti.
+            for (int p = lowerBound(u, u); p < this.offsets[u + 1]; p++)
+                allEdges.add(edgeAt(u, p));
+        }
+        return allEdges;
+    }
+
+    @Override
+    public boolean addEdge(GraphEdge<L> edge) {
+        throw new UnsupportedOperationException("Il grafo CSR è immutabile");
+    }
+
+    @Override
+    public boolean removeEdge(GraphEdge<L> edge) {
+        throw new UnsupportedOperationException("Il grafo CSR è immutabile");
+    }
+
+    @Override
+    public boolean containsEdge(GraphEdge<L> edge) {
+        Objects.requireNonNull(edge, "L'arco passato è nullo.");
+
+        if (edge.isDirected())
+            throw new IllegalArgumentException("Gli archi orientati non sono supportati in questo grafo.");
+
+        int u = checkAndGetIndex(edge.getNode1());
+        int v = checkAndGetIndex(edge.getNode2());
+        return findPosition(u, v) >= 0;
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+        int u = checkAndGetIndex(node);
+        Set<GraphEdge<L>> edges = new HashSet<>();
+        for (int p = this.offsets[u]; p < this.offsets[u + 1]; p++)
+            edges.add(edgeAt(u, p));
+        return edges;
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public void forEachEdge(Consumer<? super GraphEdge<L>> action) {
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        // Stessa visita di getEdges(), senza creare l'insieme.
+        for (int u = 0; u < this.nodes.length; u++)
+            for (int p = lowerBound(u, u); p < this.offsets[u + 1]; p++)
+                action.accept(edgeAt(u, p));
+    }
+
+    @Override
+    public void forEachEdgeOf(GraphNode<L> node, Consumer<? super GraphEdge<L>> action) {
+        int u = checkAndGetIndex(node);
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        for (int p = this.offsets[u]; p < this.offsets[u + 1]; p++)
+            action.accept(edgeAt(u, p));
+    }
+
+    @Override
+    public void forEachNeighbour(GraphNode<L> node, Consumer<? super GraphNode<L>> action) {
+        int u = checkAndGetIndex(node);
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        for (int p = this.offsets[u]; p < this.offsets[u + 1]; p++)
+            action.accept(this.nodes[this.targets[p]]);
+    }
+
+    @Override
+    public void forEachNeighbourIndex(int i, IntConsumer action) {
+        checkIndex(i);
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        for (int p = this.offsets[i]; p < this.offsets[i + 1]; p++)
+            action.accept(this.targets[p]);
+    }
+
+    @Override
+    public int getDegreeAt(int i) {
+        checkIndex(i);
+        return this.offsets[i + 1] - this.offsets[i]; // O(1)
+    }
+
+    @Override
+    public int getNeighbourIndexAt(int i, int k) {
+        checkIndex(i);
+        if (k < 0 || k >= this.offsets[i + 1] - this.offsets[i])
+            throw new IndexOutOfBoundsException("La posizione inserita è fuori dal range.");
+        return this.targets[this.offsets[i] + k]; // O(1)
+    }
+
+    @Override
+    public GraphEdge<L> getEdgeAt(int i, int j) {
+        int p = findPosition(checkIndex(i), checkIndex(j));
+        return p < 0 ? null : edgeAt(i, p);
+    }
+
+    @Override
+    public boolean containsEdgeAt(int i, int j) {
+        return findPosition(checkIndex(i), checkIndex(j)) >= 0;
+    }
+
+    @Override
+    public double getEdgeWeightAt(int i, int j) {
+        int p = findPosition(checkIndex(i), checkIndex(j));
+        return p < 0 ? Double.NaN : this.weights[p];
+    }
+
+    @Override
+    public void forEachEdgeIndex(EdgeIndexConsumer action) {
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        // Stesso ordine di forEachEdge.
+        for (int u = 0; u < this.nodes.length; u++)
+            for (int p = lowerBound(u, u); p < this.offsets[u + 1]; p++)
+                action.accept(u, this.targets[p], this.weights[p]);
+    }
+
+    // METODI PRIVATI
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= nodeCount())
+            throw new IndexOutOfBoundsException("L'indice inserito è fuori dal range.");
+        return i;
+    }
+
+    private int checkAndGetIndex(GraphNode<L> node) {
+        Objects.requireNonNull(node, "Il nodo passato è nullo.");
+        Integer index = this.labelIndex.get(node.getLabel());
+        if (index == null)
+            throw new IllegalArgumentException("Il nodo " + node + " non esiste nel grafo.");
+        return index;
+    }
+
+    /*
+     * Crea l'arco corrispondente alla posizione p della lista del nodo u.
+     */
+    private GraphEdge<L> edgeAt(int u, int p) {
+        return new GraphEdge<L>(this.nodes[u], this.nodes[this.targets[p]], false, this.weights[p]);
+    }
+
+    /*
+     * Restituisce la posizione di v nella lista ordinata di u, oppure un
+     * valore negativo se i due nodi non sono adiacenti.
+     */
+    private int findPosition(int u, int v) {
+        int p = lowerBound(u, v);
+        return p < this.offsets[u + 1] && this.targets[p] == v ? p : -1;
+    }
+
+    /*
+     * Restituisce la prima posizione della lista ordinata di u il cui nodo
+     * adiacente ha indice non minore di v.
+     */
+    private int lowerBound(int u, int v) {
+        int low = this.offsets[u];
+        int high = this.offsets[u + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.targets[mid] < v)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /*
+     * Calcola le somme prefisse dei gradi, cioè l'inizio della lista di ogni
+     * nodo; la posizione n contiene la lunghezza totale.
+     */
+    private static int[] prefixSums(int[] degrees, int n) {
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++)
+            offsets[u + 1] = offsets[u] + degrees[u];
+        return offsets;
+    }
+}
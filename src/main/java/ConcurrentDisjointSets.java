@@ -0,0 +1,380 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Implementazione dell'interfaccia <code>DisjointSets<E></code> senza lock,
+ * che permette a più thread di eseguire contemporaneamente unioni e ricerche.
+ *
+ * Gli elementi sono fissati alla costruzione e ricevono gli indici
+ * <code>[0, size() - 1]</code>; i padri degli alberi sono conservati in un
+ * {@code AtomicIntegerArray}. La ricerca del rappresentante applica il
+ * dimezzamento del cammino tramite compare-and-set: se un altro thread ha già
+ * modificato il padre l'aggiornamento fallisce senza conseguenze, perché ogni
+ * elemento punta sempre a un antenato nello stesso albero, e la ricerca non
+ * attende mai altri thread. L'unione collega con un compare-and-set la radice
+ * di priorità minore sotto l'altra, e riprova solo se nel frattempo la
+ * radice è stata collegata da un altro thread. Le priorità sono un
+ * rimescolamento degli indici, così gli alberi hanno altezza logaritmica
+ * attesa senza dover mantenere i ranghi; il rappresentante dell'unione di
+ * due insiemi non dipende quindi dall'ordine degli elementi passati.
+ *
+ * Gli algoritmi paralleli possono usare direttamente le operazioni sugli
+ * indici ({@link #find(int)}, {@link #union(int, int)},
+ * {@link #connected(int, int)}); {@link #ofSize(int)} crea una struttura i
+ * cui elementi sono gli interi stessi. {@code makeSet} e {@code clear} non
+ * sono invece pensati per l'uso concorrente: gli elementi cancellati da
+ * {@code clear} possono essere reinseriti con {@code makeSet}, ma non se ne
+ * possono aggiungere di nuovi. Anche {@code getCurrentRepresentatives} e
+ * {@code getCurrentElementsOfSetContaining} scandiscono tutti gli elementi e
+ * non sono istantanee atomiche se eseguiti durante delle unioni.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ * @param <E>
+ *                il tipo degli elementi degli insiemi disgiunti
+ */
+public class ConcurrentDisjointSets<E> implements DisjointSets<E> {
+
+    // Valore del padre di un elemento non presente.
+    private static final int ABSENT = -1;
+
+    private final AtomicIntegerArray parents; // Padre di ogni indice, sé stesso per le radici.
+    private final LongAdder unions; // Numero di unioni riuscite dall'ultima clear.
+    private final AtomicInteger present; // Numero di elementi presenti.
+    private final int size; // Numero di elementi.
+
+    // Elemento associato ad ogni indice e viceversa; null se gli elementi
+    // sono gli interi stessi.
+    private final List<E> elements;
+    private final Map<E, Integer> indexes;
+
+    /**
+     * Costruisce una collezione di insiemi singoletto, uno per ogni elemento
+     * distinto della collezione data, nel suo ordine di iterazione.
+     *
+     * @param elements
+     *                     gli elementi
+     * @throws NullPointerException
+     *                                  se la collezione o uno dei suoi
+     *                                  elementi è null
+     */
+    public ConcurrentDisjointSets(Collection<? extends E> elements) {
+        Objects.requireNonNull(elements, "La collezione degli elementi è nulla.");
+        this.elements = new ArrayList<>(elements.size());
+        this.indexes = new HashMap<>((elements.size() * 4) / 3 + 1);
+        for (E e : elements) {
+            Objects.requireNonNull(e, "L'elemento passato è nullo.");
+            if (!this.indexes.containsKey(e)) {
+                this.indexes.put(e, this.elements.size());
+                this.elements.add(e);
+            }
+        }
+        this.size = this.elements.size();
+        this.parents = new AtomicIntegerArray(this.size);
+        this.unions = new LongAdder();
+        this.present = new AtomicInteger();
+        reset(true);
+    }
+
+    private ConcurrentDisjointSets(int size) {
+        this.elements = null;
+        this.indexes = null;
+        this.size = size;
+        this.parents = new AtomicIntegerArray(size);
+        this.unions = new LongAdder();
+        this.present = new AtomicInteger();
+        reset(true);
+    }
+
+    /**
+     * Crea una collezione di n insiemi singoletto i cui elementi sono gli
+     * interi in <code>[0, n - 1]</code>, che coincidono con i loro indici.
+     *
+     * @param n
+     *              il numero di elementi
+     * @return una nuova collezione di insiemi disgiunti di interi
+     * @throws IllegalArgumentException
+     *                                      se n è negativo
+     */
+    public static ConcurrentDisjointSets<Integer> ofSize(int n) {
+        if (n < 0)
+            throw new IllegalArgumentException("Numero di elementi negativo: " + n);
+        return new ConcurrentDisjointSets<Integer>(n);
+    }
+
+    /**
+     * Restituisce il numero di elementi, presenti o cancellati.
+     *
+     * @return il numero di elementi
+     */
+    public int size() { return this.size; }
+
+    /**
+     * Restituisce l'indice associato a un elemento.
+     *
+     * @param e
+     *              l'elemento
+     * @return l'indice dell'elemento
+     * @throws NullPointerException
+     *                                      se l'elemento è null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento non è tra quelli
+     *                                      della struttura
+     */
+    public int indexOf(E e) {
+        int i = indexOrAbsent(Objects.requireNonNull(e, "L'elemento passato è nullo."));
+        if (i == ABSENT)
+            throw new IllegalArgumentException("Elemento non previsto: " + e);
+        return i;
+    }
+
+    /**
+     * Restituisce l'elemento associato a un indice.
+     *
+     * @param i
+     *              l'indice
+     * @return l'elemento con indice i
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    @SuppressWarnings("unchecked")
+    public E elementAt(int i) {
+        checkIndex(i);
+        return this.elements == null ? (E) Integer.valueOf(i) : this.elements.get(i);
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme che contiene l'indice dato.
+     * Può essere chiamato da più thread contemporaneamente, anche durante
+     * delle unioni.
+     *
+     * @param i
+     *              l'indice
+     * @return l'indice del rappresentante
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     * @throws IllegalArgumentException
+     *                                       se l'elemento è stato cancellato
+     */
+    public int find(int i) {
+        checkPresent(i);
+        return findRoot(i);
+    }
+
+    /**
+     * Unisce in modo atomico gli insiemi che contengono i due indici. Può
+     * essere chiamato da più thread contemporaneamente.
+     *
+     * @param i
+     *              un indice del primo insieme
+     * @param j
+     *              un indice del secondo insieme
+     * @return true se gli insiemi erano distinti e questa chiamata li ha
+     *         uniti, false se erano già lo stesso insieme
+     * @throws IndexOutOfBoundsException
+     *                                       se un indice non è valido
+     * @throws IllegalArgumentException
+     *                                       se un elemento è stato cancellato
+     */
+    public boolean union(int i, int j) {
+        checkPresent(i);
+        checkPresent(j);
+        int x = i, y = j;
+        while (true) {
+            x = findRoot(x);
+            y = findRoot(y);
+            if (x == y)
+                return false;
+            if (priority(x) > priority(y) || (priority(x) == priority(y) && x > y)) {
+                int tmp = x;
+                x = y;
+                y = tmp;
+            }
+            // Il collegamento riesce solo se x è ancora una radice.
+            if (this.parents.compareAndSet(x, x, y)) {
+                this.unions.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Determina se due indici sono nello stesso insieme. Può essere chiamato
+     * da più thread contemporaneamente: se restituisce false, nell'istante in
+     * cui è stata verificata una delle radici i due insiemi erano distinti.
+     *
+     * @param i
+     *              il primo indice
+     * @param j
+     *              il secondo indice
+     * @return true se i due indici hanno lo stesso rappresentante
+     * @throws IndexOutOfBoundsException
+     *                                       se un indice non è valido
+     * @throws IllegalArgumentException
+     *                                       se un elemento è stato cancellato
+     */
+    public boolean connected(int i, int j) {
+        checkPresent(i);
+        checkPresent(j);
+        int x = i, y = j;
+        while (true) {
+            x = findRoot(x);
+            y = findRoot(y);
+            if (x == y)
+                return true;
+            // Se x è ancora una radice, gli insiemi erano distinti quando y
+            // è stata trovata; altrimenti un'unione concorrente ha spostato x.
+            if (this.parents.get(x) == x)
+                return false;
+        }
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti, cioè il numero di elementi
+     * presenti meno il numero di unioni riuscite. Durante delle unioni
+     * concorrenti il valore può non essere aggiornato.
+     *
+     * @return il numero di insiemi disgiunti
+     */
+    public int setCount() { return this.present.get() - this.unions.intValue(); }
+
+    @Override
+    public boolean isPresent(E e) {
+        // Come ForestDisjointSets, null non è mai presente.
+        if (e == null)
+            return false;
+        int i = indexOrAbsent(e);
+        return i != ABSENT && this.parents.get(i) != ABSENT;
+    }
+
+    /*
+     * Reinserisce, come insieme singoletto, un elemento cancellato da clear.
+     * Non è possibile aggiungere elementi diversi da quelli dati alla
+     * costruzione.
+     */
+    @Override
+    public void makeSet(E e) {
+        int i = indexOrAbsent(Objects.requireNonNull(e, "L'elemento passato è nullo."));
+        if (i == ABSENT)
+            throw new UnsupportedOperationException("Elemento non previsto alla costruzione: " + e);
+        if (!this.parents.compareAndSet(i, ABSENT, i))
+            throw new IllegalArgumentException("L'elemento" + e + " è gia presente in un insieme disgiunto.");
+        this.present.incrementAndGet();
+    }
+
+    @Override
+    public E findSet(E e) {
+        int i = indexOrAbsent(Objects.requireNonNull(e, "L'elemento passato è nullo."));
+        if (i == ABSENT || this.parents.get(i) == ABSENT)
+            return null;
+        return elementAt(findRoot(i));
+    }
+
+    @Override
+    public void union(E e1, E e2) {
+        Objects.requireNonNull(e1, "Il primo elemento passato è nullo.");
+        Objects.requireNonNull(e2, "Il secondo elemento passato è nullo.");
+        if (!isPresent(e1) || !isPresent(e2))
+            throw new IllegalArgumentException("Elementi non presenti nella struttura");
+
+        union(indexOrAbsent(e1), indexOrAbsent(e2));
+    }
+
+    @Override
+    public Set<E> getCurrentRepresentatives() {
+        Set<E> representatives = new HashSet<>();
+        for (int i = 0; i < this.size; i++)
+            if (this.parents.get(i) == i)
+                representatives.add(elementAt(i));
+        return representatives;
+    }
+
+    @Override
+    public Set<E> getCurrentElementsOfSetContaining(E e) {
+        Objects.requireNonNull(e);
+        if (!isPresent(e))
+            throw new IllegalArgumentException("Elemento non presente: " + e);
+
+        int root = findRoot(indexOrAbsent(e));
+        Set<E> members = new HashSet<>();
+        for (int i = 0; i < this.size; i++)
+            if (this.parents.get(i) != ABSENT && findRoot(i) == root)
+                members.add(elementAt(i));
+        return members;
+    }
+
+    /*
+     * Cancella tutti gli elementi, che possono essere reinseriti con makeSet.
+     */
+    @Override
+    public void clear() { reset(false); }
+
+    // METODI PRIVATI
+
+    /**
+     * Trova la radice dell'albero che contiene l'indice dato applicando il
+     * dimezzamento del cammino tramite compare-and-set.
+     *
+     * @param i l'indice, di un elemento presente
+     * @return l'indice della radice
+     */
+    private int findRoot(int i) {
+        AtomicIntegerArray parents = this.parents;
+        while (true) {
+            int parent = parents.get(i);
+            if (parent == i)
+                return i;
+            int grandParent = parents.get(parent);
+            if (parent != grandParent)
+                parents.compareAndSet(i, parent, grandParent);
+            i = grandParent;
+        }
+    }
+
+    private static int priority(int i) {
+        int h = i * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void reset(boolean present) {
+        for (int i = 0; i < this.size; i++)
+            this.parents.set(i, present ? i : ABSENT);
+        this.present.set(present ? this.size : 0);
+        this.unions.reset();
+    }
+
+    private int indexOrAbsent(E e) {
+        if (this.indexes != null) {
+            Integer i = this.indexes.get(e);
+            return i == null ? ABSENT : i;
+        }
+        if (!(e instanceof Integer))
+            return ABSENT;
+        int i = (Integer) e;
+        return i >= 0 && i < this.size ? i : ABSENT;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= this.size)
+            throw new IndexOutOfBoundsException("L'indice inserito è fuori dal range.");
+    }
+
+    private void checkPresent(int i) {
+        checkIndex(i);
+        if (this.parents.get(i) == ABSENT)
+            throw new IllegalArgumentException("Elemento non presente: " + i);
+    }
+}
@@ -0,0 +1,204 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe singoletto che implementa l'algoritmo di Prim nella versione con
+ * array, di complessità O(n^2), per trovare un Minimum Spanning Tree di un
+ * grafo non orientato, pesato e con pesi non negativi.
+ *
+ * La versione con array non usa code di priorità: ad ogni passo il nodo da
+ * aggiungere all'albero è cercato con una scansione lineare dell'array delle
+ * chiavi. Su un grafo denso, con m circa pari a n^2 / 2, questo è più
+ * conveniente che ordinare tutti gli archi come fa Kruskal. I vicini di ogni
+ * nodo sono visitati sugli indici con {@code forEachNeighbourIndex} e
+ * {@code getEdgeWeightAt}, senza creare insiemi di archi: su un
+ * {@code AdjacencyMatrixUndirectedGraph} questo equivale a scandire la riga
+ * della matrice di adiacenza, e oltre al grafo servono solo array di
+ * lunghezza n.
+ *
+ * Per ogni nodo, identificato dal suo indice, la chiave (il peso dell'arco
+ * più leggero che lo collega all'albero) e il padre sono conservati in array
+ * di tipi primitivi invece che nei campi {@code floatingPointDistance} e
+ * {@code previous} di {@code GraphNode}, così i nodi del grafo non vengono
+ * modificati. Se il grafo non è connesso, quando nessun nodo fuori
+ * dall'albero ha chiave finita l'algoritmo riparte da un nuovo nodo e
+ * restituisce, come {@code KruskalMSP}, una foresta di copertura minima.
+ *
+ * Gli archi sono confrontati per peso con {@code Double.compare} e, a parità
+ * di peso, per coppia di indici degli estremi (prima il minore, poi il
+ * maggiore). È lo stesso ordine in cui {@code AdjacencyMatrixUndirectedGraph}
+ * e {@code CompressedSparseRowUndirectedGraph} visitano gli archi, quindi su
+ * questi grafi il risultato coincide con quello di {@code KruskalMSP} anche
+ * in presenza di archi con pesi uguali. Se il grafo non supporta le
+ * operazioni sugli indici, gli archi sono estratti in una
+ * {@code IndexedEdgeList} e confrontati, come in {@code KruskalMSP}, per
+ * peso e identificatore.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ *
+ */
+public class DensePrimMSP<L> implements MSPComputer<L> {
+
+    // Valore che indica l'assenza del padre di un nodo.
+    private static final int NO_PARENT = -1;
+
+    // Valore che indica l'assenza dell'arco che collega un nodo all'albero.
+    private static final int NO_EDGE = -1;
+
+    /**
+     * Costruisce un calcolatore di un albero di copertura minimo che usa
+     * l'algoritmo di Prim con array su un grafo non orientato e pesato.
+     */
+    public DensePrimMSP() {
+    }
+
+    /**
+     * Utilizza l'algoritmo di Prim con array per trovare un albero di
+     * copertura minimo in un grafo non orientato e pesato, con pesi degli
+     * archi non negativi. Se il grafo non è connesso viene restituita una
+     * foresta di copertura minima.
+     *
+     * @param g
+     *              un grafo non orientato, pesato, con pesi non negativi
+     * @return l'insieme degli archi del grafo g che costituiscono l'albero di
+     *         copertura minimo trovato
+     * @throw NullPointerException se il grafo g è null
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi
+     */
+    @Override
+    public Set<GraphEdge<L>> computeMSP(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Grafo nullo non ammesso");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Il grafo deve essere non orientato");
+        if (!IndexedEdgeList.supportsIndexes(g))
+            return computeMSPOnEdgeList(IndexedEdgeList.of(g));
+
+        int n = g.getIndexBound();
+        double[] keys = new double[n];
+        int[] parents = new int[n];
+        boolean[] inTree = new boolean[n];
+        initialize(keys, parents);
+
+        Set<GraphEdge<L>> mst = new LinkedHashSet<>();
+        for (int step = 0; step < n; step++) {
+            int u = extractMin(keys, parents, inTree);
+            inTree[u] = true;
+            if (parents[u] != NO_PARENT)
+                mst.add(g.getEdgeAt(parents[u], u));
+
+            g.forEachNeighbourIndex(u, v -> {
+                double weight = g.getEdgeWeightAt(u, v);
+                if (!(weight >= 0)) // Vero anche per NaN, cioè per gli archi non pesati.
+                    throw new IllegalArgumentException("Archi con pesi non validi");
+                if (!inTree[v] && (parents[v] == NO_PARENT
+                        || precedes(weight, u, v, keys[v], parents[v], v, n))) {
+                    keys[v] = weight;
+                    parents[v] = u;
+                }
+            });
+        }
+        return mst;
+    }
+
+    // METODI PRIVATI
+
+    private static void initialize(double[] keys, int[] parents) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = Double.POSITIVE_INFINITY;
+            parents[i] = NO_PARENT;
+        }
+    }
+
+    /**
+     * Cerca con una scansione lineare il nodo fuori dall'albero con chiave
+     * minima. Se nessun nodo ha un padre la componente corrente è completa, e
+     * il primo nodo fuori dall'albero diventa la radice della successiva.
+     *
+     * @param keys le chiavi dei nodi
+     * @param parents i padri dei nodi
+     * @param inTree i nodi già nell'albero
+     * @return l'indice del nodo da aggiungere all'albero
+     */
+    private static int extractMin(double[] keys, int[] parents, boolean[] inTree) {
+        int n = keys.length;
+        int min = -1;
+        for (int v = 0; v < n; v++) {
+            if (inTree[v])
+                continue;
+            if (min == -1 || parents[v] != NO_PARENT && (parents[min] == NO_PARENT
+                    || precedes(keys[v], parents[v], v, keys[min], parents[min], min, n)))
+                min = v;
+        }
+        return min;
+    }
+
+    /**
+     * Determina se l'arco (i1, j1) di peso w1 precede l'arco (i2, j2) di peso
+     * w2: prima per peso, poi per indice minore e infine per indice maggiore
+     * degli estremi.
+     */
+    private static boolean precedes(double w1, int i1, int j1, double w2, int i2, int j2, int n) {
+        int byWeight = Double.compare(w1, w2);
+        if (byWeight != 0)
+            return byWeight < 0;
+        return edgeKey(i1, j1, n) < edgeKey(i2, j2, n);
+    }
+
+    // Posizione dell'arco (i, j) nell'ordine per coppia di estremi.
+    private static long edgeKey(int i, int j, int n) {
+        return (long) Math.min(i, j) * n + Math.max(i, j);
+    }
+
+    /**
+     * Versione dell'algoritmo per i grafi che non supportano le operazioni
+     * sugli indici: i vicini di ogni nodo sono letti dagli archi estratti in
+     * una {@code IndexedEdgeList} e la chiave di ogni nodo è l'identificatore
+     * del suo arco più leggero verso l'albero.
+     *
+     * @param edges gli archi del grafo
+     * @return gli archi dell'albero di copertura minimo
+     */
+    private static <L> Set<GraphEdge<L>> computeMSPOnEdgeList(IndexedEdgeList<L> edges) {
+        int n = edges.indexBound;
+        // Archi incidenti in ogni nodo: quelli del nodo i sono in
+        // incident[offsets[i]] ... incident[offsets[i + 1] - 1].
+        int[] offsets = new int[n + 1];
+        int[] incident = edges.incidentEdges(offsets);
+
+        // Arco più leggero che collega ogni nodo all'albero, NO_EDGE se non
+        // c'è.
+        int[] keys = new int[n];
+        Arrays.fill(keys, NO_EDGE);
+        boolean[] inTree = new boolean[n];
+
+        Set<GraphEdge<L>> mst = new LinkedHashSet<>();
+        for (int step = 0; step < n; step++) {
+            int u = -1;
+            for (int v = 0; v < n; v++)
+                if (!inTree[v] && (u == -1 || keys[v] != NO_EDGE
+                        && (keys[u] == NO_EDGE || edges.compare(keys[v], keys[u]) < 0)))
+                    u = v;
+            inTree[u] = true;
+            if (keys[u] != NO_EDGE)
+                mst.add(edges.edge(keys[u]));
+
+            for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+                int id = incident[k];
+                int v = edges.sources[id] == u ? edges.targets[id] : edges.sources[id];
+                if (!inTree[v] && (keys[v] == NO_EDGE || edges.compare(id, keys[v]) < 0))
+                    keys[v] = id;
+            }
+        }
+        return mst;
+    }
+}
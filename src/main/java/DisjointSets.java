@@ -1,5 +1,8 @@
 package it.unicam.cs.asdl2425.mp2;
 
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -88,6 +91,76 @@ public interface DisjointSets<E> {
      */
     void union(E e1, E e2);
 
+    /**
+     * Unisce, nell'ordine dato, gli insiemi disgiunti di ogni coppia di
+     * elementi di un blocco. Le coppie sono memorizzate consecutivamente: la
+     * k-esima coppia è formata dagli elementi di posizione 2k e 2k + 1. Il
+     * risultato è lo stesso delle chiamate di {@link #union(Object, Object)}
+     * sulle singole coppie, ma tutti gli elementi vengono controllati prima di
+     * eseguire qualsiasi unione, così se viene lanciata un'eccezione la
+     * struttura non è stata modificata.
+     * 
+     * L'implementazione di default ricorre a {@code findSet} e {@code union};
+     * le classi che implementano questa interface possono ridefinirla per
+     * cercare e controllare gli elementi del blocco in un unico passaggio,
+     * prima delle unioni, riducendo il costo di ogni singola chiamata. Le
+     * coppie non possono invece essere riordinate, perché l'insieme
+     * restituito dipende dall'ordine in cui sono unite.
+     * 
+     * @param pairs
+     *                  le coppie di elementi da unire
+     * @return l'insieme delle posizioni k delle coppie i cui elementi erano,
+     *         al momento della loro unione, in insiemi distinti
+     * @throws NullPointerException
+     *                                      se la lista o uno dei suoi elementi
+     *                                      è null
+     * @throws IllegalArgumentException
+     *                                      se la lista ha un numero dispari di
+     *                                      elementi oppure se uno degli
+     *                                      elementi non è presente in nessuno
+     *                                      degli insiemi disgiunti correnti
+     */
+    default BitSet unionAll(List<? extends E> pairs) {
+        Objects.requireNonNull(pairs, "La lista delle coppie è nulla.");
+        if (pairs.size() % 2 != 0)
+            throw new IllegalArgumentException("Numero dispari di elementi nelle coppie: " + pairs.size());
+        for (E e : pairs)
+            if (!isPresent(Objects.requireNonNull(e, "L'elemento passato è nullo.")))
+                throw new IllegalArgumentException("Elementi non presenti nella struttura");
+
+        BitSet merged = new BitSet(pairs.size() / 2);
+        for (int k = 0; k < pairs.size() / 2; k++) {
+            E e1 = pairs.get(2 * k);
+            E e2 = pairs.get(2 * k + 1);
+            if (!findSet(e1).equals(findSet(e2))) {
+                union(e1, e2);
+                merged.set(k);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Aggiunge alla lista out, nell'ordine dato, il rappresentante
+     * dell'insieme disgiunto di ogni elemento di un blocco, oppure
+     * <code>null</code> per gli elementi non presenti, come
+     * {@link #findSet(Object)}.
+     * 
+     * @param elements
+     *                     gli elementi di cui cercare il rappresentante
+     * @param out
+     *                     la lista a cui aggiungere i rappresentanti
+     * @throws NullPointerException
+     *                                  se una delle liste o uno degli elementi
+     *                                  è null
+     */
+    default void findAll(List<? extends E> elements, List<? super E> out) {
+        Objects.requireNonNull(elements, "La lista degli elementi è nulla.");
+        Objects.requireNonNull(out, "La lista dei risultati è nulla.");
+        for (E e : elements)
+            out.add(findSet(e));
+    }
+
     /**
      * Restituisce l'insieme dei rappresentantanti degli insiemi disgiunti
      * attualmente presenti.
@@ -113,6 +186,30 @@ public interface DisjointSets<E> {
      */
     Set<E> getCurrentElementsOfSetContaining(E e);
 
+    /**
+     * Rimuove un elemento dall'insieme disgiunto di cui fa parte, lasciando
+     * invariati gli altri elementi e i loro insiemi. Se l'elemento era il
+     * rappresentante ne viene scelto un altro; se era l'unico elemento
+     * l'insieme scompare. Operazione opzionale: l'implementazione di default
+     * lancia sempre <code>UnsupportedOperationException</code>.
+     * 
+     * @param e
+     *              l'elemento da rimuovere
+     * @throws NullPointerException
+     *                                           se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                           se l'elemento passato non è
+     *                                           presente in nessuno degli
+     *                                           insiemi disgiunti correnti
+     * @throws UnsupportedOperationException
+     *                                           se la classe che implementa
+     *                                           questa interface non supporta
+     *                                           la rimozione
+     */
+    default void delete(E e) {
+        throw new UnsupportedOperationException("Rimozione di elementi non supportata");
+    }
+
     /**
      * Cancella tutti gli insiemi disgiunti correnti. Dopo l'esecuzione di
      * questo metodo la foresta risulterà vuota.
@@ -0,0 +1,233 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe singoletto che implementa la variante Filter-Kruskal dell'algoritmo
+ * di Kruskal (Osipov, Sanders, Singler, 2009) per trovare un Minimum Spanning
+ * Tree di un grafo non orientato, pesato e con pesi non negativi.
+ *
+ * Invece di ordinare subito tutti gli archi, l'algoritmo li partiziona come
+ * nel quicksort rispetto a un arco pivot e procede ricorsivamente prima sulla
+ * metà leggera. Prima di passare alla metà pesante elimina, senza ordinarli,
+ * tutti gli archi i cui estremi sono già collegati nella
+ * {@code ForestDisjointSets<GraphNode<L>>}. Sui grafi densi, come quelli
+ * rappresentati con {@code AdjacencyMatrixUndirectedGraph}, la gran parte degli
+ * archi pesanti cade all'interno di un'unica componente e viene scartata con
+ * una sola coppia di findSet, evitando il costo O(m log m) dell'ordinamento
+ * completo.
+ *
+ * Gli archi sono confrontati per peso e, a parità di peso, per ordine di
+ * visita nel grafo, esattamente come avviene nell'ordinamento stabile di
+ * {@code KruskalMSP}: l'insieme restituito è quindi identico a quello di
+ * {@code KruskalMSP.computeMSP}.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ *
+ */
+public class FilterKruskalMSP<L> implements MSPComputer<L> {
+
+    // Dimensione minima di un intervallo di archi che viene ancora
+    // partizionato; sotto questa soglia si esegue Kruskal classico.
+    private static final int MIN_PARTITION_SIZE = 32;
+
+    /*
+     * Struttura dati per rappresentare gli insiemi disgiunti utilizzata
+     * dall'algoritmo.
+     */
+    private ForestDisjointSets<GraphNode<L>> disjointSets;
+
+    // Archi del grafo corrente in forma di array paralleli.
+    private IndexedEdgeList<L> edges;
+
+    // Albero in costruzione.
+    private Set<GraphEdge<L>> mst;
+
+    // Numero di archi dopo il quale l'albero è completo.
+    private int targetEdges;
+
+    // Numero di archi scartati dal filtro durante l'ultima esecuzione.
+    private int filteredEdges;
+
+    /**
+     * Costruisce un calcolatore di un albero di copertura minimo che usa
+     * l'algoritmo Filter-Kruskal su un grafo non orientato e pesato.
+     */
+    public FilterKruskalMSP() {
+        this.disjointSets = new ForestDisjointSets<GraphNode<L>>();
+        this.edges = null;
+        this.mst = null;
+        this.filteredEdges = 0;
+    }
+
+    /**
+     * Utilizza l'algoritmo Filter-Kruskal per trovare un albero di copertura
+     * minimo in un grafo non orientato e pesato, con pesi degli archi non
+     * negativi. L'albero restituito non è radicato, quindi è rappresentato
+     * semplicemente con un sottoinsieme degli archi del grafo.
+     *
+     * @param g
+     *              un grafo non orientato, pesato, con pesi non negativi
+     * @return l'insieme degli archi del grafo g che costituiscono l'albero di
+     *         copertura minimo trovato
+     * @throw NullPointerException se il grafo g è null
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi
+     */
+    @Override
+    public Set<GraphEdge<L>> computeMSP(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Grafo nullo non ammesso");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Il grafo deve essere non orientato");
+
+        edges = IndexedEdgeList.of(g); // Estrae indici e pesi, validando i pesi.
+        mst = new LinkedHashSet<>();
+        targetEdges = Math.max(0, g.nodeCount() - 1);
+        filteredEdges = 0;
+
+        // Inizializza gli insiemi disgiunti con tutti i nodi del grafo.
+        disjointSets.clear();
+        for (GraphNode<L> node : g.getNodes())
+            disjointSets.makeSet(node);
+
+        int[] ids = new int[edges.edgeCount];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = i;
+        filterKruskal(ids, 0, ids.length);
+
+        Set<GraphEdge<L>> result = mst;
+        edges = null; // Non tratteniamo riferimenti al grafo tra una chiamata e l'altra.
+        mst = null;
+        return result;
+    }
+
+    /**
+     * Restituisce il numero di archi che l'ultima esecuzione dell'algoritmo ha
+     * scartato tramite il filtro, cioè senza doverli ordinare, perché i loro
+     * estremi erano già collegati.
+     *
+     * @return il numero di archi filtrati dall'ultima esecuzione, 0 se non è
+     *         stata ancora eseguita alcuna computazione
+     */
+    public int getFilteredEdgeCount() {
+        return this.filteredEdges;
+    }
+
+    // METODI PRIVATI
+
+    /**
+     * Processa gli archi nell'intervallo <code>[from, to)</code> in ordine di
+     * peso. La ricorsione avviene solo sulla metà leggera, mentre la metà
+     * pesante, dopo essere stata filtrata, viene processata dallo stesso ciclo.
+     *
+     * @param ids gli identificatori degli archi
+     * @param from primo indice incluso
+     * @param to ultimo indice escluso
+     */
+    private void filterKruskal(int[] ids, int from, int to) {
+        while (mst.size() < targetEdges) {
+            // Sugli intervalli piccoli, o comunque non più grandi del numero
+            // di nodi, partizionare non conviene più.
+            if (to - from <= Math.max(MIN_PARTITION_SIZE, edges.indexBound)) {
+                kruskal(ids, from, to);
+                return;
+            }
+
+            int split = partition(ids, from, to);
+            filterKruskal(ids, from, split); // Prima gli archi leggeri.
+            from = filter(ids, split, to); // Poi i pesanti che collegano ancora alberi diversi.
+        }
+    }
+
+    /**
+     * Esegue l'algoritmo di Kruskal classico sull'intervallo di archi dato,
+     * dopo averlo ordinato.
+     *
+     * @param ids gli identificatori degli archi
+     * @param from primo indice incluso
+     * @param to ultimo indice escluso
+     */
+    private void kruskal(int[] ids, int from, int to) {
+        edges.sort(ids, from, to);
+        for (int k = from; k < to && mst.size() < targetEdges; k++) {
+            int id = ids[k];
+            GraphNode<L> node1 = edges.nodes[edges.sources[id]];
+            GraphNode<L> node2 = edges.nodes[edges.targets[id]];
+
+            // Se i rappresentanti sono diversi, l'arco può essere aggiunto all'MST.
+            if (!disjointSets.findSet(node1).equals(disjointSets.findSet(node2))) {
+                mst.add(edges.edge(id));
+                disjointSets.union(node1, node2);
+            }
+        }
+    }
+
+    /**
+     * Partiziona l'intervallo di archi dato rispetto a un pivot scelto come
+     * mediano di tre archi: gli archi che non seguono il pivot finiscono a
+     * sinistra, gli altri a destra. Essendo il pivot il mediano di tre archi
+     * distinti, entrambe le parti sono non vuote e strettamente più piccole
+     * dell'intervallo di partenza.
+     *
+     * @param ids gli identificatori degli archi
+     * @param from primo indice incluso
+     * @param to ultimo indice escluso
+     * @return l'indice di inizio della parte pesante
+     */
+    private int partition(int[] ids, int from, int to) {
+        int pivot = medianOfThree(ids[from], ids[(from + to) >>> 1], ids[to - 1]);
+        int i = from;
+        int j = to - 1;
+        while (i <= j) {
+            if (edges.compare(ids[i], pivot) <= 0)
+                i++;
+            else {
+                int tmp = ids[i];
+                ids[i] = ids[j];
+                ids[j--] = tmp;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Elimina dall'intervallo di archi dato quelli i cui estremi si trovano
+     * già nello stesso insieme disgiunto, compattando i rimanenti verso la
+     * fine dell'intervallo.
+     *
+     * @param ids gli identificatori degli archi
+     * @param from primo indice incluso
+     * @param to ultimo indice escluso
+     * @return il nuovo indice di inizio dell'intervallo
+     */
+    private int filter(int[] ids, int from, int to) {
+        int kept = to;
+        for (int k = to - 1; k >= from; k--) {
+            int id = ids[k];
+            GraphNode<L> rep1 = disjointSets.findSet(edges.nodes[edges.sources[id]]);
+            GraphNode<L> rep2 = disjointSets.findSet(edges.nodes[edges.targets[id]]);
+            if (!rep1.equals(rep2))
+                ids[--kept] = id;
+        }
+        filteredEdges += kept - from;
+        return kept;
+    }
+
+    private int medianOfThree(int a, int b, int c) {
+        if (edges.compare(a, b) > 0) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        if (edges.compare(b, c) <= 0)
+            return b;
+        return edges.compare(a, c) > 0 ? a : c;
+    }
+}
@@ -1,7 +1,9 @@
 package it.unicam.cs.asdl2425.mp2;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -14,6 +16,20 @@ import java.util.Set;
  * vedano le istruzioni o il libro di testo Cormen et al. (terza edizione)
  * Capitolo 21 Sezione 3.
  * 
+ * La ricerca del rappresentante è iterativa, quindi anche un cammino molto
+ * lungo non consuma lo stack, e comprime il cammino secondo la
+ * {@link CompressionStrategy} scelta alla costruzione.
+ * 
+ * Gli elementi possono essere rimossi con {@link #delete(Object)}: il nodo
+ * di un elemento rimosso resta nell'albero come nodo vuoto, così i cammini
+ * degli altri elementi non cambiano, ed esce dalla lista dei membri. Quando
+ * in un insieme i nodi vuoti superano gli elementi presenti, l'albero viene
+ * ricostruito collegando tutti gli elementi presenti direttamente alla
+ * radice e i nodi vuoti vengono rilasciati. La ricostruzione costa quanto i
+ * nodi vuoti eliminati, quindi la rimozione ha costo ammortizzato costante
+ * oltre alla ricerca della radice, e gli alberi hanno al più il doppio dei
+ * nodi degli elementi presenti.
+ * 
  * @author Luca Tesei (template)
  *         Riccardo Catervi - riccardo.catervi@studenti.unicam.it (implementazione)
  *
@@ -22,9 +38,35 @@ import java.util.Set;
  */
 public class ForestDisjointSets<E> implements DisjointSets<E> {
 
+    /**
+     * Strategia con cui la ricerca del rappresentante comprime il cammino
+     * percorso. Tutte mantengono il costo ammortizzato O(α(n)) insieme
+     * all'unione per rango.
+     */
+    public enum CompressionStrategy {
+        /**
+         * Compressione completa: in un secondo passaggio ogni nodo del
+         * cammino viene collegato direttamente alla radice.
+         */
+        FULL,
+        /**
+         * Dimezzamento del cammino: in un solo passaggio un nodo ogni due
+         * viene collegato al proprio nonno.
+         */
+        HALVING,
+        /**
+         * Suddivisione del cammino: in un solo passaggio ogni nodo viene
+         * collegato al proprio nonno.
+         */
+        SPLITTING
+    }
+
     private static final int INITIAL_CAPACITY = 16;
     private static final float LOAD_FACTOR = 0.75f;
 
+    // Strategia di compressione del cammino usata dalla ricerca.
+    private final CompressionStrategy compression;
+
     /*
      * Mappa che associa ad ogni elemento inserito il corrispondente nodo di un
      * albero della foresta. La variabile è protected unicamente per permettere
@@ -32,6 +74,9 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
      */
     protected Map<E, Node<E>> currentElements;
 
+    // Rappresentanti degli insiemi correnti, aggiornati da makeSet e union.
+    private final Set<E> representatives;
+
     /*
      * Classe interna statica che rappresenta i nodi degli alberi della foresta.
      * Gli specificatori sono tutti protected unicamente per permettere i test
@@ -54,7 +99,17 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
          * (sotto)albero di cui questo nodo è radice.
          */
         protected int rank;
-        private int size;
+        private int size; // Elementi presenti nell'insieme, per le radici.
+        private int deleted; // Nodi vuoti nell'albero, per le radici.
+
+        /*
+         * Il nodo successivo e il precedente nella lista circolare doppiamente
+         * collegata dei membri presenti dell'insieme di questo nodo. Per un
+         * insieme singoletto puntano al nodo stesso; per un nodo vuoto sono
+         * null.
+         */
+        protected Node<E> next;
+        protected Node<E> prev;
 
         /**
          * Costruisce un nodo radice con parent che punta a se stesso e rango
@@ -69,14 +124,38 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
             this.parent = this;
             this.rank = 0;
             this.size = 1;
+            this.next = this;
+            this.prev = this;
         }
     }
 
     /**
      * Costruisce una foresta vuota di insiemi disgiunti rappresentati da
-     * alberi.
+     * alberi, con compressione completa del cammino.
+     */
+    public ForestDisjointSets() { this(CompressionStrategy.FULL); }
+
+    /**
+     * Costruisce una foresta vuota di insiemi disgiunti rappresentati da
+     * alberi, con la strategia di compressione del cammino data.
+     *
+     * @param compression
+     *                        la strategia di compressione del cammino
+     * @throws NullPointerException
+     *                                  se la strategia è null
      */
-    public ForestDisjointSets() { this.currentElements = new HashMap<>(INITIAL_CAPACITY, LOAD_FACTOR); }
+    public ForestDisjointSets(CompressionStrategy compression) {
+        this.compression = Objects.requireNonNull(compression, "La strategia di compressione è nulla.");
+        this.currentElements = new HashMap<>(INITIAL_CAPACITY, LOAD_FACTOR);
+        this.representatives = new HashSet<>(INITIAL_CAPACITY, LOAD_FACTOR);
+    }
+
+    /**
+     * Restituisce la strategia di compressione del cammino usata.
+     *
+     * @return la strategia di compressione del cammino
+     */
+    public CompressionStrategy getCompressionStrategy() { return this.compression; }
 
     @Override
     // Verifica se l'elemento specificato è presente nella struttura degli insiemi disgiunti.
@@ -95,7 +174,10 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
             throw new IllegalArgumentException("L'elemento" + e + " è gia presente in un insieme disgiunto.");
 
         // Inserisce l'elemento nella mappa come nodo radice di un nuovo albero.
-        currentElements.put(e, new Node<>(e));
+        Node<E> node = newNode(e);
+        currentElements.put(e, node);
+        representatives.add(e);
+        setCreated(node);
     }
 
     /*
@@ -143,17 +225,109 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
         collega(findRootAndCompress(x), findRootAndCompress(y));
     }
 
+    /*
+     * I nodi di tutti gli elementi del blocco vengono cercati nella mappa in
+     * un primo passaggio, che verifica anche le precondizioni; il secondo
+     * passaggio lavora solo sui nodi, una coppia alla volta nell'ordine
+     * dato. Rispetto all'implementazione di default, che per ogni coppia
+     * chiama findSet e union, ogni posizione del blocco viene cercata nella
+     * mappa una sola volta; l'ordine delle visite nella foresta resta quello
+     * del blocco.
+     */
     @Override
-    public Set<E> getCurrentRepresentatives() {
-        Set<E> representatives = new HashSet<>(); // Crea un set vuoto per i rappresentanti.
-        for (Node<E> node : currentElements.values()) {
-            if (node == node.parent)
-                // Aggiunge al set solo i nodi che sono radici (parent che punta a se stesso).
-                representatives.add(node.item);
+    public BitSet unionAll(List<? extends E> pairs) {
+        Node<E>[] nodes = resolve(pairs);
+        if (nodes.length % 2 != 0)
+            throw new IllegalArgumentException("Numero dispari di elementi nelle coppie: " + nodes.length);
+        for (Node<E> node : nodes)
+            if (node == null)
+                throw new IllegalArgumentException("Elementi non presenti nella struttura");
+
+        BitSet merged = new BitSet(nodes.length / 2);
+        for (int k = 0; k < nodes.length / 2; k++) {
+            Node<E> x = findRootAndCompress(nodes[2 * k]);
+            Node<E> y = findRootAndCompress(nodes[2 * k + 1]);
+            if (x != y) {
+                collega(x, y);
+                merged.set(k);
+            }
         }
-        return representatives;
+        return merged;
     }
 
+    @Override
+    public void findAll(List<? extends E> elements, List<? super E> out) {
+        Objects.requireNonNull(out, "La lista dei risultati è nulla.");
+        for (Node<E> node : resolve(elements))
+            out.add(node == null ? null : findRootAndCompress(node).item);
+    }
+
+    /*
+     * Il nodo dell'elemento rimosso diventa un nodo vuoto. Se l'elemento era
+     * la radice, il nodo radice assume invece l'elemento che segue nella
+     * lista dei membri e il nodo vuoto diventa quello di quest'ultimo, così
+     * la radice contiene sempre il rappresentante e i cammini non cambiano.
+     */
+    @Override
+    public void delete(E e) {
+        Objects.requireNonNull(e, "L'elemento passato è nullo.");
+        Node<E> node = currentElements.remove(e);
+        if (node == null)
+            throw new IllegalArgumentException("Elemento non presente: " + e);
+
+        Node<E> root = findRootAndCompress(node);
+        if (root.size == 1) {
+            // Era l'ultimo elemento: l'albero, con i suoi nodi vuoti, non è
+            // più raggiungibile.
+            representatives.remove(e);
+            svuota(root);
+            return;
+        }
+        if (node == root) {
+            node = root.next;
+            representatives.remove(e);
+            root.item = node.item;
+            currentElements.put(root.item, root);
+            representatives.add(root.item);
+        }
+        svuota(node);
+        root.size--;
+        root.deleted++;
+        if (root.deleted > root.size)
+            ricostruisci(root);
+        elementDeleted(root);
+    }
+
+    /*
+     * I rappresentanti sono mantenuti da makeSet e union, quindi non serve
+     * scandire i nodi: la copia restituita costa O(numero di insiemi) e non
+     * risente delle operazioni successive.
+     */
+    @Override
+    public Set<E> getCurrentRepresentatives() { return new HashSet<>(representatives); }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti correnti, in tempo costante.
+     *
+     * @return il numero di insiemi disgiunti
+     */
+    public int setCount() { return representatives.size(); }
+
+    /**
+     * Restituisce il numero di elementi dell'insieme che contiene l'elemento
+     * dato, conservato nella radice del suo albero.
+     *
+     * @param e
+     *              l'elemento
+     * @return la dimensione dell'insieme di e
+     * @throws NullPointerException
+     *                                      se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento passato non è
+     *                                      presente
+     */
+    public int getSetSize(E e) { return findRootOf(e).size; }
+
     @Override
     public Set<E> getCurrentElementsOfSetContaining(E e) {
         Objects.requireNonNull(e);
@@ -161,32 +335,146 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
         if (node == null)
             throw new IllegalArgumentException("Elemento non presente: " + e);
 
-        // Calcola il set di elementi dinamicamente invece di mantenerlo nel nodo
-        Node<E> radice = findRootAndCompress(node);
-        Set<E> elements = new HashSet<>(radice.size);
-
-        for (Map.Entry<E, Node<E>> entry : currentElements.entrySet()) {
-            if (findRootAndCompress(entry.getValue()) == radice)
-                elements.add(entry.getKey());
-        }
+        // Percorre la lista circolare dei membri dell'insieme, in tempo
+        // proporzionale alla sua dimensione.
+        Set<E> elements = new HashSet<>((findRootAndCompress(node).size * 4) / 3 + 1);
+        Node<E> current = node;
+        do {
+            elements.add(current.item);
+            current = current.next;
+        } while (current != node);
 
         return elements;
     }
 
+    /**
+     * Crea un'istantanea immutabile degli insiemi correnti, in cui ogni
+     * elemento è associato direttamente al proprio rappresentante. Le
+     * modifiche successive di questa foresta non si riflettono
+     * sull'istantanea, che può essere letta da più thread contemporaneamente.
+     *
+     * @return l'istantanea degli insiemi disgiunti correnti
+     */
+    public FrozenDisjointSets<E> freeze() {
+        int n = currentElements.size();
+        Object[] elements = new Object[n];
+        Map<Node<E>, Integer> indexes = new HashMap<>((n * 4) / 3 + 1);
+        for (Node<E> node : currentElements.values()) {
+            elements[indexes.size()] = node.item;
+            indexes.put(node, indexes.size());
+        }
+        int[] roots = new int[n];
+        for (Map.Entry<Node<E>, Integer> entry : indexes.entrySet())
+            roots[entry.getValue()] = indexes.get(findRootAndCompress(entry.getKey()));
+        return new FrozenDisjointSets<>(elements, roots);
+    }
+
     @Override
-    public void clear() { currentElements.clear(); }
+    public void clear() {
+        currentElements.clear();
+        representatives.clear();
+    }
+
+    /**
+     * Restituisce la radice dell'albero che contiene l'elemento dato,
+     * comprimendo il cammino.
+     *
+     * @param e
+     *              l'elemento
+     * @return la radice dell'albero di e
+     * @throws NullPointerException
+     *                                      se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento passato non è
+     *                                      presente
+     */
+    protected Node<E> findRootOf(E e) {
+        Objects.requireNonNull(e, "L'elemento passato è nullo.");
+        Node<E> node = currentElements.get(e);
+        if (node == null)
+            throw new IllegalArgumentException("Elemento non presente: " + e);
+        return findRootAndCompress(node);
+    }
+
+    /**
+     * Crea il nodo radice di un nuovo insieme singoletto. Le sottoclassi che
+     * conservano dati nelle radici possono ridefinirlo per restituire una
+     * sottoclasse di {@code Node}; l'implementazione di default crea un
+     * {@code Node}.
+     *
+     * @param e
+     *              l'elemento del nuovo insieme
+     * @return il nodo radice del nuovo insieme
+     */
+    protected Node<E> newNode(E e) {
+        return new Node<>(e);
+    }
+
+    /**
+     * Chiamato dopo la creazione di un nuovo insieme singoletto. Le
+     * sottoclassi possono ridefinirlo per inizializzare i dati conservati
+     * nella radice; l'implementazione di default non fa nulla.
+     *
+     * @param node
+     *                 la radice del nuovo insieme
+     */
+    protected void setCreated(Node<E> node) {
+    }
+
+    /**
+     * Chiamato dopo che la radice child è stata collegata sotto root. Le
+     * sottoclassi possono ridefinirlo per fondere in root i dati conservati
+     * nelle due radici; l'implementazione di default non fa nulla.
+     *
+     * @param root
+     *                  la radice dell'insieme unito
+     * @param child
+     *                  la radice che è stata collegata sotto root
+     */
+    protected void setsLinked(Node<E> root, Node<E> child) {
+    }
+
+    /**
+     * Chiamato dopo che un elemento è stato rimosso da un insieme che
+     * contiene ancora altri elementi. Le sottoclassi possono ridefinirlo per
+     * aggiornare i dati conservati nella radice; l'implementazione di default
+     * non fa nulla.
+     *
+     * @param root
+     *                 la radice dell'insieme da cui è stato rimosso l'elemento
+     */
+    protected void elementDeleted(Node<E> root) {
+    }
 
     // METODI PRIVATI
 
+    /**
+     * Cerca nella mappa i nodi di tutti gli elementi della lista.
+     *
+     * @param elements Gli elementi da cercare.
+     * @return I nodi degli elementi, nello stesso ordine, null per quelli non presenti.
+     * @throws NullPointerException se la lista o uno dei suoi elementi è null.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Node<E>[] resolve(List<? extends E> elements) {
+        Objects.requireNonNull(elements, "La lista degli elementi è nulla.");
+        Node<E>[] nodes = (Node<E>[]) new Node[elements.size()];
+        int k = 0;
+        for (E e : elements)
+            nodes[k++] = currentElements.get(Objects.requireNonNull(e, "L'elemento passato è nullo."));
+        return nodes;
+    }
+
     /**
      * Trova la radice dell'albero rappresentante l'insieme disgiunto
      * contenente il nodo specificato, applicando l'euristica
-     * "compressione del cammino".
+     * "compressione del cammino" secondo la strategia scelta.
      *
      * La compressione del cammino ottimizza la struttura dell'albero
-     * riducendo la profondità, collegando direttamente ogni nodo visitato
-     * alla radice. Questo migliora l'efficienza delle successive operazioni
-     * di ricerca, riducendo i tempi medi di accesso.
+     * riducendo la profondità, avvicinando alla radice ogni nodo visitato.
+     * Questo migliora l'efficienza delle successive operazioni di ricerca,
+     * riducendo i tempi medi di accesso. La ricerca è iterativa, per non
+     * esaurire lo stack su cammini lunghi.
      *
      * @param node Il nodo di cui trovare la radice.
      * @return La radice dell'albero contenente il nodo specificato.
@@ -194,18 +482,36 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
      * @throws NullPointerException se il nodo passato è null.
      */
     private Node<E> findRootAndCompress(Node<E> node) {
-        // Se il nodo è già la radice (il suo parent punta a sé stesso),
-        // restituisci direttamente il nodo.
-        if (node.parent == node)
+        switch (compression) {
+        case HALVING:
+            // Un nodo ogni due viene collegato al nonno e si salta a quest'ultimo.
+            while (node.parent != node) {
+                node.parent = node.parent.parent;
+                node = node.parent;
+            }
             return node;
-
-        // Altrimenti, trova ricorsivamente la radice.
-        // Collega il nodo corrente direttamente alla radice trovata
-        // per ridurre la profondità dell'albero.
-        node.parent = findRootAndCompress(node.parent);
-
-        // Restituisci la radice trovata.
-        return node.parent;
+        case SPLITTING:
+            // Ogni nodo viene collegato al nonno e si passa al vecchio padre.
+            while (node.parent != node) {
+                Node<E> parent = node.parent;
+                node.parent = parent.parent;
+                node = parent;
+            }
+            return node;
+        default:
+            // Primo passaggio: risale fino alla radice.
+            Node<E> root = node;
+            while (root.parent != root)
+                root = root.parent;
+
+            // Secondo passaggio: collega ogni nodo del cammino alla radice.
+            while (node != root) {
+                Node<E> parent = node.parent;
+                node.parent = root;
+                node = parent;
+            }
+            return root;
+        }
     }
 
     /**
@@ -223,23 +529,68 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
         if (x == y)
             return;
 
+        // Unisce in O(1) le liste circolari dei membri scambiando i successori
+        // delle due radici.
+        Node<E> next = x.next;
+        x.next = y.next;
+        y.next = next;
+        x.next.prev = x;
+        y.next.prev = y;
+
         // Confronta i ranghi delle due radici per determinare quale albero sarà il nuovo genitore.
         if (x.rank > y.rank) {
             // Se il rango della radice x è maggiore, y viene collegato sotto x.
             y.parent = x;
+            representatives.remove(y.item);
             // Aggiorna la dimensione dell'albero di x sommando la dimensione dell'albero di y.
             x.size += y.size;
+            x.deleted += y.deleted;
+            setsLinked(x, y);
         }
         else {
             // Altrimenti, x viene collegato sotto y.
             x.parent = y;
+            representatives.remove(x.item);
             // Aggiorna la dimensione dell'albero di y sommando la dimensione dell'albero di x.
             y.size += x.size;
+            y.deleted += x.deleted;
 
             // Se i ranghi delle due radici erano uguali, incrementa il rango di y,
             // poiché ora diventa la radice di un albero più profondo.
             if (x.rank == y.rank)
                 y.rank++;
+            setsLinked(y, x);
+        }
+    }
+
+    /**
+     * Trasforma il nodo in un nodo vuoto: lo toglie dalla lista dei membri e
+     * rilascia l'elemento. Il nodo resta nell'albero finché serve ai cammini
+     * degli altri nodi.
+     *
+     * @param node Il nodo dell'elemento rimosso.
+     */
+    private void svuota(Node<E> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.next = null;
+        node.prev = null;
+        node.item = null;
+    }
+
+    /**
+     * Ricostruisce l'albero della radice specificata collegando direttamente
+     * alla radice tutti gli elementi presenti, elencati dalla lista dei
+     * membri. I nodi vuoti non sono più raggiungibili e vengono rilasciati.
+     *
+     * @param root La radice dell'albero da ricostruire.
+     */
+    private void ricostruisci(Node<E> root) {
+        for (Node<E> current = root.next; current != root; current = current.next) {
+            current.parent = root;
+            current.rank = 0;
         }
+        root.rank = root.size > 1 ? 1 : 0;
+        root.deleted = 0;
     }
 }
@@ -0,0 +1,240 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Istantanea immutabile di una collezione di insiemi disgiunti, ottenuta con
+ * {@code ForestDisjointSets.freeze()}.
+ *
+ * Ogni elemento riceve un indice denso e l'array {@code roots} associa ad
+ * ogni indice direttamente quello del suo rappresentante: la ricerca del
+ * rappresentante è una lettura della mappa degli indici e una dell'array,
+ * senza percorrere alberi né modificare la struttura. Gli elementi di ogni
+ * insieme sono inoltre conservati contigui, come le righe di una matrice in
+ * formato CSR, così l'enumerazione di un insieme costa quanto la sua
+ * dimensione. Poiché tutti i campi sono final e non vengono più modificati
+ * dopo la costruzione, l'istantanea può essere letta da più thread
+ * contemporaneamente senza sincronizzazione.
+ *
+ * Le operazioni che modificano gli insiemi lanciano
+ * {@code UnsupportedOperationException}.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ * @param <E>
+ *                il tipo degli elementi degli insiemi disgiunti
+ */
+public final class FrozenDisjointSets<E> implements DisjointSets<E> {
+
+    private final Object[] elements; // Elemento associato ad ogni indice.
+    private final Map<E, Integer> indexes; // Indice associato ad ogni elemento.
+    private final int[] roots; // Indice del rappresentante di ogni indice.
+    private final int[] setOf; // Insieme, numerato da 0, di ogni indice.
+    private final int[] offsets; // Inizio in members degli elementi di ogni insieme.
+    private final int[] members; // Indici degli elementi raggruppati per insieme.
+    private final Set<E> representatives; // Rappresentanti, non modificabile.
+
+    /*
+     * Costruisce l'istantanea a partire dagli elementi e dall'indice del
+     * rappresentante di ciascuno. Gli array passati non devono essere più
+     * modificati dal chiamante.
+     */
+    FrozenDisjointSets(Object[] elements, int[] roots) {
+        int n = elements.length;
+        this.elements = elements;
+        this.roots = roots;
+        this.indexes = new HashMap<>((n * 4) / 3 + 1);
+        for (int i = 0; i < n; i++)
+            this.indexes.put(elementAt(i), i);
+
+        // Numeriamo gli insiemi nell'ordine dei loro rappresentanti e
+        // raggruppiamo gli elementi con un conteggio per insieme.
+        int[] setOfRoot = new int[n];
+        Set<E> representatives = new HashSet<>();
+        int sets = 0;
+        for (int i = 0; i < n; i++)
+            if (roots[i] == i) {
+                setOfRoot[i] = sets++;
+                representatives.add(elementAt(i));
+            }
+        this.setOf = new int[n];
+        this.offsets = new int[sets + 1];
+        for (int i = 0; i < n; i++) {
+            this.setOf[i] = setOfRoot[roots[i]];
+            this.offsets[this.setOf[i] + 1]++;
+        }
+        for (int s = 0; s < sets; s++)
+            this.offsets[s + 1] += this.offsets[s];
+        this.members = new int[n];
+        int[] next = new int[sets];
+        for (int i = 0; i < n; i++) {
+            int s = this.setOf[i];
+            this.members[this.offsets[s] + next[s]++] = i;
+        }
+        this.representatives = Collections.unmodifiableSet(representatives);
+    }
+
+    /**
+     * Restituisce il numero di elementi.
+     *
+     * @return il numero di elementi
+     */
+    public int size() { return this.elements.length; }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti.
+     *
+     * @return il numero di insiemi disgiunti
+     */
+    public int setCount() { return this.offsets.length - 1; }
+
+    /**
+     * Restituisce l'indice associato a un elemento.
+     *
+     * @param e
+     *              l'elemento
+     * @return l'indice dell'elemento, -1 se non è presente
+     * @throws NullPointerException
+     *                                  se l'elemento passato è null
+     */
+    public int indexOf(E e) {
+        Integer i = this.indexes.get(Objects.requireNonNull(e, "L'elemento passato è nullo."));
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * Restituisce l'elemento associato a un indice.
+     *
+     * @param i
+     *              l'indice
+     * @return l'elemento con indice i
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    @SuppressWarnings("unchecked")
+    public E elementAt(int i) {
+        if (i < 0 || i >= this.elements.length)
+            throw new IndexOutOfBoundsException("L'indice inserito è fuori dal range.");
+        return (E) this.elements[i];
+    }
+
+    /**
+     * Restituisce l'indice del rappresentante dell'insieme dell'indice dato.
+     *
+     * @param i
+     *              l'indice
+     * @return l'indice del rappresentante
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int find(int i) {
+        if (i < 0 || i >= this.roots.length)
+            throw new IndexOutOfBoundsException("L'indice inserito è fuori dal range.");
+        return this.roots[i];
+    }
+
+    /**
+     * Determina se due elementi sono nello stesso insieme.
+     *
+     * @param e1
+     *               il primo elemento
+     * @param e2
+     *               il secondo elemento
+     * @return true se i due elementi hanno lo stesso rappresentante
+     * @throws NullPointerException
+     *                                      se uno degli elementi è null
+     * @throws IllegalArgumentException
+     *                                      se uno degli elementi non è
+     *                                      presente
+     */
+    public boolean connected(E e1, E e2) {
+        return this.roots[checkedIndexOf(e1)] == this.roots[checkedIndexOf(e2)];
+    }
+
+    /**
+     * Restituisce il numero di elementi dell'insieme che contiene l'elemento
+     * dato.
+     *
+     * @param e
+     *              l'elemento
+     * @return la dimensione dell'insieme di e
+     * @throws NullPointerException
+     *                                      se l'elemento è null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento non è presente
+     */
+    public int getSetSize(E e) {
+        int s = this.setOf[checkedIndexOf(e)];
+        return this.offsets[s + 1] - this.offsets[s];
+    }
+
+    @Override
+    public boolean isPresent(E e) {
+        // Come ForestDisjointSets, null non è mai presente.
+        return e != null && indexOf(e) != -1;
+    }
+
+    @Override
+    public void makeSet(E e) {
+        throw new UnsupportedOperationException("Gli insiemi disgiunti congelati sono immutabili");
+    }
+
+    @Override
+    public E findSet(E e) {
+        int i = indexOf(e);
+        return i == -1 ? null : elementAt(this.roots[i]);
+    }
+
+    @Override
+    public void union(E e1, E e2) {
+        throw new UnsupportedOperationException("Gli insiemi disgiunti congelati sono immutabili");
+    }
+
+    @Override
+    public BitSet unionAll(List<? extends E> pairs) {
+        throw new UnsupportedOperationException("Gli insiemi disgiunti congelati sono immutabili");
+    }
+
+    @Override
+    public void delete(E e) {
+        throw new UnsupportedOperationException("Gli insiemi disgiunti congelati sono immutabili");
+    }
+
+    /*
+     * L'insieme restituito non è modificabile.
+     */
+    @Override
+    public Set<E> getCurrentRepresentatives() { return this.representatives; }
+
+    @Override
+    public Set<E> getCurrentElementsOfSetContaining(E e) {
+        int s = this.setOf[checkedIndexOf(e)];
+        Set<E> elements = new HashSet<>(((this.offsets[s + 1] - this.offsets[s]) * 4) / 3 + 1);
+        for (int k = this.offsets[s]; k < this.offsets[s + 1]; k++)
+            elements.add(elementAt(this.members[k]));
+        return elements;
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Gli insiemi disgiunti congelati sono immutabili");
+    }
+
+    // METODI PRIVATI
+
+    private int checkedIndexOf(E e) {
+        int i = indexOf(e);
+        if (i == -1)
+            throw new IllegalArgumentException("Elemento non presente: " + e);
+        return i;
+    }
+}
@@ -3,7 +3,10 @@
  */
 package it.unicam.cs.asdl2425.mp2;
 
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Classe astratta per un generico grafo i cui nodi sono etichettati con
@@ -27,6 +30,26 @@ import java.util.Set;
  */
 public abstract class Graph<L> {
 
+    /**
+     * Azione da eseguire su un arco identificato dagli indici dei suoi nodi,
+     * usata da {@link Graph#forEachEdgeIndex(EdgeIndexConsumer)} per visitare
+     * gli archi senza creare oggetti.
+     */
+    @FunctionalInterface
+    public interface EdgeIndexConsumer {
+        /**
+         * Esegue l'azione sull'arco tra i nodi di indice i e j.
+         * 
+         * @param i
+         *                   l'indice del primo nodo dell'arco
+         * @param j
+         *                   l'indice del secondo nodo dell'arco
+         * @param weight
+         *                   il peso dell'arco, Double.NaN se non è pesato
+         */
+        void accept(int i, int j, double weight);
+    }
+
     /**
      * Restituisce il numero di nodi in questo grafo.
      * 
@@ -355,4 +378,297 @@ public abstract class Graph<L> {
                     + this.getIngoingEdgesOf(node).size();
     }
 
+    /**
+     * Esegue un'azione su ogni arco di questo grafo, una volta per arco. A
+     * differenza di {@code getEdges()} non richiede la creazione di un
+     * insieme: le implementazioni che lo ridefiniscono visitano direttamente
+     * la propria rappresentazione. L'implementazione predefinita visita
+     * l'insieme restituito da {@code getEdges()}.
+     * 
+     * L'ordine di visita è fissato dall'implementazione e non cambia finché
+     * il grafo non viene modificato. Il grafo non deve essere modificato
+     * durante la visita.
+     * 
+     * @param action
+     *                   l'azione da eseguire su ogni arco
+     * 
+     * @throws NullPointerException
+     *                                  se l'azione passata è nulla
+     */
+    public void forEachEdge(Consumer<? super GraphEdge<L>> action) {
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        for (GraphEdge<L> edge : this.getEdges())
+            action.accept(edge);
+    }
+
+    /**
+     * Esegue un'azione su ogni arco connesso a un nodo, gli stessi archi
+     * restituiti da {@code getEdgesOf(node)}, senza creare un insieme se
+     * l'implementazione ridefinisce questo metodo.
+     * 
+     * @param node
+     *                   il nodo di cui visitare gli archi connessi
+     * @param action
+     *                   l'azione da eseguire su ogni arco
+     * 
+     * @throws IllegalArgumentException
+     *                                      se il nodo passato non esiste
+     * @throws NullPointerException
+     *                                      se il nodo o l'azione passati sono
+     *                                      nulli
+     */
+    public void forEachEdgeOf(GraphNode<L> node, Consumer<? super GraphEdge<L>> action) {
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        for (GraphEdge<L> edge : this.getEdgesOf(node))
+            action.accept(edge);
+    }
+
+    /**
+     * Esegue un'azione su ogni nodo adiacente a un nodo, gli stessi nodi
+     * restituiti da {@code getAdjacentNodesOf(node)}, senza creare un insieme
+     * se l'implementazione ridefinisce questo metodo.
+     * 
+     * @param node
+     *                   il nodo di cui visitare i nodi adiacenti
+     * @param action
+     *                   l'azione da eseguire su ogni nodo adiacente
+     * 
+     * @throws IllegalArgumentException
+     *                                      se il nodo passato non esiste
+     * @throws NullPointerException
+     *                                      se il nodo o l'azione passati sono
+     *                                      nulli
+     */
+    public void forEachNeighbour(GraphNode<L> node, Consumer<? super GraphNode<L>> action) {
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        for (GraphNode<L> adjacent : this.getAdjacentNodesOf(node))
+            action.accept(adjacent);
+    }
+
+    /**
+     * Esegue un'azione sull'indice di ogni nodo adiacente al nodo di indice
+     * {@code i}. È la versione su tipi primitivi di {@code forEachNeighbour},
+     * pensata per gli algoritmi che lavorano sugli indici dei nodi.
+     * 
+     * Questa operazione è opzionale: l'implementazione predefinita usa
+     * {@code getNodeAtIndex} e {@code getNodeIndexOf}.
+     * 
+     * @param i
+     *                   l'indice del nodo di cui visitare i nodi adiacenti
+     * @param action
+     *                   l'azione da eseguire sull'indice di ogni nodo
+     *                   adiacente
+     * 
+     * @throws IndexOutOfBoundsException
+     *                                           se l'indice passato non
+     *                                           corrisponde a nessun nodo
+     * @throws NullPointerException
+     *                                           se l'azione passata è nulla
+     * @throws UnsupportedOperationException
+     *                                           se le operazioni sugli indici
+     *                                           non sono supportate
+     *                                           dall'implementazione di questo
+     *                                           grafo
+     */
+    public void forEachNeighbourIndex(int i, IntConsumer action) {
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        for (GraphNode<L> adjacent : this.getAdjacentNodesOf(this.getNodeAtIndex(i)))
+            action.accept(this.getNodeIndexOf(adjacent.getLabel()));
+    }
+
+    /**
+     * Restituisce il limite superiore, escluso, degli indici dei nodi: ogni
+     * nodo ha un indice nell'intervallo <code>[0, getIndexBound() - 1]</code>.
+     * Gli algoritmi che lavorano sugli indici possono usarlo per
+     * dimensionare i propri array. Di norma coincide con {@code nodeCount()};
+     * può essere maggiore se l'implementazione lascia indici liberi dopo la
+     * cancellazione di nodi, nel qual caso gli indici liberi si comportano
+     * come nodi isolati nei metodi che seguono.
+     * 
+     * Questa operazione è opzionale.
+     * 
+     * @return il limite superiore, escluso, degli indici dei nodi
+     * 
+     * @throws UnsupportedOperationException
+     *                                           se le operazioni sugli indici
+     *                                           non sono supportate
+     *                                           dall'implementazione di questo
+     *                                           grafo
+     */
+    public int getIndexBound() {
+        return this.nodeCount();
+    }
+
+    /**
+     * Restituisce il grado del nodo di indice {@code i}, come
+     * {@code getDegreeOf}.
+     * 
+     * Questa operazione è opzionale.
+     * 
+     * @param i
+     *              l'indice del nodo
+     * @return il grado del nodo di indice i
+     * 
+     * @throws IndexOutOfBoundsException
+     *                                           se l'indice passato non
+     *                                           corrisponde a nessun nodo
+     * @throws UnsupportedOperationException
+     *                                           se le operazioni sugli indici
+     *                                           non sono supportate
+     *                                           dall'implementazione di questo
+     *                                           grafo
+     */
+    public int getDegreeAt(int i) {
+        return this.getDegreeOf(this.getNodeAtIndex(i));
+    }
+
+    /**
+     * Restituisce l'indice del k-esimo nodo adiacente al nodo di indice
+     * {@code i}, contando da zero nell'ordine di visita di
+     * {@code forEachNeighbourIndex}. Permette agli algoritmi che esaminano
+     * solo alcuni vicini di ogni nodo di non visitarli tutti.
+     * 
+     * Questa operazione è opzionale: l'implementazione predefinita visita i
+     * nodi adiacenti con {@code forEachNeighbourIndex}.
+     * 
+     * @param i
+     *              l'indice del nodo
+     * @param k
+     *              la posizione del nodo adiacente, tra 0 e
+     *              {@code getDegreeAt(i) - 1}
+     * @return l'indice del k-esimo nodo adiacente al nodo di indice i
+     * 
+     * @throws IndexOutOfBoundsException
+     *                                           se l'indice passato non
+     *                                           corrisponde a nessun nodo o
+     *                                           la posizione non è valida
+     * @throws UnsupportedOperationException
+     *                                           se le operazioni sugli indici
+     *                                           non sono supportate
+     *                                           dall'implementazione di questo
+     *                                           grafo
+     */
+    public int getNeighbourIndexAt(int i, int k) {
+        // found[0] è il nodo cercato, found[1] i nodi ancora da saltare.
+        int[] found = { -1, k };
+        this.forEachNeighbourIndex(i, j -> {
+            if (found[1]-- == 0)
+                found[0] = j;
+        });
+        if (k < 0 || found[0] == -1)
+            throw new IndexOutOfBoundsException("La posizione inserita è fuori dal range.");
+        return found[0];
+    }
+
+    /**
+     * Restituisce l'arco tra i nodi di indice {@code i} e {@code j} (dal primo
+     * al secondo in caso di grafo orientato), se esiste.
+     * 
+     * Questa operazione è opzionale.
+     * 
+     * @param i
+     *              l'indice del primo nodo
+     * @param j
+     *              l'indice del secondo nodo
+     * @return l'arco tra i due nodi, null se non esiste
+     * 
+     * @throws IndexOutOfBoundsException
+     *                                           se uno degli indici passati
+     *                                           non corrisponde a nessun nodo
+     * @throws UnsupportedOperationException
+     *                                           se le operazioni sugli indici
+     *                                           non sono supportate
+     *                                           dall'implementazione di questo
+     *                                           grafo
+     */
+    public GraphEdge<L> getEdgeAt(int i, int j) {
+        GraphNode<L> node1 = this.getNodeAtIndex(i);
+        GraphNode<L> node2 = this.getNodeAtIndex(j);
+        for (GraphEdge<L> edge : this.getEdgesOf(node1)) {
+            if (edge.getNode1().equals(node1) && edge.getNode2().equals(node2))
+                return edge;
+            if (!this.isDirected() && edge.getNode1().equals(node2) && edge.getNode2().equals(node1))
+                return edge;
+        }
+        return null;
+    }
+
+    /**
+     * Determina se esiste un arco tra i nodi di indice {@code i} e {@code j}.
+     * 
+     * Questa operazione è opzionale.
+     * 
+     * @param i
+     *              l'indice del primo nodo
+     * @param j
+     *              l'indice del secondo nodo
+     * @return true se esiste un arco tra i due nodi, false altrimenti
+     * 
+     * @throws IndexOutOfBoundsException
+     *                                           se uno degli indici passati
+     *                                           non corrisponde a nessun nodo
+     * @throws UnsupportedOperationException
+     *                                           se le operazioni sugli indici
+     *                                           non sono supportate
+     *                                           dall'implementazione di questo
+     *                                           grafo
+     */
+    public boolean containsEdgeAt(int i, int j) {
+        return this.getEdgeAt(i, j) != null;
+    }
+
+    /**
+     * Restituisce il peso dell'arco tra i nodi di indice {@code i} e
+     * {@code j} senza creare l'oggetto arco, se l'implementazione ridefinisce
+     * questo metodo.
+     * 
+     * Questa operazione è opzionale.
+     * 
+     * @param i
+     *              l'indice del primo nodo
+     * @param j
+     *              l'indice del secondo nodo
+     * @return il peso dell'arco, Double.NaN se l'arco non è pesato o non
+     *         esiste (i due casi sono distinti da {@code containsEdgeAt})
+     * 
+     * @throws IndexOutOfBoundsException
+     *                                           se uno degli indici passati
+     *                                           non corrisponde a nessun nodo
+     * @throws UnsupportedOperationException
+     *                                           se le operazioni sugli indici
+     *                                           non sono supportate
+     *                                           dall'implementazione di questo
+     *                                           grafo
+     */
+    public double getEdgeWeightAt(int i, int j) {
+        GraphEdge<L> edge = this.getEdgeAt(i, j);
+        return edge == null ? Double.NaN : edge.getWeight();
+    }
+
+    /**
+     * Esegue un'azione su ogni arco di questo grafo, identificato dagli
+     * indici dei suoi nodi e dal suo peso. Gli archi sono visitati nello
+     * stesso ordine di {@code forEachEdge}, così gli algoritmi che usano le
+     * due visite considerano gli archi nello stesso ordine.
+     * 
+     * Questa operazione è opzionale: l'implementazione predefinita usa
+     * {@code forEachEdge} e {@code getNodeIndexOf}.
+     * 
+     * @param action
+     *                   l'azione da eseguire su ogni arco
+     * 
+     * @throws NullPointerException
+     *                                           se l'azione passata è nulla
+     * @throws UnsupportedOperationException
+     *                                           se le operazioni sugli indici
+     *                                           non sono supportate
+     *                                           dall'implementazione di questo
+     *                                           grafo
+     */
+    public void forEachEdgeIndex(EdgeIndexConsumer action) {
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        this.forEachEdge(edge -> action.accept(this.getNodeIndexOf(edge.getNode1().getLabel()),
+                this.getNodeIndexOf(edge.getNode2().getLabel()), edge.getWeight()));
+    }
+
 }
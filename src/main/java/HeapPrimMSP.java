@@ -0,0 +1,134 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe singoletto che implementa l'algoritmo di Prim con una coda di
+ * priorità per trovare un Minimum Spanning Tree di un grafo non orientato,
+ * pesato e con pesi non negativi. È la variante adatta ai grafi sparsi, con
+ * complessità O(m log_d n + n d log_d n).
+ *
+ * La coda di priorità è un {@code IndexedDaryMinHeap} sugli indici dei nodi:
+ * il decremento della chiave di un nodo avviene sul posto e non viene creato
+ * alcun oggetto per le voci dello heap. Gli archi sono estratti una sola volta
+ * in una {@code IndexedEdgeList} e raggruppati per estremo in array di tipi
+ * primitivi; gli oggetti arco sono richiesti al grafo solo per gli archi del
+ * risultato. Se il grafo non è connesso l'algoritmo riparte da ogni nodo non
+ * ancora raggiunto e restituisce, come {@code KruskalMSP}, una foresta di
+ * copertura minima.
+ *
+ * Gli archi sono confrontati per peso e, a parità di peso, per identificatore,
+ * come in {@code KruskalMSP} e {@code BoruvkaMSP}: il risultato coincide con
+ * quello di {@code KruskalMSP} anche in presenza di archi con pesi uguali.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ *
+ */
+public class HeapPrimMSP<L> implements MSPComputer<L> {
+
+    /**
+     * Arietà dello heap usata dal costruttore senza parametri.
+     */
+    public static final int DEFAULT_ARITY = 4;
+
+    // Valore che indica l'assenza dell'arco che collega un nodo all'albero.
+    private static final int NO_EDGE = -1;
+
+    private final int arity; // Arietà dello heap.
+
+    /**
+     * Costruisce un calcolatore di un albero di copertura minimo che usa
+     * l'algoritmo di Prim con uno heap di arietà {@link #DEFAULT_ARITY}.
+     */
+    public HeapPrimMSP() {
+        this(DEFAULT_ARITY);
+    }
+
+    /**
+     * Costruisce un calcolatore di un albero di copertura minimo che usa
+     * l'algoritmo di Prim con uno heap dell'arietà indicata.
+     *
+     * @param arity
+     *                  il numero di figli di ogni nodo dello heap
+     * @throws IllegalArgumentException
+     *                                      se l'arietà è minore di 2
+     */
+    public HeapPrimMSP(int arity) {
+        if (arity < 2)
+            throw new IllegalArgumentException("L'arietà deve essere almeno 2: " + arity);
+        this.arity = arity;
+    }
+
+    /**
+     * Utilizza l'algoritmo di Prim con uno heap d-ario indicizzato per trovare
+     * un albero di copertura minimo in un grafo non orientato e pesato, con
+     * pesi degli archi non negativi. Se il grafo non è connesso viene
+     * restituita una foresta di copertura minima.
+     *
+     * @param g
+     *              un grafo non orientato, pesato, con pesi non negativi
+     * @return l'insieme degli archi del grafo g che costituiscono l'albero di
+     *         copertura minimo trovato
+     * @throw NullPointerException se il grafo g è null
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi
+     */
+    @Override
+    public Set<GraphEdge<L>> computeMSP(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Grafo nullo non ammesso");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Il grafo deve essere non orientato");
+
+        IndexedEdgeList<L> edges = IndexedEdgeList.of(g); // Estrae indici e pesi, validando i pesi.
+        int n = edges.indexBound;
+        // Archi incidenti in ogni nodo: quelli del nodo i sono in
+        // incident[offsets[i]] ... incident[offsets[i + 1] - 1].
+        int[] offsets = new int[n + 1];
+        int[] incident = edges.incidentEdges(offsets);
+
+        IndexedDaryMinHeap heap = new IndexedDaryMinHeap(n, arity);
+        boolean[] inTree = new boolean[n];
+        // Arco più leggero che collega ogni nodo all'albero, NO_EDGE se non
+        // c'è.
+        int[] parentEdges = new int[n];
+        Arrays.fill(parentEdges, NO_EDGE);
+
+        Set<GraphEdge<L>> mst = new LinkedHashSet<>();
+        for (int root = 0; root < n; root++) {
+            if (inTree[root] || edges.nodes[root] == null)
+                continue;
+            // Nuova componente: ripartiamo da un nodo non ancora raggiunto.
+            heap.insert(root, 0);
+            while (!heap.isEmpty()) {
+                int u = heap.extractMin();
+                inTree[u] = true;
+                if (parentEdges[u] != NO_EDGE)
+                    mst.add(edges.edge(parentEdges[u]));
+
+                for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+                    int id = incident[k];
+                    int v = edges.sources[id] == u ? edges.targets[id] : edges.sources[id];
+                    if (inTree[v])
+                        continue;
+                    if (!heap.contains(v)) {
+                        heap.insert(v, edges.weights[id], id);
+                        parentEdges[v] = id;
+                    }
+                    else if (edges.compare(id, parentEdges[v]) < 0) {
+                        heap.decreaseKey(v, edges.weights[id], id);
+                        parentEdges[v] = id;
+                    }
+                }
+            }
+        }
+        return mst;
+    }
+}
@@ -0,0 +1,299 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.NoSuchElementException;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Coda di priorità minima indicizzata realizzata con uno heap d-ario. Gli
+ * elementi sono gli interi nell'intervallo <code>[0, capacity - 1]</code>,
+ * tipicamente indici di nodi di un grafo, e ad ognuno è associata una chiave
+ * {@code double}. A parità di chiave gli elementi sono ordinati secondo una
+ * seconda chiave intera facoltativa, ad esempio l'identificatore di un arco,
+ * che vale 0 se non viene indicata. Le chiavi sono confrontate con
+ * {@code Double.compare}, come i pesi in {@code IndexedEdgeList}: -0.0
+ * precede 0.0 e NaN segue tutte le altre chiavi.
+ *
+ * Lo heap è memorizzato in array di tipi primitivi: le posizioni dello heap,
+ * la posizione di ogni elemento nello heap e le chiavi di ogni elemento.
+ * Non viene quindi creato alcun oggetto per le voci dello heap e l'operazione
+ * di decremento della chiave di un elemento costa O(log_d n). Con d maggiore di
+ * 2 l'albero è più basso e più favorevole alla cache, a fronte di un costo
+ * maggiore dell'estrazione del minimo, che è O(d log_d n): è la scelta tipica
+ * per l'algoritmo di Prim e di Dijkstra, in cui i decrementi di chiave sono
+ * molto più frequenti delle estrazioni.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ */
+public class IndexedDaryMinHeap {
+
+    // Valore che indica che un elemento non è nello heap.
+    private static final int ABSENT = -1;
+
+    private final int arity; // Numero di figli di ogni nodo dello heap.
+    private final int[] heap; // Elemento che si trova in ogni posizione dello heap.
+    private final int[] positions; // Posizione di ogni elemento nello heap, ABSENT se non presente.
+    private final double[] keys; // Chiave di ogni elemento.
+    private final int[] ties; // Seconda chiave di ogni elemento, usata a parità di chiave.
+    private int size; // Numero di elementi nello heap.
+
+    /**
+     * Costruisce uno heap d-ario vuoto per gli elementi nell'intervallo
+     * <code>[0, capacity - 1]</code>.
+     *
+     * @param capacity
+     *                     il numero di elementi gestibili
+     * @param arity
+     *                     il numero di figli di ogni nodo dello heap
+     * @throws IllegalArgumentException
+     *                                      se la capacità è negativa o se
+     *                                      l'arietà è minore di 2
+     */
+    public IndexedDaryMinHeap(int capacity, int arity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacità negativa: " + capacity);
+        if (arity < 2)
+            throw new IllegalArgumentException("L'arietà deve essere almeno 2: " + arity);
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new double[capacity];
+        this.ties = new int[capacity];
+        this.size = 0;
+        for (int i = 0; i < capacity; i++)
+            this.positions[i] = ABSENT;
+    }
+
+    /**
+     * Restituisce il numero di elementi nello heap.
+     *
+     * @return il numero di elementi nello heap
+     */
+    public int size() { return this.size; }
+
+    /**
+     * Determina se lo heap è vuoto.
+     *
+     * @return true se lo heap non contiene elementi, false altrimenti
+     */
+    public boolean isEmpty() { return this.size == 0; }
+
+    /**
+     * Determina se un elemento è nello heap.
+     *
+     * @param item
+     *                 l'elemento
+     * @return true se l'elemento è nello heap, false altrimenti
+     * @throws IndexOutOfBoundsException
+     *                                       se l'elemento è fuori
+     *                                       dall'intervallo gestito
+     */
+    public boolean contains(int item) {
+        checkItem(item);
+        return this.positions[item] != ABSENT;
+    }
+
+    /**
+     * Restituisce la chiave corrente di un elemento dello heap.
+     *
+     * @param item
+     *                 l'elemento
+     * @return la chiave dell'elemento
+     * @throws IndexOutOfBoundsException
+     *                                       se l'elemento è fuori
+     *                                       dall'intervallo gestito
+     * @throws NoSuchElementException
+     *                                       se l'elemento non è nello heap
+     */
+    public double getKey(int item) {
+        if (!contains(item))
+            throw new NoSuchElementException("Elemento non presente nello heap: " + item);
+        return this.keys[item];
+    }
+
+    /**
+     * Inserisce un elemento con la chiave data.
+     *
+     * @param item
+     *                 l'elemento da inserire
+     * @param key
+     *                 la chiave dell'elemento
+     * @throws IndexOutOfBoundsException
+     *                                      se l'elemento è fuori
+     *                                      dall'intervallo gestito
+     * @throws IllegalArgumentException
+     *                                      se l'elemento è già nello heap
+     */
+    public void insert(int item, double key) {
+        insert(item, key, 0);
+    }
+
+    /**
+     * Inserisce un elemento con le chiavi date.
+     *
+     * @param item
+     *                 l'elemento da inserire
+     * @param key
+     *                 la chiave dell'elemento
+     * @param tie
+     *                 la seconda chiave dell'elemento, confrontata a parità
+     *                 di chiave
+     * @throws IndexOutOfBoundsException
+     *                                      se l'elemento è fuori
+     *                                      dall'intervallo gestito
+     * @throws IllegalArgumentException
+     *                                      se l'elemento è già nello heap
+     */
+    public void insert(int item, double key, int tie) {
+        if (contains(item))
+            throw new IllegalArgumentException("Elemento già presente nello heap: " + item);
+        this.keys[item] = key;
+        this.ties[item] = tie;
+        this.heap[this.size] = item;
+        this.positions[item] = this.size;
+        siftUp(this.size++);
+    }
+
+    /**
+     * Diminuisce la chiave di un elemento dello heap.
+     *
+     * @param item
+     *                 l'elemento
+     * @param key
+     *                 la nuova chiave, non maggiore di quella corrente
+     * @throws IndexOutOfBoundsException
+     *                                       se l'elemento è fuori
+     *                                       dall'intervallo gestito
+     * @throws NoSuchElementException
+     *                                       se l'elemento non è nello heap
+     * @throws IllegalArgumentException
+     *                                       se la nuova chiave è maggiore di
+     *                                       quella corrente
+     */
+    public void decreaseKey(int item, double key) {
+        decreaseKey(item, key, 0);
+    }
+
+    /**
+     * Diminuisce le chiavi di un elemento dello heap.
+     *
+     * @param item
+     *                 l'elemento
+     * @param key
+     *                 la nuova chiave, non maggiore di quella corrente
+     * @param tie
+     *                 la nuova seconda chiave, confrontata a parità di chiave
+     * @throws IndexOutOfBoundsException
+     *                                       se l'elemento è fuori
+     *                                       dall'intervallo gestito
+     * @throws NoSuchElementException
+     *                                       se l'elemento non è nello heap
+     * @throws IllegalArgumentException
+     *                                       se le nuove chiavi seguono quelle
+     *                                       correnti
+     */
+    public void decreaseKey(int item, double key, int tie) {
+        double current = getKey(item);
+        int byKey = Double.compare(key, current);
+        if (byKey > 0 || byKey == 0 && tie > this.ties[item])
+            throw new IllegalArgumentException("La nuova chiave è maggiore di quella corrente");
+        this.keys[item] = key;
+        this.ties[item] = tie;
+        siftUp(this.positions[item]);
+    }
+
+    /**
+     * Restituisce l'elemento con chiave minima senza rimuoverlo.
+     *
+     * @return l'elemento con chiave minima
+     * @throws NoSuchElementException
+     *                                    se lo heap è vuoto
+     */
+    public int peekMin() {
+        if (this.size == 0)
+            throw new NoSuchElementException("Heap vuoto");
+        return this.heap[0];
+    }
+
+    /**
+     * Rimuove e restituisce l'elemento con chiave minima.
+     *
+     * @return l'elemento con chiave minima
+     * @throws NoSuchElementException
+     *                                    se lo heap è vuoto
+     */
+    public int extractMin() {
+        int min = peekMin();
+        int last = this.heap[--this.size];
+        this.positions[min] = ABSENT;
+        if (this.size > 0) {
+            this.heap[0] = last;
+            this.positions[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Rimuove tutti gli elementi dallo heap.
+     */
+    public void clear() {
+        for (int i = 0; i < this.size; i++)
+            this.positions[this.heap[i]] = ABSENT;
+        this.size = 0;
+    }
+
+    // METODI PRIVATI
+
+    private void checkItem(int item) {
+        if (item < 0 || item >= this.positions.length)
+            throw new IndexOutOfBoundsException("Elemento fuori dall'intervallo: " + item);
+    }
+
+    /*
+     * Determina se l'elemento a precede strettamente l'elemento b, prima per
+     * chiave e a parità di chiave per seconda chiave.
+     */
+    private boolean less(int a, int b) {
+        int byKey = Double.compare(this.keys[a], this.keys[b]);
+        return byKey < 0 || byKey == 0 && this.ties[a] < this.ties[b];
+    }
+
+    private void siftUp(int i) {
+        int item = this.heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / this.arity;
+            int parentItem = this.heap[parent];
+            if (!less(item, parentItem))
+                break;
+            this.heap[i] = parentItem;
+            this.positions[parentItem] = i;
+            i = parent;
+        }
+        this.heap[i] = item;
+        this.positions[item] = i;
+    }
+
+    private void siftDown(int i) {
+        int item = this.heap[i];
+        while (true) {
+            int first = i * this.arity + 1;
+            if (first >= this.size)
+                break;
+            // Cerchiamo il figlio con chiave minima.
+            int last = Math.min(first + this.arity, this.size);
+            int min = first;
+            for (int child = first + 1; child < last; child++)
+                if (less(this.heap[child], this.heap[min]))
+                    min = child;
+            if (!less(this.heap[min], item))
+                break;
+            this.heap[i] = this.heap[min];
+            this.positions[this.heap[i]] = i;
+            i = min;
+        }
+        this.heap[i] = item;
+        this.positions[item] = i;
+    }
+}
@@ -0,0 +1,160 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Implementazione dell'interfaccia <code>DisjointSets<E></code> che associa
+ * ad ogni elemento un intero denso, nell'ordine di inserimento, e delega le
+ * operazioni sugli insiemi a un {@code IntDisjointSets}.
+ *
+ * La mappa dagli elementi agli interi è consultata una sola volta per ogni
+ * operazione; gli alberi degli insiemi sono invece array di tipi primitivi e
+ * la ricerca del rappresentante non segue puntatori tra oggetti. Il
+ * rappresentante dell'unione di due insiemi è scelto come in
+ * {@code ForestDisjointSets}: la radice di rango maggiore e, a parità di
+ * rango, quella dell'insieme del secondo elemento.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ * @param <E>
+ *                il tipo degli elementi degli insiemi disgiunti
+ */
+public class IndexedDisjointSets<E> implements DisjointSets<E> {
+
+    private final Map<E, Integer> indexes; // Intero associato ad ogni elemento.
+    private final List<E> elements; // Elemento associato ad ogni intero.
+    private final IntDisjointSets sets; // Insiemi disgiunti degli interi.
+
+    /**
+     * Costruisce una collezione vuota di insiemi disgiunti.
+     */
+    public IndexedDisjointSets() {
+        this.indexes = new HashMap<>();
+        this.elements = new ArrayList<>();
+        this.sets = new IntDisjointSets();
+    }
+
+    @Override
+    public boolean isPresent(E e) {
+        // Come ForestDisjointSets, null non è mai presente.
+        return e != null && this.indexes.containsKey(e);
+    }
+
+    @Override
+    public void makeSet(E e) {
+        Objects.requireNonNull(e, "L'elemento passato è nullo.");
+        if (this.indexes.containsKey(e))
+            throw new IllegalArgumentException("L'elemento" + e + " è gia presente in un insieme disgiunto.");
+
+        this.indexes.put(e, this.sets.makeSet());
+        this.elements.add(e);
+    }
+
+    @Override
+    public E findSet(E e) {
+        Objects.requireNonNull(e, "L'elemento passato è nullo.");
+        Integer i = this.indexes.get(e);
+        if (i == null)
+            return null;
+        return this.elements.get(this.sets.find(i));
+    }
+
+    @Override
+    public void union(E e1, E e2) {
+        Objects.requireNonNull(e1, "Il primo elemento passato è nullo.");
+        Objects.requireNonNull(e2, "Il secondo elemento passato è nullo.");
+        Integer i = this.indexes.get(e1);
+        Integer j = this.indexes.get(e2);
+        if (i == null || j == null)
+            throw new IllegalArgumentException("Elementi non presenti nella struttura");
+
+        this.sets.union(i, j);
+    }
+
+    /*
+     * Gli elementi del blocco sono convertiti in interi consultando la mappa
+     * una volta per posizione; le unioni sono poi eseguite, nell'ordine dato,
+     * da IntDisjointSets.unionAll sull'array di interi. Gli elementi ripetuti
+     * nel blocco non vengono raggruppati.
+     */
+    @Override
+    public BitSet unionAll(List<? extends E> pairs) {
+        int[] indexes = resolve(pairs);
+        if (indexes.length % 2 != 0)
+            throw new IllegalArgumentException("Numero dispari di elementi nelle coppie: " + indexes.length);
+        for (int i : indexes)
+            if (i == -1)
+                throw new IllegalArgumentException("Elementi non presenti nella struttura");
+
+        return this.sets.unionAll(indexes, 0, indexes.length);
+    }
+
+    @Override
+    public void findAll(List<? extends E> elements, List<? super E> out) {
+        Objects.requireNonNull(out, "La lista dei risultati è nulla.");
+        for (int i : resolve(elements))
+            out.add(i == -1 ? null : this.elements.get(this.sets.find(i)));
+    }
+
+    @Override
+    public Set<E> getCurrentRepresentatives() {
+        Set<E> representatives = new HashSet<>();
+        for (int i = 0; i < this.sets.size(); i++)
+            if (this.sets.find(i) == i)
+                representatives.add(this.elements.get(i));
+        return representatives;
+    }
+
+    @Override
+    public Set<E> getCurrentElementsOfSetContaining(E e) {
+        Objects.requireNonNull(e);
+        Integer index = this.indexes.get(e);
+        if (index == null)
+            throw new IllegalArgumentException("Elemento non presente: " + e);
+
+        int root = this.sets.find(index);
+        Set<E> elements = new HashSet<>();
+        for (int i = 0; i < this.sets.size(); i++)
+            if (this.sets.find(i) == root)
+                elements.add(this.elements.get(i));
+        return elements;
+    }
+
+    @Override
+    public void clear() {
+        this.indexes.clear();
+        this.elements.clear();
+        this.sets.clear();
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti correnti.
+     *
+     * @return il numero di insiemi disgiunti
+     */
+    public int setCount() { return this.sets.setCount(); }
+
+    // METODI PRIVATI
+
+    // Restituisce gli interi associati agli elementi della lista, -1 per
+    // quelli non presenti.
+    private int[] resolve(List<? extends E> elements) {
+        Objects.requireNonNull(elements, "La lista degli elementi è nulla.");
+        int[] indexes = new int[elements.size()];
+        int k = 0;
+        for (E e : elements) {
+            Integer i = this.indexes.get(Objects.requireNonNull(e, "L'elemento passato è nullo."));
+            indexes[k++] = i == null ? -1 : i;
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,327 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Rappresentazione compatta degli archi di un grafo non orientato e pesato
+ * tramite array paralleli di tipi primitivi. Ogni arco è identificato da un
+ * intero nell'intervallo <code>[0, edgeCount - 1]</code>, pari alla sua
+ * posizione nell'ordine di visita degli archi del grafo; i suoi estremi sono
+ * memorizzati come indici interi dei nodi e il suo peso come {@code double}
+ * non boxed.
+ *
+ * La classe è usata dagli algoritmi per il calcolo dell'albero di copertura
+ * minimo per evitare, durante l'ordinamento e le unioni, il calcolo degli hash
+ * e l'unboxing dei pesi ad ogni confronto. L'ordine tra gli archi è sempre
+ * quello per peso crescente e, a parità di peso, per identificatore
+ * crescente: in questo modo tutti gli algoritmi che la usano restituiscono lo
+ * stesso albero anche in presenza di archi con pesi uguali.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+final class IndexedEdgeList<L> {
+
+    // Sotto questa soglia il merge sort ordina i sotto-array per inserimento.
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    final int indexBound; // Limite degli indici dei nodi, che sono in [0, indexBound - 1].
+    final int edgeCount; // Numero degli archi, gli identificatori sono in [0, edgeCount - 1].
+    final GraphNode<L>[] nodes; // Nodo associato a ogni indice, null per gli indici liberi.
+    final int[] sources; // Indice del primo estremo di ogni arco.
+    final int[] targets; // Indice del secondo estremo di ogni arco.
+    final double[] weights; // Peso di ogni arco.
+    private final Graph<L> graph; // Grafo da cui sono stati estratti gli archi.
+    // Oggetti arco, conservati solo se il grafo non supporta le operazioni
+    // sugli indici e quindi non può restituirli con getEdgeAt.
+    private final GraphEdge<L>[] edges;
+
+    @SuppressWarnings("unchecked")
+    private IndexedEdgeList(Graph<L> graph, int indexBound, int edgeCount, boolean keepEdges) {
+        this.graph = graph;
+        this.indexBound = indexBound;
+        this.edgeCount = edgeCount;
+        this.nodes = (GraphNode<L>[]) new GraphNode<?>[indexBound];
+        this.sources = new int[edgeCount];
+        this.targets = new int[edgeCount];
+        this.weights = new double[edgeCount];
+        this.edges = keepEdges ? (GraphEdge<L>[]) new GraphEdge<?>[edgeCount] : null;
+    }
+
+    /**
+     * Estrae gli archi di un grafo non orientato in array paralleli. Gli
+     * archi sono letti con {@code forEachEdgeIndex}, che fornisce già gli
+     * indici dei nodi e i pesi: non vengono calcolati hash né creati oggetti
+     * per gli archi. Se il grafo non supporta le operazioni sugli indici dei
+     * nodi, i nodi vengono numerati nell'ordine di {@code getNodes} e gli
+     * archi letti con {@code forEachEdge}, come fa
+     * {@code KruskalMSP.computeMSP}: gli identificatori degli archi sono gli
+     * stessi nei due casi.
+     *
+     * @param g
+     *              il grafo da cui estrarre gli archi
+     * @return la lista indicizzata degli archi del grafo
+     * @throws IllegalArgumentException
+     *                                      se il grafo contiene archi non
+     *                                      pesati o con pesi negativi
+     */
+    static <L> IndexedEdgeList<L> of(Graph<L> g) {
+        return supportsIndexes(g) ? ofIndexes(g) : ofEdges(g);
+    }
+
+    /**
+     * Determina se un grafo supporta le operazioni opzionali sugli indici dei
+     * nodi, chiamando una sola volta {@code getIndexBound} e
+     * {@code getNodeIndexOf} su un suo nodo. Il controllo avviene prima di
+     * qualsiasi visita, così una {@code UnsupportedOperationException}
+     * sollevata durante una visita sugli indici non viene scambiata per
+     * l'assenza di supporto.
+     *
+     * @param g
+     *              il grafo da controllare
+     * @return true se il grafo supporta le operazioni sugli indici, false
+     *         altrimenti
+     */
+    static <L> boolean supportsIndexes(Graph<L> g) {
+        try {
+            g.getIndexBound();
+            Iterator<GraphNode<L>> nodes = g.getNodes().iterator();
+            if (nodes.hasNext())
+                g.getNodeIndexOf(nodes.next().getLabel());
+            return true;
+        }
+        catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    // Estrazione con le operazioni sugli indici del grafo.
+    private static <L> IndexedEdgeList<L> ofIndexes(Graph<L> g) {
+        IndexedEdgeList<L> list = new IndexedEdgeList<>(g, g.getIndexBound(), g.edgeCount(), false);
+        for (GraphNode<L> node : g.getNodes())
+            list.nodes[g.getNodeIndexOf(node.getLabel())] = node;
+
+        // Gli identificatori seguono l'ordine di forEachEdgeIndex, lo stesso
+        // di forEachEdge usato da KruskalMSP.computeMSP.
+        int[] nextId = { 0 };
+        g.forEachEdgeIndex((i, j, weight) -> {
+            if (!(weight >= 0)) // Vero anche per NaN, cioè per gli archi non pesati.
+                throw new IllegalArgumentException("Archi con pesi non validi");
+
+            int id = nextId[0]++;
+            list.sources[id] = i;
+            list.targets[id] = j;
+            list.weights[id] = weight;
+        });
+        return list;
+    }
+
+    // Estrazione per i grafi che non supportano le operazioni sugli indici.
+    private static <L> IndexedEdgeList<L> ofEdges(Graph<L> g) {
+        IndexedEdgeList<L> list = new IndexedEdgeList<>(g, g.nodeCount(), g.edgeCount(), true);
+        Map<GraphNode<L>, Integer> indexes = new HashMap<>();
+        int next = 0;
+        for (GraphNode<L> node : g.getNodes()) {
+            list.nodes[next] = node;
+            indexes.put(node, next++);
+        }
+
+        int[] nextId = { 0 };
+        g.forEachEdge(edge -> {
+            if (!edge.hasWeight() || !(edge.getWeight() >= 0))
+                throw new IllegalArgumentException("Archi con pesi non validi");
+
+            int id = nextId[0]++;
+            list.sources[id] = indexes.get(edge.getNode1());
+            list.targets[id] = indexes.get(edge.getNode2());
+            list.weights[id] = edge.getWeight();
+            list.edges[id] = edge;
+        });
+        return list;
+    }
+
+    /**
+     * Restituisce l'arco del grafo con l'identificatore dato. Gli oggetti
+     * arco sono richiesti al grafo solo per gli archi del risultato.
+     *
+     * @param id
+     *               l'identificatore dell'arco
+     * @return l'arco del grafo
+     */
+    GraphEdge<L> edge(int id) {
+        if (this.edges != null)
+            return this.edges[id];
+        return this.graph.getEdgeAt(this.sources[id], this.targets[id]);
+    }
+
+    /**
+     * Raggruppa gli identificatori degli archi per estremo: gli archi
+     * incidenti nel nodo di indice i sono in
+     * <code>incident[offsets[i]] ... incident[offsets[i + 1] - 1]</code>,
+     * dove {@code incident} è l'array restituito e {@code offsets} è
+     * l'array passato, di lunghezza <code>indexBound + 1</code>, che viene
+     * riempito dal metodo.
+     *
+     * @param offsets
+     *                    l'array in cui scrivere la posizione iniziale
+     *                    degli archi di ogni nodo
+     * @return gli identificatori degli archi raggruppati per estremo
+     */
+    int[] incidentEdges(int[] offsets) {
+        int n = this.indexBound;
+        for (int id = 0; id < this.edgeCount; id++) {
+            offsets[this.sources[id] + 1]++;
+            offsets[this.targets[id] + 1]++;
+        }
+        for (int i = 0; i < n; i++)
+            offsets[i + 1] += offsets[i];
+        int[] incident = new int[offsets[n]];
+        int[] next = Arrays.copyOf(offsets, n);
+        for (int id = 0; id < this.edgeCount; id++) {
+            incident[next[this.sources[id]]++] = id;
+            incident[next[this.targets[id]]++] = id;
+        }
+        return incident;
+    }
+
+    /**
+     * Confronta due archi secondo l'ordine usato da tutti gli algoritmi: prima
+     * per peso e, a parità di peso, per identificatore.
+     *
+     * @param a
+     *              identificatore del primo arco
+     * @param b
+     *              identificatore del secondo arco
+     * @return un valore negativo, zero o positivo se il primo arco precede, è
+     *         uguale o segue il secondo
+     */
+    int compare(int a, int b) {
+        int byWeight = Double.compare(this.weights[a], this.weights[b]);
+        return byWeight != 0 ? byWeight : Integer.compare(a, b);
+    }
+
+    /**
+     * Restituisce gli identificatori di tutti gli archi ordinati per peso
+     * crescente. L'ordinamento è un merge sort stabile su un array di interi,
+     * quindi a parità di peso viene mantenuto l'ordine di visita originale.
+     *
+     * @return un nuovo array con gli identificatori degli archi ordinati
+     */
+    int[] sortedOrder() {
+        int[] order = new int[this.edgeCount];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        sort(order, 0, order.length);
+        return order;
+    }
+
+    /**
+     * Ordina in modo stabile la porzione <code>[from, to)</code> di un array
+     * di identificatori di archi.
+     *
+     * @param ids
+     *                 gli identificatori da ordinare
+     * @param from
+     *                 primo indice incluso
+     * @param to
+     *                 ultimo indice escluso
+     */
+    void sort(int[] ids, int from, int to) {
+        if (to - from < 2)
+            return;
+        mergeSort(ids, new int[to - from], from, to);
+    }
+
+    /**
+     * Restituisce gli identificatori di tutti gli archi organizzati in un
+     * min-heap binario secondo l'ordine di {@link #compare(int, int)}. La
+     * costruzione avviene dal basso verso l'alto in tempo O(m); il minimo si
+     * trova in posizione 0 e può essere estratto sostituendolo con l'ultimo
+     * elemento e chiamando {@link #siftDown(int[], int, int)}.
+     *
+     * @return un nuovo array con gli identificatori degli archi in ordine di
+     *         heap
+     */
+    int[] heapOrder() {
+        int[] heap = new int[this.edgeCount];
+        for (int i = 0; i < heap.length; i++)
+            heap[i] = i;
+        for (int i = (heap.length >>> 1) - 1; i >= 0; i--)
+            siftDown(heap, i, heap.length);
+        return heap;
+    }
+
+    /**
+     * Fa scendere l'elemento in posizione i di un min-heap di identificatori
+     * di archi fino a ripristinare la proprietà di heap.
+     *
+     * @param heap
+     *                 lo heap di identificatori
+     * @param i
+     *                 la posizione dell'elemento da far scendere
+     * @param size
+     *                 il numero di elementi dello heap
+     */
+    void siftDown(int[] heap, int i, int size) {
+        int current = heap[i];
+        int half = size >>> 1; // Le posizioni da half in poi sono foglie.
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && compare(heap[child + 1], heap[child]) < 0)
+                child++;
+            if (compare(current, heap[child]) <= 0)
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = current;
+    }
+
+    // METODI PRIVATI
+
+    private void mergeSort(int[] ids, int[] buffer, int from, int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(ids, from, to);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(ids, buffer, from, mid);
+        mergeSort(ids, buffer, mid, to);
+
+        // Se le due metà sono già in ordine non serve fondere.
+        if (compare(ids[mid - 1], ids[mid]) <= 0)
+            return;
+
+        // Copiamo la prima metà nel buffer e fondiamo direttamente in ids.
+        int leftLength = mid - from;
+        System.arraycopy(ids, from, buffer, 0, leftLength);
+        int i = 0, j = mid, k = from;
+        while (i < leftLength && j < to) {
+            if (compare(ids[j], buffer[i]) < 0)
+                ids[k++] = ids[j++];
+            else
+                ids[k++] = buffer[i++];
+        }
+        while (i < leftLength)
+            ids[k++] = buffer[i++];
+    }
+
+    private void insertionSort(int[] ids, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int current = ids[i];
+            int j = i - 1;
+            while (j >= from && compare(ids[j], current) > 0) {
+                ids[j + 1] = ids[j];
+                j--;
+            }
+            ids[j + 1] = current;
+        }
+    }
+}
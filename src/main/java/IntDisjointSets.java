@@ -0,0 +1,289 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Collezione di insiemi disgiunti di interi nell'intervallo
+ * <code>[0, size() - 1]</code>, rappresentata con array di tipi primitivi.
+ *
+ * A differenza di {@code ForestDisjointSets}, che alloca per ogni elemento un
+ * oggetto nodo e una voce di una HashMap, qui ogni elemento occupa cinque
+ * byte: un intero in {@code parents} e un byte in {@code ranks}. Nell'array
+ * dei padri una radice è codificata con il valore negativo della dimensione
+ * del suo insieme, così la dimensione degli insiemi non richiede un terzo
+ * array. La ricerca del rappresentante è iterativa e applica il dimezzamento
+ * del cammino (ogni elemento visitato viene collegato al proprio nonno);
+ * l'unione applica l'euristica "unione per rango" e, a parità di rango,
+ * rende rappresentante la radice del secondo elemento, come
+ * {@code ForestDisjointSets}.
+ *
+ * Gli elementi sono creati tutti insieme dal costruttore oppure uno alla
+ * volta con {@link #makeSet()}. Per usare la struttura con elementi di tipo
+ * qualsiasi si veda {@code IndexedDisjointSets}.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ */
+public class IntDisjointSets {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Padre di ogni elemento; per le radici, l'opposto della dimensione
+    // dell'insieme.
+    private int[] parents;
+
+    // Rango di ogni elemento, significativo solo per le radici. Con l'unione
+    // per rango il rango non supera log2(n), quindi sta in un byte.
+    private byte[] ranks;
+
+    private int size; // Numero di elementi.
+
+    private int setCount; // Numero di insiemi disgiunti.
+
+    /**
+     * Costruisce una collezione vuota di insiemi disgiunti.
+     */
+    public IntDisjointSets() {
+        this.parents = new int[INITIAL_CAPACITY];
+        this.ranks = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Costruisce una collezione di n insiemi singoletto, uno per ogni intero
+     * in <code>[0, n - 1]</code>.
+     *
+     * @param n
+     *              il numero di elementi
+     * @throws IllegalArgumentException
+     *                                      se n è negativo
+     */
+    public IntDisjointSets(int n) {
+        if (n < 0)
+            throw new IllegalArgumentException("Numero di elementi negativo: " + n);
+        this.parents = new int[n];
+        this.ranks = new byte[n];
+        Arrays.fill(this.parents, -1);
+        this.size = n;
+        this.setCount = n;
+    }
+
+    /**
+     * Aggiunge un nuovo elemento, in un insieme singoletto.
+     *
+     * @return l'elemento aggiunto, pari al numero di elementi precedente
+     */
+    public int makeSet() {
+        if (this.size == this.parents.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, this.size * 2);
+            this.parents = Arrays.copyOf(this.parents, capacity);
+            this.ranks = Arrays.copyOf(this.ranks, capacity);
+        }
+        this.parents[this.size] = -1;
+        this.ranks[this.size] = 0;
+        this.setCount++;
+        return this.size++;
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme che contiene l'elemento dato,
+     * applicando il dimezzamento del cammino.
+     *
+     * @param i
+     *              l'elemento
+     * @return il rappresentante dell'insieme di i
+     * @throws IndexOutOfBoundsException
+     *                                       se i non è un elemento
+     */
+    public int find(int i) {
+        checkElement(i);
+        return findRoot(i);
+    }
+
+    /**
+     * Unisce gli insiemi che contengono i due elementi dati, se sono distinti.
+     *
+     * @param i
+     *              un elemento del primo insieme
+     * @param j
+     *              un elemento del secondo insieme
+     * @return true se i due insiemi erano distinti e sono stati uniti, false
+     *         se i e j erano già nello stesso insieme
+     * @throws IndexOutOfBoundsException
+     *                                       se i o j non è un elemento
+     */
+    public boolean union(int i, int j) {
+        checkElement(i);
+        checkElement(j);
+        return link(findRoot(i), findRoot(j));
+    }
+
+    /**
+     * Unisce, nell'ordine dato, gli insiemi delle coppie di elementi
+     * memorizzate consecutivamente in <code>pairs[from, to - 1]</code>: la
+     * k-esima coppia è formata da <code>pairs[from + 2k]</code> e
+     * <code>pairs[from + 2k + 1]</code>. Gli elementi sono controllati tutti
+     * prima della prima unione, quindi se viene lanciata un'eccezione la
+     * struttura non è stata modificata.
+     *
+     * @param pairs
+     *                  l'array che contiene le coppie
+     * @param from
+     *                  la posizione del primo elemento della prima coppia
+     * @param to
+     *                  la posizione successiva all'ultimo elemento dell'ultima
+     *                  coppia
+     * @return l'insieme delle posizioni k delle coppie i cui elementi erano,
+     *         al momento della loro unione, in insiemi distinti
+     * @throws NullPointerException
+     *                                       se l'array è null
+     * @throws IllegalArgumentException
+     *                                       se l'intervallo contiene un numero
+     *                                       dispari di elementi
+     * @throws IndexOutOfBoundsException
+     *                                       se l'intervallo non è contenuto
+     *                                       nell'array o uno dei suoi valori
+     *                                       non è un elemento
+     */
+    public BitSet unionAll(int[] pairs, int from, int to) {
+        checkRange(pairs, from, to);
+        if ((to - from) % 2 != 0)
+            throw new IllegalArgumentException("Numero dispari di elementi nelle coppie: " + (to - from));
+
+        BitSet merged = new BitSet((to - from) / 2);
+        for (int p = from; p < to; p += 2)
+            if (link(findRoot(pairs[p]), findRoot(pairs[p + 1])))
+                merged.set((p - from) / 2);
+        return merged;
+    }
+
+    /**
+     * Scrive in <code>out[k]</code> il rappresentante dell'insieme di
+     * <code>elements[k]</code>, per ogni k. Gli elementi sono controllati
+     * tutti prima di iniziare le ricerche.
+     *
+     * @param elements
+     *                     gli elementi di cui cercare il rappresentante
+     * @param out
+     *                     l'array in cui scrivere i rappresentanti, lungo
+     *                     almeno quanto elements
+     * @throws NullPointerException
+     *                                       se uno dei due array è null
+     * @throws IllegalArgumentException
+     *                                       se out è più corto di elements
+     * @throws IndexOutOfBoundsException
+     *                                       se uno dei valori di elements non
+     *                                       è un elemento
+     */
+    public void findAll(int[] elements, int[] out) {
+        checkRange(elements, 0, elements.length);
+        Objects.requireNonNull(out, "L'array dei risultati è nullo.");
+        if (out.length < elements.length)
+            throw new IllegalArgumentException("Array dei risultati troppo corto: " + out.length);
+        for (int k = 0; k < elements.length; k++)
+            out[k] = findRoot(elements[k]);
+    }
+
+    /**
+     * Determina se due elementi sono nello stesso insieme.
+     *
+     * @param i
+     *              il primo elemento
+     * @param j
+     *              il secondo elemento
+     * @return true se i e j hanno lo stesso rappresentante
+     * @throws IndexOutOfBoundsException
+     *                                       se i o j non è un elemento
+     */
+    public boolean connected(int i, int j) {
+        checkElement(i);
+        checkElement(j);
+        return findRoot(i) == findRoot(j);
+    }
+
+    /**
+     * Restituisce il numero di elementi dell'insieme che contiene l'elemento
+     * dato.
+     *
+     * @param i
+     *              l'elemento
+     * @return la dimensione dell'insieme di i
+     * @throws IndexOutOfBoundsException
+     *                                       se i non è un elemento
+     */
+    public int setSize(int i) {
+        return -this.parents[find(i)];
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti.
+     *
+     * @return il numero di insiemi disgiunti
+     */
+    public int setCount() { return this.setCount; }
+
+    /**
+     * Restituisce il numero di elementi.
+     *
+     * @return il numero di elementi
+     */
+    public int size() { return this.size; }
+
+    /**
+     * Cancella tutti gli elementi. La capacità degli array viene mantenuta.
+     */
+    public void clear() {
+        this.size = 0;
+        this.setCount = 0;
+    }
+
+    // METODI PRIVATI
+
+    private int findRoot(int i) {
+        int[] parents = this.parents;
+        int parent;
+        while ((parent = parents[i]) >= 0) {
+            int grandparent = parents[parent];
+            if (grandparent < 0)
+                return parent;
+            parents[i] = grandparent;
+            i = grandparent;
+        }
+        return i;
+    }
+
+    // Collega due radici con l'unione per rango: a parità di rango diventa
+    // radice y. Restituisce false se le radici coincidono.
+    private boolean link(int x, int y) {
+        if (x == y)
+            return false;
+
+        if (this.ranks[x] > this.ranks[y]) {
+            int tmp = x;
+            x = y;
+            y = tmp;
+        }
+        else if (this.ranks[x] == this.ranks[y])
+            this.ranks[y]++;
+        this.parents[y] += this.parents[x]; // Somma delle dimensioni, entrambe negative.
+        this.parents[x] = y;
+        this.setCount--;
+        return true;
+    }
+
+    private void checkElement(int i) {
+        if (i < 0 || i >= this.size)
+            throw new IndexOutOfBoundsException("L'indice inserito è fuori dal range.");
+    }
+
+    private void checkRange(int[] elements, int from, int to) {
+        Objects.requireNonNull(elements, "L'array degli elementi è nullo.");
+        if (from < 0 || from > to || to > elements.length)
+            throw new IndexOutOfBoundsException("L'intervallo inserito è fuori dal range.");
+        for (int k = from; k < to; k++)
+            checkElement(elements[k]);
+    }
+}
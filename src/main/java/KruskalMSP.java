@@ -9,9 +9,18 @@ import java.util.*;
  * Classe singoletto che implementa l'algoritmo di Kruskal per trovare un
  * Minimum Spanning Tree di un grafo non orientato, pesato e con pesi non
  * negativi. L'algoritmo implementato si avvale della classe
- * {@code ForestDisjointSets<GraphNode<L>>} per gestire una collezione di
+ * {@code ForestDisjointSets<GraphNode<L>>}, o di un'altra implementazione di
+ * {@code DisjointSets} passata al costruttore, per gestire una collezione di
  * insiemi disgiunti di nodi del grafo.
  * 
+ * In alternativa è disponibile una modalità che lavora interamente su array
+ * di tipi primitivi (si veda {@link #computeMSPOnPrimitiveArrays(Graph)}):
+ * gli estremi degli archi vengono convertiti in indici interi, i pesi in
+ * {@code double} non boxed e gli insiemi disgiunti sono gestiti da un
+ * {@code IntDisjointSets}. Questa modalità è pensata per grafi con milioni di
+ * archi, per i quali la mappa dei pesi e i confronti con unboxing dominano il
+ * tempo di esecuzione e il lavoro del garbage collector.
+ * 
  * @author Luca Tesei (template)
  *         Riccardo Catervi - riccardo.catervi@studenti.unicam.it (implementazione)
  * 
@@ -19,13 +28,33 @@ import java.util.*;
  *                tipo delle etichette dei nodi del grafo
  *
  */
-public class KruskalMSP<L> {
+public class KruskalMSP<L> implements MSPComputer<L> {
+
+    /**
+     * Strategia con cui la modalità su array primitivi ordina gli archi.
+     */
+    public enum EdgeOrdering {
+        /**
+         * Ordina subito tutti gli archi in tempo O(m log m).
+         */
+        FULL_SORT,
+        /**
+         * Organizza gli archi in un heap binario in tempo O(m) ed estrae il
+         * minimo solo quando serve, in tempo O(log m) per ogni estrazione.
+         * Insieme alla terminazione anticipata evita di ordinare la coda di
+         * archi pesanti che non verrebbe mai esaminata.
+         */
+        LAZY_HEAP
+    }
+
+    // Numero di archi passati insieme a DisjointSets.unionAll.
+    private static final int EDGE_BLOCK_SIZE = 1024;
 
     /*
      * Struttura dati per rappresentare gli insiemi disgiunti utilizzata
      * dall'algoritmo di Kruskal.
      */
-    private ForestDisjointSets<GraphNode<L>> disjointSets;
+    private DisjointSets<GraphNode<L>> disjointSets;
 
     // Lista di archi da processare ordinata per peso crescente. Questa lista
     // segue un approccio goloso.
@@ -35,15 +64,41 @@ public class KruskalMSP<L> {
     // il confronto tra archi durante l'ordinamento.
     private Map<GraphEdge<L>, Double> weightCache;
 
+    // Numero di archi ordinati che l'ultima esecuzione non ha dovuto
+    // esaminare grazie alla terminazione anticipata.
+    private int skippedEdges;
+
+    // Numero di archi estratti dalla struttura di ordinamento durante
+    // l'ultima esecuzione.
+    private int extractedEdges;
 
     /**
      * Costruisce un calcolatore di un albero di copertura minimo che usa
      * l'algoritmo di Kruskal su un grafo non orientato e pesato.
      */
     public KruskalMSP() {
-        this.disjointSets = new ForestDisjointSets<GraphNode<L>>();
+        this(new ForestDisjointSets<GraphNode<L>>());
+    }
+
+    /**
+     * Costruisce un calcolatore di un albero di copertura minimo che usa
+     * l'algoritmo di Kruskal con la struttura per gli insiemi disgiunti data,
+     * ad esempio un {@code IndexedDisjointSets}. La struttura viene svuotata
+     * all'inizio di ogni computazione con {@link #computeMSP(Graph)}; la
+     * modalità su array primitivi usa invece sempre un
+     * {@code IntDisjointSets}.
+     *
+     * @param disjointSets
+     *                         la struttura per gli insiemi disgiunti dei nodi
+     * @throws NullPointerException
+     *                                  se la struttura è null
+     */
+    public KruskalMSP(DisjointSets<GraphNode<L>> disjointSets) {
+        this.disjointSets = Objects.requireNonNull(disjointSets, "Struttura per gli insiemi disgiunti nulla non ammessa");
         this.edgesToProcess = null;
         this.weightCache = new HashMap<>();
+        this.skippedEdges = 0;
+        this.extractedEdges = 0;
     }
 
     /**
@@ -52,6 +107,12 @@ public class KruskalMSP<L> {
      * negativi. L'albero restituito non è radicato, quindi è rappresentato
      * semplicemente con un sottoinsieme degli archi del grafo.
      * 
+     * L'algoritmo termina non appena sono stati accettati
+     * {@code g.nodeCount() - 1} archi, cioè appena l'albero copre tutti i
+     * nodi; se il grafo non è connesso vengono esaminati tutti gli archi. Per
+     * fermarsi in anticipo anche su grafi non connessi si veda
+     * {@link #computeMSP(Graph, int)}.
+     * 
      * @param g
      *              un grafo non orientato, pesato, con pesi non negativi
      * @return l'insieme degli archi del grafo g che costituiscono l'albero di
@@ -60,10 +121,156 @@ public class KruskalMSP<L> {
      * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
      *        con pesi negativi
      */
+    @Override
     public Set<GraphEdge<L>> computeMSP(Graph<L> g) {
         validateInputGraph(g); // Verifica che il grafo soddisfi i requisiti dell'algoritmo.
         initializeDataStructures(g); // Prepara le strutture dati necessarie.
-        return constructMST(); // Esegue l'algoritmo e costruisce il MST.
+        return constructMST(targetEdgeCount(g, 1)); // Esegue l'algoritmo e costruisce il MST.
+    }
+
+    /**
+     * Come {@link #computeMSP(Graph)}, ma conoscendo il numero di componenti
+     * connesse {@code c} del grafo (ad esempio calcolato in precedenza con
+     * {@code UndirectedGraphConnectedComponentsComputer}). Una foresta di
+     * copertura di un grafo con n nodi e c componenti ha esattamente n - c
+     * archi, quindi l'algoritmo si ferma appena li ha accettati senza
+     * esaminare, né cercare negli insiemi disgiunti, gli archi rimanenti.
+     * Il numero di archi non esaminati è disponibile tramite
+     * {@link #getSkippedEdgeCount()}.
+     * 
+     * Un valore minore del numero reale di componenti è ammesso e causa
+     * soltanto una terminazione meno anticipata; un valore maggiore
+     * produrrebbe invece una foresta incompleta.
+     * 
+     * @param g
+     *                           un grafo non orientato, pesato, con pesi non
+     *                           negativi
+     * @param componentCount
+     *                           il numero di componenti connesse del grafo
+     * @return l'insieme degli archi del grafo g che costituiscono la foresta
+     *         di copertura minima trovata
+     * @throw NullPointerException se il grafo g è null
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi, oppure se componentCount non è compreso tra 1
+     *        e il numero di nodi del grafo (0 se il grafo è vuoto)
+     */
+    public Set<GraphEdge<L>> computeMSP(Graph<L> g, int componentCount) {
+        validateInputGraph(g);
+        int target = targetEdgeCount(g, componentCount);
+        initializeDataStructures(g);
+        return constructMST(target);
+    }
+
+    /**
+     * Restituisce il numero di archi che l'ultima esecuzione dell'algoritmo
+     * non ha esaminato perché la foresta di copertura era già completa.
+     * 
+     * @return il numero di archi saltati dall'ultima esecuzione, 0 se non è
+     *         stata ancora eseguita alcuna computazione
+     */
+    public int getSkippedEdgeCount() {
+        return this.skippedEdges;
+    }
+
+    /**
+     * Restituisce il numero di archi che l'ultima esecuzione dell'algoritmo
+     * ha estratto, in ordine di peso, dalla struttura di ordinamento. Con
+     * {@link EdgeOrdering#LAZY_HEAP} corrisponde al numero di estrazioni dallo
+     * heap, gli altri archi non sono mai stati ordinati.
+     * 
+     * @return il numero di archi estratti dall'ultima esecuzione, 0 se non è
+     *         stata ancora eseguita alcuna computazione
+     */
+    public int getExtractedEdgeCount() {
+        return this.extractedEdges;
+    }
+
+    /**
+     * Calcola lo stesso albero di copertura minimo di
+     * {@link #computeMSP(Graph)} lavorando su array paralleli di tipi
+     * primitivi: gli archi vengono estratti una sola volta in array di indici
+     * e di pesi, ordinati tramite un ordinamento stabile di indici interi e
+     * processati con una union-find (unione per rango e dimezzamento del
+     * cammino) su interi. Non viene creata alcuna mappa e nessun peso viene
+     * boxed.
+     * 
+     * @param g
+     *              un grafo non orientato, pesato, con pesi non negativi
+     * @return l'insieme degli archi del grafo g che costituiscono l'albero di
+     *         copertura minimo trovato
+     * @throw NullPointerException se il grafo g è null
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi
+     */
+    public Set<GraphEdge<L>> computeMSPOnPrimitiveArrays(Graph<L> g) {
+        return computeMSPOnPrimitiveArrays(g, EdgeOrdering.FULL_SORT);
+    }
+
+    /**
+     * Come {@link #computeMSPOnPrimitiveArrays(Graph)}, usando la strategia di
+     * ordinamento degli archi indicata. Il risultato non dipende dalla
+     * strategia scelta.
+     * 
+     * @param g
+     *                     un grafo non orientato, pesato, con pesi non negativi
+     * @param ordering
+     *                     la strategia di ordinamento degli archi
+     * @return l'insieme degli archi del grafo g che costituiscono l'albero di
+     *         copertura minimo trovato
+     * @throw NullPointerException se il grafo g o la strategia sono null
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi
+     */
+    public Set<GraphEdge<L>> computeMSPOnPrimitiveArrays(Graph<L> g, EdgeOrdering ordering) {
+        validateInputGraph(g);
+        Objects.requireNonNull(ordering, "Strategia di ordinamento nulla non ammessa");
+        return constructMSTOnPrimitiveArrays(g, targetEdgeCount(g, 1), ordering);
+    }
+
+    /**
+     * Come {@link #computeMSPOnPrimitiveArrays(Graph)}, ma conoscendo il
+     * numero di componenti connesse del grafo, con la stessa terminazione
+     * anticipata di {@link #computeMSP(Graph, int)}.
+     * 
+     * @param g
+     *                           un grafo non orientato, pesato, con pesi non
+     *                           negativi
+     * @param componentCount
+     *                           il numero di componenti connesse del grafo
+     * @return l'insieme degli archi del grafo g che costituiscono la foresta
+     *         di copertura minima trovata
+     * @throw NullPointerException se il grafo g è null
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi, oppure se componentCount non è compreso tra 1
+     *        e il numero di nodi del grafo (0 se il grafo è vuoto)
+     */
+    public Set<GraphEdge<L>> computeMSPOnPrimitiveArrays(Graph<L> g, int componentCount) {
+        return computeMSPOnPrimitiveArrays(g, componentCount, EdgeOrdering.FULL_SORT);
+    }
+
+    /**
+     * Come {@link #computeMSPOnPrimitiveArrays(Graph, int)}, usando la
+     * strategia di ordinamento degli archi indicata.
+     * 
+     * @param g
+     *                           un grafo non orientato, pesato, con pesi non
+     *                           negativi
+     * @param componentCount
+     *                           il numero di componenti connesse del grafo
+     * @param ordering
+     *                           la strategia di ordinamento degli archi
+     * @return l'insieme degli archi del grafo g che costituiscono la foresta
+     *         di copertura minima trovata
+     * @throw NullPointerException se il grafo g o la strategia sono null
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi, oppure se componentCount non è compreso tra 1
+     *        e il numero di nodi del grafo (0 se il grafo è vuoto)
+     */
+    public Set<GraphEdge<L>> computeMSPOnPrimitiveArrays(Graph<L> g, int componentCount,
+            EdgeOrdering ordering) {
+        validateInputGraph(g);
+        Objects.requireNonNull(ordering, "Strategia di ordinamento nulla non ammessa");
+        return constructMSTOnPrimitiveArrays(g, targetEdgeCount(g, componentCount), ordering);
     }
 
     /**
@@ -97,13 +304,14 @@ public class KruskalMSP<L> {
         weightCache.clear(); // Cancella la mappa dei pesi per evitare dati residui da precedenti calcoli.
 
         // Raccolta degli archi del grafo e validazione dei pesi.
-        for (GraphEdge<L> edge : g.getEdges()) {
+        // forEachEdge visita la rappresentazione del grafo senza creare un insieme.
+        g.forEachEdge(edge -> {
             if (!edge.hasWeight() || edge.getWeight() < 0)
                 throw new IllegalArgumentException("Archi con pesi non validi");
 
             edgesToProcess.add(edge); // Aggiunge l'arco alla lista.
             weightCache.put(edge, edge.getWeight()); // Memorizza il peso per confronto rapido.
-        }
+        });
 
         // Ordina gli archi per peso crescente utilizzando la mappa weightCache.
         edgesToProcess.sort((e1, e2) -> Double.compare(weightCache.get(e1), weightCache.get(e2)));
@@ -116,29 +324,109 @@ public class KruskalMSP<L> {
 
     /**
      * Costruisce un albero di copertura minimo (MST) utilizzando l'algoritmo di Kruskal.
+     * Gli archi rimanenti non vengono esaminati una volta accettati targetEdges archi.
      *
+     * Gli estremi degli archi ordinati sono passati a blocchi a
+     * {@code DisjointSets.unionAll}, che unisce le coppie nell'ordine dato e
+     * indica quali collegavano due insiemi distinti, cioè quali archi vanno
+     * accettati. Poiché ogni unione aggiunge al più un arco, un blocco non
+     * supera il numero di archi che mancano a completare la foresta: nessun
+     * arco successivo a quello che la completa viene cercato negli insiemi
+     * disgiunti.
+     *
+     * @param targetEdges il numero di archi dopo il quale la foresta è completa
      * @return un insieme di archi che rappresentano l'MST
      */
-    private Set<GraphEdge<L>> constructMST() {
+    private Set<GraphEdge<L>> constructMST(int targetEdges) {
         // Utilizziamo LinkedHashSet per preservare l'ordine di inserimento degli archi.
         Set<GraphEdge<L>> mst = new LinkedHashSet<>();
 
-        // Itera sugli archi ordinati per peso.
-        for (GraphEdge<L> edge : edgesToProcess) {
-            GraphNode<L> node1 = edge.getNode1();
-            GraphNode<L> node2 = edge.getNode2();
+        // Itera sui blocchi di archi ordinati per peso, fermandosi appena la foresta è completa.
+        List<GraphNode<L>> endpoints = new ArrayList<>(2 * Math.min(EDGE_BLOCK_SIZE, targetEdges));
+        int examined = 0;
+        while (examined < edgesToProcess.size() && mst.size() < targetEdges) {
+            int blockSize = Math.min(EDGE_BLOCK_SIZE, targetEdges - mst.size());
+            int end = Math.min(examined + blockSize, edgesToProcess.size());
+            endpoints.clear();
+            for (int k = examined; k < end; k++) {
+                GraphEdge<L> edge = edgesToProcess.get(k);
+                endpoints.add(edge.getNode1());
+                endpoints.add(edge.getNode2());
+            }
+
+            // Gli archi i cui estremi erano in insiemi distinti sono aggiunti all'MST.
+            BitSet merged = disjointSets.unionAll(endpoints);
+            for (int k = merged.nextSetBit(0); k >= 0; k = merged.nextSetBit(k + 1))
+                mst.add(edgesToProcess.get(examined + k));
+            examined = end;
+        }
 
-            // Trova i rappresentanti degli insiemi a cui appartengono i nodi dell'arco.
-            GraphNode<L> rep1 = disjointSets.findSet(node1);
-            GraphNode<L> rep2 = disjointSets.findSet(node2);
+        skippedEdges = edgesToProcess.size() - examined;
+        extractedEdges = examined;
+        return mst;
+    }
 
-            // Se i rappresentanti sono diversi, l'arco può essere aggiunto all'MST.
-            if (!rep1.equals(rep2)) {
-                mst.add(edge); // Aggiunge l'arco al risultato.
-                disjointSets.union(node1, node2); // Unisce i due insiemi.
+    /**
+     * Costruisce la foresta di copertura minima lavorando su array paralleli
+     * di tipi primitivi e su una union-find su interi.
+     *
+     * @param g il grafo da processare
+     * @param targetEdges il numero di archi dopo il quale la foresta è completa
+     * @param ordering la strategia di ordinamento degli archi
+     * @return un insieme di archi che rappresentano l'MST
+     * @throws IllegalArgumentException se il grafo contiene archi con pesi non validi
+     */
+    private Set<GraphEdge<L>> constructMSTOnPrimitiveArrays(Graph<L> g, int targetEdges,
+            EdgeOrdering ordering) {
+        IndexedEdgeList<L> edges = IndexedEdgeList.of(g); // Estrae indici e pesi degli archi.
+
+        // Con l'ordinamento completo gli archi sono letti in sequenza, con lo
+        // heap il minimo è estratto dalla radice solo quando serve.
+        boolean lazy = ordering == EdgeOrdering.LAZY_HEAP;
+        int[] order = lazy ? edges.heapOrder() : edges.sortedOrder();
+        int heapSize = order.length;
+
+        // Union-find su interi: ogni nodo è inizialmente un insieme singoletto.
+        IntDisjointSets sets = new IntDisjointSets(edges.indexBound);
+
+        Set<GraphEdge<L>> mst = new LinkedHashSet<>();
+        int examined = 0;
+        while (examined < order.length && mst.size() < targetEdges) {
+            int id;
+            if (lazy) {
+                id = order[0];
+                order[0] = order[--heapSize];
+                edges.siftDown(order, 0, heapSize);
             }
+            else
+                id = order[examined];
+            examined++;
+
+            // L'unione riesce solo se l'arco collega due alberi distinti.
+            if (sets.union(edges.sources[id], edges.targets[id]))
+                mst.add(edges.edge(id));
         }
 
+        skippedEdges = order.length - examined;
+        extractedEdges = examined;
         return mst;
     }
+
+    /**
+     * Calcola il numero di archi di una foresta di copertura di un grafo con
+     * il numero di componenti connesse dato.
+     *
+     * @param g il grafo da processare
+     * @param componentCount il numero di componenti connesse del grafo
+     * @return il numero di archi dopo il quale la foresta è completa
+     * @throws IllegalArgumentException se componentCount non è valido per il grafo
+     */
+    private int targetEdgeCount(Graph<L> g, int componentCount) {
+        int n = g.nodeCount();
+        if (n == 0)
+            return 0; // Un grafo vuoto ha una foresta di copertura vuota.
+        if (componentCount < 1 || componentCount > n)
+            throw new IllegalArgumentException("Numero di componenti connesse non valido: " + componentCount);
+        return n - componentCount;
+    }
 }
@@ -0,0 +1,37 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Set;
+
+/**
+ * Una classe che implementa questa interfaccia è in grado di calcolare un
+ * albero di copertura minimo (o, se il grafo non è connesso, una foresta di
+ * copertura minima) di un grafo non orientato, pesato e con pesi non negativi.
+ *
+ * Le diverse implementazioni realizzano algoritmi diversi sullo stesso input e
+ * sono quindi intercambiabili, ad esempio per confrontarne le prestazioni
+ * sullo stesso grafo. L'albero restituito non è radicato ed è rappresentato
+ * semplicemente con un sottoinsieme degli archi del grafo.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public interface MSPComputer<L> {
+
+    /**
+     * Calcola un albero di copertura minimo del grafo passato.
+     *
+     * @param g
+     *              un grafo non orientato, pesato, con pesi non negativi
+     * @return l'insieme degli archi del grafo g che costituiscono l'albero di
+     *         copertura minimo trovato
+     * @throws NullPointerException
+     *                                      se il grafo g è null
+     * @throws IllegalArgumentException
+     *                                      se il grafo g è orientato, non
+     *                                      pesato o con pesi negativi
+     */
+    Set<GraphEdge<L>> computeMSP(Graph<L> g);
+
+}
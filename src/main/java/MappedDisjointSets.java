@@ -0,0 +1,497 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Implementazione dell'interfaccia <code>DisjointSets<Long></code> i cui dati
+ * risiedono fuori dallo heap, in un file mappato in memoria: può gestire
+ * universi di miliardi di elementi, la cui presenza in memoria è lasciata
+ * alla cache delle pagine del sistema operativo.
+ *
+ * Gli elementi sono gli interi {@code long} in <code>[0, capacity - 1]</code>.
+ * Il file contiene un'intestazione, l'array dei padri ({@code long}) e quello
+ * dei ranghi ({@code byte}); poiché un singolo {@code MappedByteBuffer} non
+ * supera i 2 GB, ogni array è mappato in più segmenti di dimensione fissa.
+ * Nel file il padre di un elemento è memorizzato aumentato di uno, così un
+ * file appena creato, pieno di zeri e quindi sparso sul disco, rappresenta
+ * una struttura vuota e {@code makeSet} scrive una sola voce. La ricerca del
+ * rappresentante è iterativa e applica il dimezzamento del cammino; l'unione
+ * applica l'unione per rango e, a parità di rango, rende rappresentante la
+ * radice del secondo elemento, come {@code ForestDisjointSets}.
+ *
+ * La struttura può essere salvata con {@link #force()} o {@link #close()} e
+ * riaperta in un'esecuzione successiva con {@link #open(Path)}. Le
+ * operazioni che enumerano gli elementi ({@code getCurrentRepresentatives},
+ * {@code getCurrentElementsOfSetContaining} e {@code clear}) scandiscono
+ * l'intera capacità. La classe non è thread-safe.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ */
+public class MappedDisjointSets implements DisjointSets<Long>, AutoCloseable {
+
+    // Numero che identifica i file creati da questa classe.
+    private static final long MAGIC = 0x4D61707065644453L;
+
+    // Dimensione dell'intestazione: magic, capacità, numero di insiemi e
+    // numero di elementi presenti, allineata a 64 byte.
+    private static final int HEADER_BYTES = 64;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SET_COUNT_OFFSET = 16;
+    private static final int PRESENT_OFFSET = 24;
+
+    // Logaritmo del numero di elementi per segmento usato di default: 2^27
+    // padri occupano 1 GB.
+    private static final int DEFAULT_SEGMENT_SHIFT = 27;
+
+    private final FileChannel channel; // Canale del file mappato.
+    private final MappedByteBuffer header; // Intestazione del file.
+    private final MappedByteBuffer[] parents; // Segmenti dell'array dei padri.
+    private final MappedByteBuffer[] ranks; // Segmenti dell'array dei ranghi.
+    private final long capacity; // Numero massimo di elementi.
+    private final int segmentShift; // Logaritmo degli elementi per segmento.
+    private final long segmentMask; // Maschera della posizione nel segmento.
+
+    private long setCount; // Numero di insiemi disgiunti.
+    private long present; // Numero di elementi presenti.
+
+    private MappedDisjointSets(FileChannel channel, long capacity, int segmentShift, boolean created)
+            throws IOException {
+        this.channel = channel;
+        this.capacity = capacity;
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1L << segmentShift) - 1;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+
+        long elementsPerSegment = 1L << segmentShift;
+        int segments = (int) ((capacity + elementsPerSegment - 1) >>> segmentShift);
+        this.parents = new MappedByteBuffer[segments];
+        this.ranks = new MappedByteBuffer[segments];
+        long ranksStart = HEADER_BYTES + capacity * Long.BYTES;
+        for (int k = 0; k < segments; k++) {
+            long first = (long) k << segmentShift;
+            long length = Math.min(elementsPerSegment, capacity - first);
+            this.parents[k] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + first * Long.BYTES,
+                    length * Long.BYTES);
+            this.ranks[k] = channel.map(FileChannel.MapMode.READ_WRITE, ranksStart + first, length);
+        }
+
+        if (created) {
+            this.header.putLong(0, MAGIC);
+            this.header.putLong(CAPACITY_OFFSET, capacity);
+            writeCounts();
+        }
+        else {
+            this.setCount = this.header.getLong(SET_COUNT_OFFSET);
+            this.present = this.header.getLong(PRESENT_OFFSET);
+        }
+    }
+
+    /**
+     * Crea un nuovo file, sovrascrivendo quello eventualmente esistente, con
+     * una struttura vuota in grado di contenere gli elementi in
+     * <code>[0, capacity - 1]</code>.
+     *
+     * @param file
+     *                     il file da creare
+     * @param capacity
+     *                     il numero massimo di elementi
+     * @return la nuova struttura
+     * @throws NullPointerException
+     *                                      se il file è null
+     * @throws IllegalArgumentException
+     *                                      se la capacità è negativa
+     * @throws UncheckedIOException
+     *                                      se il file non può essere creato o
+     *                                      mappato
+     */
+    public static MappedDisjointSets create(Path file, long capacity) {
+        return create(file, capacity, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /*
+     * Come create(Path, long), con un numero di elementi per segmento pari a
+     * 2^segmentShift. Permette di verificare la suddivisione in segmenti
+     * anche con file piccoli.
+     */
+    static MappedDisjointSets create(Path file, long capacity, int segmentShift) {
+        Objects.requireNonNull(file, "Il file passato è nullo.");
+        if (capacity < 0 || capacity > (Long.MAX_VALUE - HEADER_BYTES) / (Long.BYTES + 1))
+            throw new IllegalArgumentException("Capacità non valida: " + capacity);
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new MappedDisjointSets(channel, capacity, segmentShift, true);
+        }
+        catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException("Impossibile creare il file " + file, e);
+        }
+    }
+
+    /**
+     * Riapre una struttura salvata in precedenza in un file creato con
+     * {@link #create(Path, long)}.
+     *
+     * @param file
+     *                 il file da aprire
+     * @return la struttura salvata nel file
+     * @throws NullPointerException
+     *                                      se il file è null
+     * @throws IllegalArgumentException
+     *                                      se il file non contiene una
+     *                                      struttura valida, ad esempio perché
+     *                                      l'intestazione indica una capacità
+     *                                      negativa o maggiore di quella che
+     *                                      il file può contenere
+     * @throws UncheckedIOException
+     *                                      se il file non può essere aperto o
+     *                                      mappato
+     */
+    public static MappedDisjointSets open(Path file) {
+        return open(file, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /*
+     * Come open(Path), con un numero di elementi per segmento pari a
+     * 2^segmentShift.
+     */
+    static MappedDisjointSets open(Path file, int segmentShift) {
+        Objects.requireNonNull(file, "Il file passato è nullo.");
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer header = channel.size() >= HEADER_BYTES
+                    ? channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                    : null;
+            if (header == null || header.getLong(0) != MAGIC)
+                throw new IllegalArgumentException("Il file " + file + " non contiene insiemi disgiunti.");
+            // L'intestazione può essere corrotta: la capacità e i contatori
+            // sono controllati prima di mappare gli array.
+            long capacity = header.getLong(CAPACITY_OFFSET);
+            if (capacity < 0)
+                throw new IllegalArgumentException("Il file " + file + " ha una capacità negativa: " + capacity);
+            long expectedSize;
+            try {
+                expectedSize = Math.addExact(HEADER_BYTES, Math.multiplyExact(capacity, Long.BYTES + 1));
+            }
+            catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Il file " + file + " ha una capacità non valida: " + capacity);
+            }
+            if (channel.size() < expectedSize)
+                throw new IllegalArgumentException("Il file " + file + " è troncato: contiene " + channel.size()
+                        + " byte, ne servono " + expectedSize + ".");
+            long setCount = header.getLong(SET_COUNT_OFFSET);
+            long present = header.getLong(PRESENT_OFFSET);
+            if (present < 0 || present > capacity || setCount < 0 || setCount > present)
+                throw new IllegalArgumentException("Il file " + file + " ha contatori non validi.");
+            return new MappedDisjointSets(channel, capacity, segmentShift, false);
+        }
+        catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException("Impossibile aprire il file " + file, e);
+        }
+        catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * Restituisce il numero massimo di elementi.
+     *
+     * @return la capacità della struttura
+     */
+    public long capacity() { return this.capacity; }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti.
+     *
+     * @return il numero di insiemi disgiunti
+     */
+    public long setCount() { return this.setCount; }
+
+    /**
+     * Restituisce il numero di elementi presenti.
+     *
+     * @return il numero di elementi presenti
+     */
+    public long size() { return this.present; }
+
+    /**
+     * Determina se un elemento è presente.
+     *
+     * @param e
+     *              l'elemento
+     * @return true se l'elemento è presente
+     * @throws IndexOutOfBoundsException
+     *                                       se l'elemento è fuori dalla
+     *                                       capacità
+     */
+    public boolean isPresent(long e) {
+        checkElement(e);
+        return parentOf(e) != -1;
+    }
+
+    /**
+     * Crea un nuovo insieme singoletto contenente l'elemento dato.
+     *
+     * @param e
+     *              l'elemento
+     * @throws IndexOutOfBoundsException
+     *                                       se l'elemento è fuori dalla
+     *                                       capacità
+     * @throws IllegalArgumentException
+     *                                       se l'elemento è già presente
+     */
+    public void makeSet(long e) {
+        if (isPresent(e))
+            throw new IllegalArgumentException("L'elemento" + e + " è gia presente in un insieme disgiunto.");
+        setParent(e, e);
+        setRank(e, (byte) 0);
+        this.present++;
+        this.setCount++;
+        writeCounts();
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme che contiene l'elemento
+     * dato, applicando il dimezzamento del cammino.
+     *
+     * @param e
+     *              l'elemento
+     * @return il rappresentante dell'insieme di e
+     * @throws IndexOutOfBoundsException
+     *                                       se l'elemento è fuori dalla
+     *                                       capacità
+     * @throws IllegalArgumentException
+     *                                       se l'elemento non è presente
+     */
+    public long find(long e) {
+        checkPresent(e);
+        return findRoot(e);
+    }
+
+    /**
+     * Unisce gli insiemi che contengono i due elementi dati, se sono distinti.
+     *
+     * @param e1
+     *               un elemento del primo insieme
+     * @param e2
+     *               un elemento del secondo insieme
+     * @return true se i due insiemi erano distinti e sono stati uniti
+     * @throws IndexOutOfBoundsException
+     *                                       se un elemento è fuori dalla
+     *                                       capacità
+     * @throws IllegalArgumentException
+     *                                       se un elemento non è presente
+     */
+    public boolean union(long e1, long e2) {
+        checkPresent(e1);
+        checkPresent(e2);
+        long x = findRoot(e1);
+        long y = findRoot(e2);
+        if (x == y)
+            return false;
+
+        // Unione per rango: a parità di rango diventa radice y.
+        byte rankX = rankOf(x);
+        byte rankY = rankOf(y);
+        if (rankX > rankY)
+            setParent(y, x);
+        else {
+            setParent(x, y);
+            if (rankX == rankY)
+                setRank(y, (byte) (rankY + 1));
+        }
+        this.setCount--;
+        writeCounts();
+        return true;
+    }
+
+    /**
+     * Determina se due elementi sono nello stesso insieme.
+     *
+     * @param e1
+     *               il primo elemento
+     * @param e2
+     *               il secondo elemento
+     * @return true se i due elementi hanno lo stesso rappresentante
+     * @throws IndexOutOfBoundsException
+     *                                       se un elemento è fuori dalla
+     *                                       capacità
+     * @throws IllegalArgumentException
+     *                                       se un elemento non è presente
+     */
+    public boolean connected(long e1, long e2) {
+        checkPresent(e1);
+        checkPresent(e2);
+        return findRoot(e1) == findRoot(e2);
+    }
+
+    @Override
+    public boolean isPresent(Long e) {
+        Objects.requireNonNull(e, "L'elemento passato è nullo.");
+        return e >= 0 && e < this.capacity && parentOf(e) != -1;
+    }
+
+    @Override
+    public void makeSet(Long e) {
+        makeSet(Objects.requireNonNull(e, "L'elemento passato è nullo.").longValue());
+    }
+
+    @Override
+    public Long findSet(Long e) {
+        if (!isPresent(e))
+            return null;
+        return findRoot(e);
+    }
+
+    @Override
+    public void union(Long e1, Long e2) {
+        Objects.requireNonNull(e1, "Il primo elemento passato è nullo.");
+        Objects.requireNonNull(e2, "Il secondo elemento passato è nullo.");
+        if (!isPresent(e1) || !isPresent(e2))
+            throw new IllegalArgumentException("Elementi non presenti nella struttura");
+        union(e1.longValue(), e2.longValue());
+    }
+
+    @Override
+    public Set<Long> getCurrentRepresentatives() {
+        Set<Long> representatives = new HashSet<>();
+        for (long i = 0; i < this.capacity; i++)
+            if (parentOf(i) == i)
+                representatives.add(i);
+        return representatives;
+    }
+
+    @Override
+    public Set<Long> getCurrentElementsOfSetContaining(Long e) {
+        Objects.requireNonNull(e);
+        if (!isPresent(e))
+            throw new IllegalArgumentException("Elemento non presente: " + e);
+
+        long root = findRoot(e);
+        Set<Long> elements = new HashSet<>();
+        for (long i = 0; i < this.capacity; i++)
+            if (parentOf(i) != -1 && findRoot(i) == root)
+                elements.add(i);
+        return elements;
+    }
+
+    @Override
+    public void clear() {
+        for (long i = 0; i < this.capacity; i++)
+            putParent(i, 0);
+        this.setCount = 0;
+        this.present = 0;
+        writeCounts();
+    }
+
+    /**
+     * Scrive sul file tutte le modifiche ancora in memoria.
+     *
+     * @throws UncheckedIOException
+     *                                  se la scrittura non riesce
+     */
+    public void force() {
+        this.header.force();
+        for (int k = 0; k < this.parents.length; k++) {
+            this.parents[k].force();
+            this.ranks[k].force();
+        }
+    }
+
+    /**
+     * Scrive sul file tutte le modifiche e chiude il file. La memoria
+     * mappata viene rilasciata quando i segmenti non sono più raggiungibili;
+     * dopo la chiusura la struttura non deve più essere usata.
+     *
+     * @throws UncheckedIOException
+     *                                  se la scrittura o la chiusura non
+     *                                  riesce
+     */
+    @Override
+    public void close() {
+        force();
+        try {
+            this.channel.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Impossibile chiudere il file", e);
+        }
+    }
+
+    // METODI PRIVATI
+
+    private long findRoot(long e) {
+        long parent;
+        while ((parent = parentOf(e)) != e) {
+            long grandParent = parentOf(parent);
+            // Se il padre è la radice non c'è nulla da accorciare: evitiamo
+            // una scrittura che sporcherebbe la pagina della mappatura.
+            if (grandParent != parent)
+                setParent(e, grandParent);
+            e = grandParent;
+        }
+        return e;
+    }
+
+    // Restituisce il padre dell'elemento, -1 se l'elemento non è presente.
+    private long parentOf(long e) {
+        return this.parents[(int) (e >>> this.segmentShift)].getLong((int) (e & this.segmentMask) << 3) - 1;
+    }
+
+    private void setParent(long e, long parent) {
+        putParent(e, parent + 1);
+    }
+
+    private void putParent(long e, long stored) {
+        this.parents[(int) (e >>> this.segmentShift)].putLong((int) (e & this.segmentMask) << 3, stored);
+    }
+
+    private byte rankOf(long e) {
+        return this.ranks[(int) (e >>> this.segmentShift)].get((int) (e & this.segmentMask));
+    }
+
+    private void setRank(long e, byte rank) {
+        this.ranks[(int) (e >>> this.segmentShift)].put((int) (e & this.segmentMask), rank);
+    }
+
+    private void writeCounts() {
+        this.header.putLong(SET_COUNT_OFFSET, this.setCount);
+        this.header.putLong(PRESENT_OFFSET, this.present);
+    }
+
+    private void checkElement(long e) {
+        if (e < 0 || e >= this.capacity)
+            throw new IndexOutOfBoundsException("L'indice inserito è fuori dal range.");
+    }
+
+    private void checkPresent(long e) {
+        if (!isPresent(e))
+            throw new IllegalArgumentException("Elemento non presente: " + e);
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null)
+            return;
+        try {
+            channel.close();
+        }
+        catch (IOException e) {
+            // L'errore originale è più significativo di quello di chiusura.
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Arrays;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Collezione di insiemi disgiunti di interi nell'intervallo
+ * <code>[0, size() - 1]</code> le cui modifiche possono essere annullate.
+ *
+ * Ogni creazione di un elemento e ogni unione riuscita vengono registrate in
+ * un registro delle modifiche. {@link #checkpoint()} restituisce la posizione
+ * corrente del registro e {@link #rollback(int)} annulla, dall'ultima
+ * all'indietro, tutte le modifiche successive a quella posizione, in tempo
+ * proporzionale al loro numero. In questo modo molti scenari diversi possono
+ * partire dalla stessa struttura di base senza ricostruirla ogni volta.
+ *
+ * Perché una unione possa essere annullata con una sola scrittura la
+ * ricerca del rappresentante non comprime il cammino: l'altezza degli alberi
+ * è limitata soltanto dall'unione per rango, quindi ogni ricerca costa
+ * O(log n). A parità di rango diventa rappresentante la radice del secondo
+ * elemento, come in {@code ForestDisjointSets} e {@code IntDisjointSets}.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ */
+public class RollbackDisjointSets {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Voce del registro che indica la creazione dell'ultimo elemento. Le
+    // altre voci indicano un'unione e valgono 2 * x + 1 se il rango della
+    // nuova radice è stato incrementato, 2 * x altrimenti, dove x è la radice
+    // collegata sotto l'altra.
+    private static final int MAKE_SET = -1;
+
+    private int[] parents; // Padre di ogni elemento, sé stesso per le radici.
+    private byte[] ranks; // Rango di ogni elemento, significativo per le radici.
+    private int[] sizes; // Dimensione dell'insieme di ogni radice.
+    private int size; // Numero di elementi.
+    private int setCount; // Numero di insiemi disgiunti.
+
+    private int[] log; // Registro delle modifiche.
+    private int logSize; // Numero di voci del registro.
+
+    /**
+     * Costruisce una collezione vuota di insiemi disgiunti.
+     */
+    public RollbackDisjointSets() {
+        this(0);
+    }
+
+    /**
+     * Costruisce una collezione di n insiemi singoletto, uno per ogni intero
+     * in <code>[0, n - 1]</code>. La creazione di questi elementi non viene
+     * registrata e non può essere annullata.
+     *
+     * @param n
+     *              il numero di elementi
+     * @throws IllegalArgumentException
+     *                                      se n è negativo
+     */
+    public RollbackDisjointSets(int n) {
+        if (n < 0)
+            throw new IllegalArgumentException("Numero di elementi negativo: " + n);
+        int capacity = Math.max(INITIAL_CAPACITY, n);
+        this.parents = new int[capacity];
+        this.ranks = new byte[capacity];
+        this.sizes = new int[capacity];
+        for (int i = 0; i < n; i++) {
+            this.parents[i] = i;
+            this.sizes[i] = 1;
+        }
+        this.size = n;
+        this.setCount = n;
+        this.log = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Aggiunge un nuovo elemento, in un insieme singoletto.
+     *
+     * @return l'elemento aggiunto, pari al numero di elementi precedente
+     */
+    public int makeSet() {
+        if (this.size == this.parents.length) {
+            int capacity = this.size * 2;
+            this.parents = Arrays.copyOf(this.parents, capacity);
+            this.ranks = Arrays.copyOf(this.ranks, capacity);
+            this.sizes = Arrays.copyOf(this.sizes, capacity);
+        }
+        int i = this.size++;
+        this.parents[i] = i;
+        this.ranks[i] = 0;
+        this.sizes[i] = 1;
+        this.setCount++;
+        record(MAKE_SET);
+        return i;
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme che contiene l'elemento
+     * dato. La struttura non viene modificata.
+     *
+     * @param i
+     *              l'elemento
+     * @return il rappresentante dell'insieme di i
+     * @throws IndexOutOfBoundsException
+     *                                       se i non è un elemento
+     */
+    public int find(int i) {
+        checkElement(i);
+        return findRoot(i);
+    }
+
+    /**
+     * Unisce gli insiemi che contengono i due elementi dati, se sono distinti,
+     * e registra l'unione.
+     *
+     * @param i
+     *              un elemento del primo insieme
+     * @param j
+     *              un elemento del secondo insieme
+     * @return true se i due insiemi erano distinti e sono stati uniti, false
+     *         se i e j erano già nello stesso insieme
+     * @throws IndexOutOfBoundsException
+     *                                       se i o j non è un elemento
+     */
+    public boolean union(int i, int j) {
+        checkElement(i);
+        checkElement(j);
+        int x = findRoot(i);
+        int y = findRoot(j);
+        if (x == y)
+            return false;
+
+        // Unione per rango: a parità di rango diventa radice y.
+        if (this.ranks[x] > this.ranks[y]) {
+            int tmp = x;
+            x = y;
+            y = tmp;
+        }
+        boolean rankIncreased = this.ranks[x] == this.ranks[y];
+        if (rankIncreased)
+            this.ranks[y]++;
+        this.parents[x] = y;
+        this.sizes[y] += this.sizes[x];
+        this.setCount--;
+        record(2 * x + (rankIncreased ? 1 : 0));
+        return true;
+    }
+
+    /**
+     * Determina se due elementi sono nello stesso insieme.
+     *
+     * @param i
+     *              il primo elemento
+     * @param j
+     *              il secondo elemento
+     * @return true se i e j hanno lo stesso rappresentante
+     * @throws IndexOutOfBoundsException
+     *                                       se i o j non è un elemento
+     */
+    public boolean connected(int i, int j) {
+        checkElement(i);
+        checkElement(j);
+        return findRoot(i) == findRoot(j);
+    }
+
+    /**
+     * Restituisce il numero di elementi dell'insieme che contiene l'elemento
+     * dato.
+     *
+     * @param i
+     *              l'elemento
+     * @return la dimensione dell'insieme di i
+     * @throws IndexOutOfBoundsException
+     *                                       se i non è un elemento
+     */
+    public int setSize(int i) {
+        return this.sizes[find(i)];
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti.
+     *
+     * @return il numero di insiemi disgiunti
+     */
+    public int setCount() { return this.setCount; }
+
+    /**
+     * Restituisce il numero di elementi.
+     *
+     * @return il numero di elementi
+     */
+    public int size() { return this.size; }
+
+    /**
+     * Restituisce un punto di ripristino corrispondente allo stato attuale,
+     * da passare a {@link #rollback(int)}.
+     *
+     * @return il punto di ripristino, pari al numero di modifiche registrate
+     */
+    public int checkpoint() { return this.logSize; }
+
+    /**
+     * Annulla tutte le modifiche registrate dopo il punto di ripristino dato,
+     * in tempo proporzionale al loro numero. Dopo l'operazione i punti di
+     * ripristino successivi a quello dato non sono più validi.
+     *
+     * @param checkpoint
+     *                       un punto di ripristino restituito da
+     *                       {@link #checkpoint()}
+     * @throws IllegalArgumentException
+     *                                      se il punto di ripristino non è
+     *                                      valido
+     */
+    public void rollback(int checkpoint) {
+        if (checkpoint < 0 || checkpoint > this.logSize)
+            throw new IllegalArgumentException("Punto di ripristino non valido: " + checkpoint);
+        while (this.logSize > checkpoint) {
+            int entry = this.log[--this.logSize];
+            if (entry == MAKE_SET) {
+                this.size--;
+                this.setCount--;
+                continue;
+            }
+            int x = entry >>> 1;
+            int y = this.parents[x];
+            this.parents[x] = x;
+            this.sizes[y] -= this.sizes[x];
+            if ((entry & 1) != 0)
+                this.ranks[y]--;
+            this.setCount++;
+        }
+    }
+
+    // METODI PRIVATI
+
+    private int findRoot(int i) {
+        while (this.parents[i] != i)
+            i = this.parents[i];
+        return i;
+    }
+
+    private void record(int entry) {
+        if (this.logSize == this.log.length)
+            this.log = Arrays.copyOf(this.log, this.logSize * 2);
+        this.log[this.logSize++] = entry;
+    }
+
+    private void checkElement(int i) {
+        if (i < 0 || i >= this.size)
+            throw new IndexOutOfBoundsException("L'indice inserito è fuori dal range.");
+    }
+}
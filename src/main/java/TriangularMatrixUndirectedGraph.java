@@ -0,0 +1,416 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe che implementa un grafo non orientato tramite matrice di adiacenza
+ * triangolare memorizzata in un unico array di {@code double}. Non sono
+ * accettate etichette dei nodi null e non sono accettate etichette duplicate
+ * nei nodi (che in quel caso sono lo stesso nodo).
+ *
+ * Come in {@code AdjacencyMatrixUndirectedGraph} i nodi sono indicizzati da 0
+ * a nodeCount() - 1 seguendo l'ordine del loro inserimento. Essendo la matrice
+ * simmetrica, viene memorizzato solo il triangolo inferiore, diagonale
+ * compresa per i cappi, per righe: la cella (i, j) con j <= i si trova in
+ * posizione <code>i * (i + 1) / 2 + j</code>. In questo modo l'inserimento di
+ * un nodo aggiunge una riga in fondo all'array, che cresce per raddoppio come
+ * un ArrayList, senza spostare le celle esistenti.
+ *
+ * Ogni cella contiene il peso dell'arco; {@code Double.NaN} indica l'assenza
+ * dell'arco. Gli archi non pesati, il cui peso è NaN, sono memorizzati con un
+ * NaN distinto, riconosciuto confrontando la rappresentazione in bit. Rispetto
+ * alla matrice di riferimenti ogni arco è memorizzato una volta sola e una
+ * cella vuota occupa 8 byte invece di un riferimento per ciascuna delle due
+ * metà della matrice, quindi la memoria si riduce circa della metà.
+ *
+ * La visita dei vicini del nodo u legge prima la sua riga, le celle (u, v)
+ * con v <= u, che sono contigue; le celle con v > u si trovano invece nelle
+ * righe successive, a una distanza che cresce di uno ad ogni passo, e la
+ * visita vi arriva sommando la distanza invece di ricalcolare la posizione.
+ * Memorizzando ogni arco una volta sola, solo questa prima parte della
+ * scansione può essere contigua. La rimozione di un nodo compatta l'intero
+ * array e richiede quindi tempo O(n^2).
+ *
+ * Gli oggetti GraphEdge<L> non vengono conservati ma sono creati ad ogni
+ * lettura: gli archi restituiti sono uguali (secondo equals) e hanno lo stesso
+ * peso di quelli inseriti, ma modificarne il peso con {@code setWeight} non ha
+ * effetto sul grafo. Poiché le posizioni dell'array sono int, il grafo può
+ * contenere al più {@link #MAX_NODES} nodi.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ * @param <L>
+ *                etichette dei nodi
+ */
+public class TriangularMatrixUndirectedGraph<L> extends Graph<L> {
+
+    /**
+     * Numero massimo di nodi, per cui il triangolo inferiore ha ancora meno di
+     * Integer.MAX_VALUE celle.
+     */
+    public static final int MAX_NODES = 65534;
+
+    // Assenza di un arco: il NaN canonico.
+    private static final long NO_EDGE_BITS = Double.doubleToRawLongBits(Double.NaN);
+
+    // Arco non pesato: un NaN con un payload diverso da quello canonico.
+    private static final double UNWEIGHTED = Double.longBitsToDouble(NO_EDGE_BITS | 1L);
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Insieme dei nodi e associazione di ogni nodo con il proprio indice.
+    private final Map<GraphNode<L>, Integer> nodesIndex;
+    private final Map<L, GraphNode<L>> labelToNodeMap; // Mappa inversa che associa le etichette ai nodi.
+    private final ArrayList<GraphNode<L>> indexToNode; // Nodo associato ad ogni indice.
+    private double[] cells; // Triangolo inferiore della matrice, per righe.
+    private int edgesCount; // Contatore degli archi.
+
+    /**
+     * Crea un grafo vuoto.
+     */
+    public TriangularMatrixUndirectedGraph() {
+        this.nodesIndex = new HashMap<GraphNode<L>, Integer>();
+        this.labelToNodeMap = new HashMap<L, GraphNode<L>>();
+        this.indexToNode = new ArrayList<GraphNode<L>>();
+        this.cells = new double[INITIAL_CAPACITY];
+        this.edgesCount = 0;
+    }
+
+    @Override
+    public int nodeCount() { return this.nodesIndex.size(); } // O(1)
+
+    @Override
+    public int edgeCount() { return this.edgesCount; } // O(1)
+
+    @Override
+    public void clear() {
+        this.nodesIndex.clear();
+        this.labelToNodeMap.clear();
+        this.indexToNode.clear();
+        this.cells = new double[INITIAL_CAPACITY];
+        this.edgesCount = 0;
+    }
+
+    @Override
+    public boolean isDirected() { return false; } // Grafo non orientato.
+
+    @Override
+    public Set<GraphNode<L>> getNodes() { return this.nodesIndex.keySet(); } // O(1)
+
+    @Override
+    public boolean addNode(GraphNode<L> node) {
+        Objects.requireNonNull(node, "Il nodo passato è nullo.");
+        if (this.containsNode(node))
+            return false;
+
+        int index = this.nodesIndex.size();
+        if (index == MAX_NODES)
+            throw new IllegalStateException("Raggiunto il numero massimo di nodi: " + MAX_NODES);
+
+        // La nuova riga occupa le posizioni [index * (index + 1) / 2,
+        // (index + 1) * (index + 2) / 2) e non contiene archi.
+        int from = position(0, index);
+        int to = from + index + 1;
+        if (to > this.cells.length)
+            this.cells = Arrays.copyOf(this.cells, (int) Math.min(Integer.MAX_VALUE - 8, 2L * to));
+        Arrays.fill(this.cells, from, to, Double.NaN);
+
+        this.nodesIndex.put(node, index);
+        this.indexToNode.add(node);
+        this.labelToNodeMap.put(node.getLabel(), node);
+        return true;
+    }
+
+    @Override
+    public boolean removeNode(GraphNode<L> node) {
+        Objects.requireNonNull(node, "Il nodo passato è nullo.");
+        Integer nodeIndex = this.nodesIndex.get(node);
+        if (nodeIndex == null)
+            return false;
+
+        int n = nodeCount();
+        int removed = nodeIndex;
+        for (int i = 0, p = position(0, removed); i < n; p = nextInRow(p, removed, i++))
+            if (isEdge(this.cells[p]))
+                this.edgesCount--;
+
+        // Compattiamo il triangolo saltando la riga e la colonna del nodo. Le
+        // celle vengono visitate nell'ordine in cui sono memorizzate e ognuna
+        // si sposta verso sinistra, quindi la copia può avvenire sul posto.
+        int write = 0;
+        for (int j = 0; j < n; j++) {
+            if (j == removed)
+                continue;
+            int row = position(0, j);
+            for (int i = 0; i <= j; i++)
+                if (i != removed)
+                    this.cells[write++] = this.cells[row + i];
+        }
+
+        for (Map.Entry<GraphNode<L>, Integer> entry : this.nodesIndex.entrySet())
+            if (entry.getValue() > removed)
+                entry.setValue(entry.getValue() - 1);
+        this.labelToNodeMap.remove(node.getLabel());
+        this.indexToNode.remove(removed);
+        this.nodesIndex.remove(node);
+        return true;
+    }
+
+    @Override
+    public boolean containsNode(GraphNode<L> node) {
+        Objects.requireNonNull(node, "Il nodo passato è nullo.");
+        return this.nodesIndex.containsKey(node);
+    }
+
+    @Override
+    public GraphNode<L> getNodeOf(L label) {
+        Objects.requireNonNull(label, "L'etichetta passata è nulla.");
+        return this.labelToNodeMap.get(label);
+    }
+
+    @Override
+    public int getNodeIndexOf(L label) {
+        GraphNode<L> graphNode = this.getNodeOf(label);
+        if (graphNode == null)
+            throw new IllegalArgumentException("Nessun nodo associato a questa etichetta presente nel grafo.");
+        return this.nodesIndex.get(graphNode);
+    }
+
+    @Override
+    public GraphNode<L> getNodeAtIndex(int i) {
+        if (i < 0 || i >= nodeCount())
+            throw new IndexOutOfBoundsException("L'indice inserito è fuori dal range.");
+        return this.indexToNode.get(i);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+        int u = checkAndGetIndex(node);
+        Set<GraphNode<L>> adjacentNodes = new HashSet<>();
+        for (int v = 0, p = position(0, u); v < nodeCount(); p = nextInRow(p, u, v++))
+            if (isEdge(this.cells[p]))
+                adjacentNodes.add(this.indexToNode.get(v));
+        return adjacentNodes;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdges() {
+        Set<GraphEdge<L>> allEdges = new HashSet<>((this.edgesCount * 4) / 3 + 1);
+        int n = nodeCount();
+        // Scansione sequenziale dell'array, riga per riga.
+        for (int j = 0, p = 0; j < n; j++)
+            for (int i = 0; i <= j; i++, p++)
+                if (isEdge(this.cells[p]))
+                    allEdges.add(edgeAt(i, j, this.cells[p]));
+        return allEdges;
+    }
+
+    @Override
+    public boolean addEdge(GraphEdge<L> edge) {
+        Objects.requireNonNull(edge, "L'arco passato è nullo.");
+        int index1 = checkAndGetIndex(edge.getNode1());
+        int index2 = checkAndGetIndex(edge.getNode2());
+
+        if (edge.isDirected())
+            throw new IllegalArgumentException("Gli archi orientati non sono supportati in questo grafo.");
+
+        int p = position(index1, index2);
+        if (isEdge(this.cells[p]))
+            return false;
+        this.cells[p] = edge.hasWeight() ? edge.getWeight() : UNWEIGHTED;
+        this.edgesCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeEdge(GraphEdge<L> edge) {
+        Objects.requireNonNull(edge, "L'arco passato è nullo.");
+
+        if (edge.isDirected())
+            throw new IllegalArgumentException("Gli archi orientati non sono supportati in questo grafo.");
+
+        int p = position(checkAndGetIndex(edge.getNode1()), checkAndGetIndex(edge.getNode2()));
+        if (!isEdge(this.cells[p]))
+            return false;
+        this.cells[p] = Double.NaN;
+        this.edgesCount--;
+        return true;
+    }
+
+    @Override
+    public boolean containsEdge(GraphEdge<L> edge) {
+        Objects.requireNonNull(edge, "L'arco passato è nullo.");
+
+        if (edge.isDirected())
+            throw new IllegalArgumentException("Gli archi orientati non sono supportati in questo grafo.");
+
+        return isEdge(this.cells[position(checkAndGetIndex(edge.getNode1()), checkAndGetIndex(edge.getNode2()))]);
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+        int u = checkAndGetIndex(node);
+        Set<GraphEdge<L>> edges = new HashSet<GraphEdge<L>>();
+        for (int v = 0, p = position(0, u); v < nodeCount(); p = nextInRow(p, u, v++)) {
+            double cell = this.cells[p];
+            if (isEdge(cell))
+                edges.add(edgeAt(u, v, cell));
+        }
+        return edges;
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public void forEachEdge(Consumer<? super GraphEdge<L>> action) {
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        // Stessa visita di getEdges(), senza creare l'insieme.
+        int n = nodeCount();
+        for (int j = 0, p = 0; j < n; j++)
+            for (int i = 0; i <= j; i++, p++)
+                if (isEdge(this.cells[p]))
+                    action.accept(edgeAt(i, j, this.cells[p]));
+    }
+
+    @Override
+    public void forEachEdgeOf(GraphNode<L> node, Consumer<? super GraphEdge<L>> action) {
+        int u = checkAndGetIndex(node);
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        for (int v = 0, p = position(0, u); v < nodeCount(); p = nextInRow(p, u, v++)) {
+            double cell = this.cells[p];
+            if (isEdge(cell))
+                action.accept(edgeAt(u, v, cell));
+        }
+    }
+
+    @Override
+    public void forEachNeighbour(GraphNode<L> node, Consumer<? super GraphNode<L>> action) {
+        int u = checkAndGetIndex(node);
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        for (int v = 0, p = position(0, u); v < nodeCount(); p = nextInRow(p, u, v++))
+            if (isEdge(this.cells[p]))
+                action.accept(this.indexToNode.get(v));
+    }
+
+    @Override
+    public void forEachNeighbourIndex(int i, IntConsumer action) {
+        checkIndex(i);
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        for (int v = 0, p = position(0, i); v < nodeCount(); p = nextInRow(p, i, v++))
+            if (isEdge(this.cells[p]))
+                action.accept(v);
+    }
+
+    @Override
+    public int getDegreeAt(int i) {
+        checkIndex(i);
+        int degree = 0;
+        for (int v = 0, p = position(0, i); v < nodeCount(); p = nextInRow(p, i, v++))
+            if (isEdge(this.cells[p]))
+                degree++;
+        return degree;
+    }
+
+    @Override
+    public GraphEdge<L> getEdgeAt(int i, int j) {
+        double cell = this.cells[position(checkIndex(i), checkIndex(j))];
+        return isEdge(cell) ? edgeAt(i, j, cell) : null;
+    }
+
+    @Override
+    public boolean containsEdgeAt(int i, int j) {
+        return isEdge(this.cells[position(checkIndex(i), checkIndex(j))]);
+    }
+
+    @Override
+    public double getEdgeWeightAt(int i, int j) {
+        // Sia l'assenza dell'arco sia l'arco non pesato sono NaN.
+        double cell = this.cells[position(checkIndex(i), checkIndex(j))];
+        return Double.isNaN(cell) ? Double.NaN : cell;
+    }
+
+    @Override
+    public void forEachEdgeIndex(EdgeIndexConsumer action) {
+        Objects.requireNonNull(action, "L'azione passata è nulla.");
+        // Stesso ordine di forEachEdge: l'array viene letto in sequenza.
+        int n = nodeCount();
+        for (int j = 0, p = 0; j < n; j++)
+            for (int i = 0; i <= j; i++, p++)
+                if (isEdge(this.cells[p]))
+                    action.accept(i, j, Double.isNaN(this.cells[p]) ? Double.NaN : this.cells[p]);
+    }
+
+    // METODI PRIVATI
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= nodeCount())
+            throw new IndexOutOfBoundsException("L'indice inserito è fuori dal range.");
+        return i;
+    }
+
+    private int checkAndGetIndex(GraphNode<L> node) {
+        Objects.requireNonNull(node, "Il nodo passato è nullo.");
+        Integer index = this.nodesIndex.get(node);
+        if (index == null)
+            throw new IllegalArgumentException("Il nodo " + node + " non esiste nel grafo.");
+        return index;
+    }
+
+    /*
+     * Posizione nell'array della cella (i, j), simmetrica. Il prodotto
+     * j * (j + 1) può superare Integer.MAX_VALUE ma resta sotto 2^32, quindi
+     * lo scorrimento senza segno restituisce la metà corretta.
+     */
+    private static int position(int i, int j) {
+        return i <= j ? ((j * (j + 1)) >>> 1) + i : ((i * (i + 1)) >>> 1) + j;
+    }
+
+    /*
+     * Posizione della cella (u, v + 1) a partire da quella della cella (u, v):
+     * fino alla diagonale le celle della riga di u sono contigue, oltre la
+     * diagonale la cella successiva è nella riga v + 1, a distanza v + 1.
+     */
+    private static int nextInRow(int p, int u, int v) {
+        return p + (v < u ? 1 : v + 1);
+    }
+
+    /*
+     * Una cella contiene un arco se non è il NaN canonico: i pesi veri non
+     * sono NaN e gli archi non pesati usano un NaN diverso.
+     */
+    private static boolean isEdge(double cell) {
+        return Double.doubleToRawLongBits(cell) != NO_EDGE_BITS;
+    }
+
+    /*
+     * Crea l'arco tra i nodi di indice i e j a partire dal contenuto della
+     * cella.
+     */
+    private GraphEdge<L> edgeAt(int i, int j, double cell) {
+        GraphNode<L> node1 = this.indexToNode.get(i);
+        GraphNode<L> node2 = this.indexToNode.get(j);
+        if (Double.isNaN(cell))
+            return new GraphEdge<L>(node1, node2, false);
+        return new GraphEdge<L>(node1, node2, false, cell);
+    }
+}
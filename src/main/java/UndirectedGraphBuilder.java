@@ -0,0 +1,226 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Costruttore di grafi non orientati che raccoglie nodi e archi e crea il
+ * grafo finale in un'unica passata.
+ *
+ * Caricare n nodi in un {@code AdjacencyMatrixUndirectedGraph} con
+ * {@code addNode} aggiunge ogni volta una colonna a tutte le righe esistenti,
+ * con continue riallocazioni degli ArrayList. Il builder invece conserva i
+ * nodi e gli archi in liste dimensionate sulle quantità attese e, alla
+ * chiamata di uno dei metodi {@code build}, alloca ogni struttura del grafo
+ * una sola volta con la sua dimensione finale. Il grafo restituito è un
+ * normale {@code Graph<L>}, che può essere poi modificato come di consueto.
+ *
+ * I nodi ripetuti vengono aggiunti una volta sola; la validità degli archi,
+ * cioè che siano non orientati e che i loro estremi siano tra i nodi, viene
+ * verificata alla costruzione del grafo, così nodi e archi possono essere
+ * aggiunti in qualsiasi ordine. Se più archi collegano gli stessi nodi viene
+ * mantenuto il primo aggiunto.
+ *
+ * @author Riccardo Catervi - riccardo.catervi@studenti.unicam.it
+ *
+ * @param <L>
+ *                etichette dei nodi
+ */
+public class UndirectedGraphBuilder<L> {
+
+    private final List<GraphNode<L>> nodes; // Nodi distinti, nell'ordine di inserimento.
+    private final Set<GraphNode<L>> seenNodes; // Per scartare i nodi ripetuti.
+    private final List<GraphEdge<L>> edges; // Archi, nell'ordine di inserimento.
+
+    // Modalità di cancellazione dei nodi dei grafi con matrice di adiacenza.
+    private AdjacencyMatrixUndirectedGraph.RemovalMode removalMode;
+
+    /**
+     * Crea un builder vuoto.
+     */
+    public UndirectedGraphBuilder() {
+        this(0, 0);
+    }
+
+    /**
+     * Crea un builder vuoto dimensionato per il numero atteso di nodi e di
+     * archi. Le quantità sono solo indicative: il builder accetta comunque
+     * qualsiasi numero di nodi e archi.
+     *
+     * @param expectedNodes
+     *                          il numero atteso di nodi
+     * @param expectedEdges
+     *                          il numero atteso di archi
+     * @throws IllegalArgumentException
+     *                                      se una delle quantità è negativa
+     */
+    public UndirectedGraphBuilder(int expectedNodes, int expectedEdges) {
+        if (expectedNodes < 0 || expectedEdges < 0)
+            throw new IllegalArgumentException("Quantità attese negative: " + expectedNodes + ", " + expectedEdges);
+        this.nodes = new ArrayList<GraphNode<L>>(expectedNodes);
+        this.seenNodes = new HashSet<GraphNode<L>>((expectedNodes * 4) / 3 + 1);
+        this.edges = new ArrayList<GraphEdge<L>>(expectedEdges);
+        this.removalMode = AdjacencyMatrixUndirectedGraph.RemovalMode.SHIFT;
+    }
+
+    /**
+     * Aggiunge un nodo, se non è già presente.
+     *
+     * @param node
+     *                 il nodo da aggiungere
+     * @return questo builder
+     * @throws NullPointerException
+     *                                  se il nodo è null
+     */
+    public UndirectedGraphBuilder<L> addNode(GraphNode<L> node) {
+        Objects.requireNonNull(node, "Il nodo passato è nullo.");
+        if (this.seenNodes.add(node))
+            this.nodes.add(node);
+        return this;
+    }
+
+    /**
+     * Aggiunge tutti i nodi di una collezione, nel suo ordine di iterazione.
+     *
+     * @param nodes
+     *                  i nodi da aggiungere
+     * @return questo builder
+     * @throws NullPointerException
+     *                                  se la collezione o uno dei nodi è null
+     */
+    public UndirectedGraphBuilder<L> addNodes(Collection<? extends GraphNode<L>> nodes) {
+        Objects.requireNonNull(nodes, "La collezione dei nodi è nulla.");
+        for (GraphNode<L> node : nodes)
+            addNode(node);
+        return this;
+    }
+
+    /**
+     * Aggiunge tutti i nodi di un array, nel suo ordine.
+     *
+     * @param nodes
+     *                  i nodi da aggiungere
+     * @return questo builder
+     * @throws NullPointerException
+     *                                  se l'array o uno dei nodi è null
+     */
+    @SafeVarargs
+    public final UndirectedGraphBuilder<L> addNodes(GraphNode<L>... nodes) {
+        Objects.requireNonNull(nodes, "L'array dei nodi è nullo.");
+        for (GraphNode<L> node : nodes)
+            addNode(node);
+        return this;
+    }
+
+    /**
+     * Aggiunge un arco.
+     *
+     * @param edge
+     *                 l'arco da aggiungere
+     * @return questo builder
+     * @throws NullPointerException
+     *                                  se l'arco è null
+     */
+    public UndirectedGraphBuilder<L> addEdge(GraphEdge<L> edge) {
+        this.edges.add(Objects.requireNonNull(edge, "L'arco passato è nullo."));
+        return this;
+    }
+
+    /**
+     * Aggiunge tutti gli archi di una collezione.
+     *
+     * @param edges
+     *                  gli archi da aggiungere
+     * @return questo builder
+     * @throws NullPointerException
+     *                                  se la collezione o uno degli archi è
+     *                                  null
+     */
+    public UndirectedGraphBuilder<L> addEdges(Collection<? extends GraphEdge<L>> edges) {
+        Objects.requireNonNull(edges, "La collezione degli archi è nulla.");
+        for (GraphEdge<L> edge : edges)
+            addEdge(edge);
+        return this;
+    }
+
+    /**
+     * Aggiunge tutti gli archi di un array.
+     *
+     * @param edges
+     *                  gli archi da aggiungere
+     * @return questo builder
+     * @throws NullPointerException
+     *                                  se l'array o uno degli archi è null
+     */
+    @SafeVarargs
+    public final UndirectedGraphBuilder<L> addEdges(GraphEdge<L>... edges) {
+        Objects.requireNonNull(edges, "L'array degli archi è nullo.");
+        for (GraphEdge<L> edge : edges)
+            addEdge(edge);
+        return this;
+    }
+
+    /**
+     * Imposta la modalità di cancellazione dei nodi dei grafi creati da
+     * {@link #buildAdjacencyMatrix()}.
+     *
+     * @param removalMode
+     *                        la modalità di cancellazione dei nodi
+     * @return questo builder
+     * @throws NullPointerException
+     *                                  se la modalità è null
+     */
+    public UndirectedGraphBuilder<L> removalMode(AdjacencyMatrixUndirectedGraph.RemovalMode removalMode) {
+        this.removalMode = Objects.requireNonNull(removalMode, "La modalità di cancellazione è nulla.");
+        return this;
+    }
+
+    /**
+     * Restituisce il numero di nodi distinti aggiunti.
+     *
+     * @return il numero di nodi
+     */
+    public int nodeCount() { return this.nodes.size(); }
+
+    /**
+     * Restituisce il numero di archi aggiunti, compresi eventuali archi che
+     * collegano gli stessi nodi.
+     *
+     * @return il numero di archi
+     */
+    public int edgeCount() { return this.edges.size(); }
+
+    /**
+     * Crea un grafo con matrice di adiacenza contenente i nodi e gli archi
+     * aggiunti. I nodi ricevono gli indici nell'ordine in cui sono stati
+     * aggiunti. Il builder può essere riutilizzato.
+     *
+     * @return un nuovo grafo con matrice di adiacenza
+     * @throws IllegalArgumentException
+     *                                      se un arco è orientato o ha un
+     *                                      estremo che non è tra i nodi
+     */
+    public AdjacencyMatrixUndirectedGraph<L> buildAdjacencyMatrix() {
+        return new AdjacencyMatrixUndirectedGraph<L>(this.nodes, this.edges, this.removalMode);
+    }
+
+    /**
+     * Crea un grafo immutabile in formato Compressed Sparse Row contenente i
+     * nodi e gli archi aggiunti. I nodi ricevono gli indici nell'ordine in cui
+     * sono stati aggiunti. Il builder può essere riutilizzato.
+     *
+     * @return un nuovo grafo in formato CSR
+     * @throws IllegalArgumentException
+     *                                      se un arco è orientato o ha un
+     *                                      estremo che non è tra i nodi
+     */
+    public CompressedSparseRowUndirectedGraph<L> buildCompressedSparseRow() {
+        return new CompressedSparseRowUndirectedGraph<L>(this.nodes, this.edges);
+    }
+}
@@ -1,17 +1,43 @@
 package it.unicam.cs.asdl2425.mp2;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 //ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
 
 /**
  * Classe singoletto che realizza un calcolatore delle componenti connesse di un
  * grafo non orientato utilizzando una struttura dati efficiente (fornita dalla
- * classe {@ForestDisjointSets<GraphNode<L>>}) per gestire insiemi disgiunti di
- * nodi del grafo che sono, alla fine del calcolo, le componenti connesse.
+ * classe {@code IntDisjointSets}) per gestire insiemi disgiunti di nodi del
+ * grafo che sono, alla fine del calcolo, le componenti connesse.
+ *
+ * Gli insiemi disgiunti sono costruiti sugli indici dei nodi del grafo e gli
+ * archi sono visitati con {@code forEachEdgeIndex}: durante le unioni non
+ * vengono calcolati hash dei nodi né creati oggetti. Se il grafo non supporta
+ * le operazioni sugli indici, i nodi sono numerati nell'ordine di
+ * {@code getNodes} e gli archi visitati con {@code forEachEdge}. Gli estremi degli archi
+ * sono raccolti in blocchi passati a {@code IntDisjointSets.unionAll}, e i
+ * rappresentanti di tutti i nodi sono cercati con un'unica chiamata a
+ * {@code IntDisjointSets.findAll}.
+ *
+ * {@link #computeConnectedComponentsInParallel(Graph)} calcola le stesse
+ * componenti sul fork-join pool con la strategia Afforest, su un
+ * {@code ConcurrentDisjointSets}. Prima ogni nodo viene unito, in parallelo,
+ * ai suoi primi vicini: già pochi vicini per nodo bastano a formare quasi
+ * per intero la componente più grande, se ne esiste una che contiene gran
+ * parte dei nodi. Questa componente viene individuata da un campione
+ * casuale di nodi; infine solo i nodi che non vi appartengono uniscono i
+ * vicini rimanenti. Gli archi con entrambi gli estremi nella componente più
+ * grande non vengono quindi esaminati dalla union-find: ogni arco non
+ * esaminato ha gli estremi già connessi, perché ciascuno dei due era nella
+ * componente più grande quando è stato controllato.
  * 
  * @author Luca Tesei (template)
  *         Riccardo Catervi - riccardo.catervi@studenti.unicam.it (implementazione)
@@ -21,16 +47,51 @@ import java.util.Set;
  */
 public class UndirectedGraphConnectedComponentsComputer<L> {
 
+    // Numero di archi passati insieme a IntDisjointSets.unionAll.
+    private static final int EDGE_BLOCK_SIZE = 1024;
+
+    // Numero di vicini di ogni nodo uniti prima di cercare la componente più
+    // grande.
+    private static final int NEIGHBOUR_ROUNDS = 2;
+
+    // Numero di nodi estratti per individuare la componente più grande.
+    private static final int SAMPLE_SIZE = 1024;
+
+    // Sotto questo numero di nodi una fase viene eseguita sequenzialmente,
+    // perché il costo di suddividere il lavoro supererebbe il guadagno.
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    // Pool su cui eseguire il calcolo parallelo, null per il pool comune.
+    private final ForkJoinPool pool;
+
     /*
-     * Struttura dati per gli insiemi disgiunti.
+     * Struttura dati per gli insiemi disgiunti degli indici dei nodi.
      */
-    private ForestDisjointSets<GraphNode<L>> f;
+    private IntDisjointSets f;
 
     /**
      * Crea un calcolatore di componenti connesse.
      */
     public UndirectedGraphConnectedComponentsComputer() {
-        this.f = new ForestDisjointSets<GraphNode<L>>();
+        this.f = new IntDisjointSets();
+        this.pool = null;
+    }
+
+    /**
+     * Crea un calcolatore di componenti connesse che esegue il calcolo
+     * parallelo sul fork-join pool specificato, ad esempio per limitare il
+     * numero di thread utilizzati.
+     *
+     * @param pool
+     *                 il pool su cui eseguire il calcolo parallelo
+     * @throws NullPointerException
+     *                                  se il pool passato è null
+     */
+    public UndirectedGraphConnectedComponentsComputer(ForkJoinPool pool) {
+        if (pool == null)
+            throw new NullPointerException("Pool nullo non ammesso");
+        this.f = new IntDisjointSets();
+        this.pool = pool;
     }
 
     /**
@@ -58,29 +119,185 @@ public class UndirectedGraphConnectedComponentsComputer<L> {
         if (g.nodeCount() == 0)
             return new HashSet<>();
 
-        // Reinizializza la struttura dati
-        f = new ForestDisjointSets<>();
+        // Reinizializza la struttura dati: fase 1, un insieme per ogni indice.
+        // Se il grafo non supporta le operazioni sugli indici, i nodi sono
+        // numerati nell'ordine di getNodes come in IndexedEdgeList.
+        List<GraphNode<L>> nodes = new ArrayList<>(g.getNodes());
+        boolean indexed = IndexedEdgeList.supportsIndexes(g);
+        f = new IntDisjointSets(indexed ? g.getIndexBound() : nodes.size());
+
+        // Fase 2: unisce gli indici dei nodi collegati da archi, visitati con
+        // forEachEdgeIndex senza creare oggetti arco e raccolti in blocchi
+        EdgeBlock block = new EdgeBlock(f);
+        int[] representatives;
+        if (indexed) {
+            g.forEachEdgeIndex(block);
+            representatives = indexesOf(g, nodes);
+        }
+        else {
+            Map<GraphNode<L>, Integer> positions = new HashMap<>();
+            representatives = new int[nodes.size()];
+            for (int k = 0; k < nodes.size(); k++) {
+                positions.put(nodes.get(k), k);
+                representatives[k] = k;
+            }
+            g.forEachEdge(edge -> block.accept(positions.get(edge.getNode1()), positions.get(edge.getNode2()),
+                    edge.getWeight()));
+        }
+        block.flush();
+
+        // Fase 3: cerca con un'unica chiamata i rappresentanti di tutti i
+        // nodi e costruisce l'insieme delle componenti connesse
+        f.findAll(representatives, representatives);
+        return group(nodes, representatives);
+    }
+
+    /**
+     * Calcola le stesse componenti connesse di
+     * {@link #computeConnectedComponents(Graph)} in parallelo, sul fork-join
+     * pool del calcolatore, con la strategia Afforest descritta nella
+     * documentazione della classe. Il grafo non deve essere modificato
+     * durante il calcolo. La strategia Afforest visita i vicini sugli indici
+     * dei nodi: se il grafo non supporta le operazioni sugli indici, le
+     * componenti sono calcolate sequenzialmente da
+     * {@link #computeConnectedComponents(Graph)}.
+     * 
+     * @param g
+     *              un grafo non orientato
+     * @return un insieme di componenti connesse, ognuna rappresentata da un
+     *         insieme di nodi del grafo
+     * @throws NullPointerException
+     *                                      se il grafo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato è orientato
+     */
+    public Set<Set<GraphNode<L>>> computeConnectedComponentsInParallel(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Il grafo passato è nullo");
+
+        if (g.isDirected())
+            throw new IllegalArgumentException("Il grafo passato è orientato");
+
+        if (g.nodeCount() == 0)
+            return new HashSet<>();
 
-        // Fase 1: crea un insieme per ogni nodo
-        for (GraphNode<L> node : g.getNodes())
-            f.makeSet(node);
+        if (!IndexedEdgeList.supportsIndexes(g))
+            return computeConnectedComponents(g);
 
-        // Fase 2: unisce i nodi collegati da archi
-        for (GraphEdge<L> edge : g.getEdges()) {
-            GraphNode<L> node1 = edge.getNode1();
-            GraphNode<L> node2 = edge.getNode2();
-            // Se i nodi appartengono a insiemi diversi, li unisce.
-            if (!f.findSet(node1).equals(f.findSet(node2)))
-                f.union(node1, node2);
+        List<GraphNode<L>> nodes = new ArrayList<>(g.getNodes());
+        int[] indexes = indexesOf(g, nodes);
+        int[] representatives;
+        if (pool == null)
+            representatives = afforest(g, indexes);
+        else
+            representatives = pool.submit(() -> afforest(g, indexes)).join(); // Gli stream paralleli usano il pool che li esegue.
+        return group(nodes, representatives);
+    }
+
+    // METODI PRIVATI
+
+    /**
+     * Esegue le fasi della strategia Afforest sugli indici dei nodi.
+     *
+     * @param g il grafo
+     * @param indexes gli indici dei nodi del grafo
+     * @return il rappresentante della componente di ogni indice, nello stesso ordine
+     */
+    private static int[] afforest(Graph<?> g, int[] indexes) {
+        ConcurrentDisjointSets<Integer> sets = ConcurrentDisjointSets.ofSize(g.getIndexBound());
+
+        // Fase 1: ogni nodo viene unito ai suoi primi vicini, un vicino per
+        // nodo alla volta, senza visitare le liste di adiacenza complete.
+        for (int r = 0; r < NEIGHBOUR_ROUNDS; r++) {
+            final int round = r;
+            range(indexes.length).forEach(k -> {
+                int v = indexes[k];
+                if (g.getDegreeAt(v) > round)
+                    sets.union(v, g.getNeighbourIndexAt(v, round));
+            });
+        }
+
+        // Fase 2: la componente più frequente in un campione di nodi è con
+        // buona probabilità la più grande.
+        int giant = mostFrequentRoot(sets, indexes);
+
+        // Fase 3: i nodi fuori dalla componente più grande uniscono i vicini
+        // rimanenti; per gli altri gli archi sono esaminati dall'estremo
+        // esterno, se esiste.
+        range(indexes.length).forEach(k -> {
+            int v = indexes[k];
+            if (sets.connected(v, giant))
+                return;
+            int[] position = { 0 };
+            g.forEachNeighbourIndex(v, u -> {
+                if (position[0]++ >= NEIGHBOUR_ROUNDS)
+                    sets.union(v, u);
+            });
+        });
+
+        int[] representatives = new int[indexes.length];
+        range(indexes.length).forEach(k -> representatives[k] = sets.find(indexes[k]));
+        return representatives;
+    }
+
+    /**
+     * Restituisce il rappresentante più frequente in un campione casuale, con
+     * seme fisso, dei nodi.
+     *
+     * @param sets gli insiemi disgiunti degli indici
+     * @param indexes gli indici dei nodi del grafo
+     * @return il rappresentante della componente più frequente nel campione
+     */
+    private static int mostFrequentRoot(ConcurrentDisjointSets<Integer> sets, int[] indexes) {
+        Random random = new Random(indexes.length);
+        Map<Integer, Integer> counts = new HashMap<>();
+        int giant = indexes[0];
+        int best = 0;
+        for (int s = 0; s < SAMPLE_SIZE; s++) {
+            int root = sets.find(indexes[random.nextInt(indexes.length)]);
+            int count = counts.merge(root, 1, Integer::sum);
+            if (count > best) {
+                best = count;
+                giant = root;
+            }
         }
+        return giant;
+    }
+
+    /**
+     * Restituisce lo stream degli interi in <code>[0, size)</code>, parallelo
+     * solo se il lavoro è sufficiente a giustificarlo.
+     */
+    private static IntStream range(int size) {
+        IntStream stream = IntStream.range(0, size);
+        return size >= PARALLEL_THRESHOLD ? stream.parallel() : stream;
+    }
 
-        // Fase 3: costruisce l'insieme delle componenti connesse
-        Map<GraphNode<L>, Set<GraphNode<L>>> components = new HashMap<>();
+    /**
+     * Restituisce gli indici dei nodi dati, nello stesso ordine.
+     */
+    private static <L> int[] indexesOf(Graph<L> g, List<GraphNode<L>> nodes) {
+        int[] indexes = new int[nodes.size()];
+        for (int k = 0; k < nodes.size(); k++)
+            indexes[k] = g.getNodeIndexOf(nodes.get(k).getLabel());
+        return indexes;
+    }
+
+    /**
+     * Raggruppa i nodi per rappresentante della loro componente.
+     *
+     * @param nodes i nodi del grafo
+     * @param representatives il rappresentante della componente di ogni nodo, nello stesso ordine
+     * @return l'insieme delle componenti connesse
+     */
+    private static <L> Set<Set<GraphNode<L>>> group(List<GraphNode<L>> nodes, int[] representatives) {
+        Map<Integer, Set<GraphNode<L>>> components = new HashMap<>();
 
         // Per ogni nodo, aggiunge il nodo all'insieme della sua componente
-        for (GraphNode<L> node : g.getNodes()) {
-            // Trova il rappresentante della componente
-            GraphNode<L> representative = f.findSet(node);
+        for (int k = 0; k < nodes.size(); k++) {
+            GraphNode<L> node = nodes.get(k);
+            // Rappresentante della componente
+            int representative = representatives[k];
 
             // Se la componente non esiste, viene creata
             if (!components.containsKey(representative))
@@ -92,4 +309,32 @@ public class UndirectedGraphConnectedComponentsComputer<L> {
 
         return new HashSet<>(components.values());
     }
+
+    /*
+     * Raccoglie gli estremi degli archi visitati e li passa a blocchi alla
+     * struttura degli insiemi disgiunti.
+     */
+    private static final class EdgeBlock implements Graph.EdgeIndexConsumer {
+
+        private final IntDisjointSets sets;
+        private final int[] pairs = new int[2 * EDGE_BLOCK_SIZE];
+        private int length;
+
+        EdgeBlock(IntDisjointSets sets) {
+            this.sets = sets;
+        }
+
+        @Override
+        public void accept(int i, int j, double weight) {
+            this.pairs[this.length++] = i;
+            this.pairs[this.length++] = j;
+            if (this.length == this.pairs.length)
+                flush();
+        }
+
+        void flush() {
+            this.sets.unionAll(this.pairs, 0, this.length);
+            this.length = 0;
+        }
+    }
 }
@@ -3,7 +3,9 @@ package it.unicam.cs.asdl2425.mp2;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -484,6 +486,91 @@ class AdjacencyMatrixUndirectedGraphTest {
         }
     }
 
+    @Test
+    void testRemoveNodeSwapWithLast() {
+        AdjacencyMatrixUndirectedGraph<String> graph = new AdjacencyMatrixUndirectedGraph<>(
+                AdjacencyMatrixUndirectedGraph.RemovalMode.SWAP_WITH_LAST);
+        GraphNode<String> nodeA = new GraphNode<>("A");
+        GraphNode<String> nodeB = new GraphNode<>("B");
+        GraphNode<String> nodeC = new GraphNode<>("C");
+        GraphNode<String> nodeD = new GraphNode<>("D");
+        graph.addNode(nodeA);
+        graph.addNode(nodeB);
+        graph.addNode(nodeC);
+        graph.addNode(nodeD);
+        GraphEdge<String> edgeAD = new GraphEdge<>(nodeA, nodeD, false, 1);
+        GraphEdge<String> edgeCD = new GraphEdge<>(nodeC, nodeD, false, 2);
+        GraphEdge<String> edgeDD = new GraphEdge<>(nodeD, nodeD, false, 3);
+        graph.addEdge(edgeAD);
+        graph.addEdge(edgeCD);
+        graph.addEdge(edgeDD);
+        graph.addEdge(new GraphEdge<>(nodeB, nodeD, false, 4));
+        graph.addEdge(new GraphEdge<>(nodeA, nodeB, false, 5));
+
+        // Rimuovi il nodo "B": "D" prende il suo indice
+        assertTrue(graph.removeNode(nodeB));
+        assertEquals(3, graph.nodeCount());
+        assertEquals(3, graph.edgeCount());
+        assertEquals(0, graph.getNodeIndexOf("A"));
+        assertEquals(1, graph.getNodeIndexOf("D"));
+        assertEquals(2, graph.getNodeIndexOf("C"));
+        assertEquals(nodeD, graph.getNodeAtIndex(1));
+        assertTrue(graph.containsEdge(edgeDD));
+        assertEquals(new HashSet<>(Arrays.asList(edgeAD, edgeCD, edgeDD)), graph.getEdgesOf(nodeD));
+        assertEquals(new HashSet<>(Arrays.asList(edgeAD)), graph.getEdgesOf(nodeA));
+        int size = graph.matrix.size();
+        assertEquals(3, size);
+        for (ArrayList<GraphEdge<String>> row : graph.matrix)
+            assertEquals(size, row.size());
+
+        // Rimuovi l'ultimo nodo
+        assertTrue(graph.removeNode(nodeC));
+        assertEquals(2, graph.edgeCount());
+        assertEquals(new HashSet<>(Arrays.asList(edgeAD, edgeDD)), graph.getEdgesOf(nodeD));
+    }
+
+    @Test
+    void testRemoveNodeTombstoneAndCompact() {
+        AdjacencyMatrixUndirectedGraph<String> graph = new AdjacencyMatrixUndirectedGraph<>(
+                AdjacencyMatrixUndirectedGraph.RemovalMode.TOMBSTONE);
+        GraphNode<String> nodeA = new GraphNode<>("A");
+        GraphNode<String> nodeB = new GraphNode<>("B");
+        GraphNode<String> nodeC = new GraphNode<>("C");
+        graph.addNode(nodeA);
+        graph.addNode(nodeB);
+        graph.addNode(nodeC);
+        GraphEdge<String> edgeAC = new GraphEdge<>(nodeA, nodeC, false, 1);
+        graph.addEdge(edgeAC);
+        graph.addEdge(new GraphEdge<>(nodeB, nodeC, false, 2));
+
+        // Rimuovi il nodo "B": gli indici degli altri nodi non cambiano
+        assertTrue(graph.removeNode(nodeB));
+        assertEquals(2, graph.nodeCount());
+        assertEquals(1, graph.edgeCount());
+        assertEquals(1, graph.getTombstoneCount());
+        assertEquals(2, graph.getNodeIndexOf("C"));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.getNodeAtIndex(1));
+        assertEquals(new HashSet<>(Arrays.asList(edgeAC)), graph.getEdges());
+
+        // Un nuovo nodo non riusa l'indice liberato
+        GraphNode<String> nodeD = new GraphNode<>("D");
+        graph.addNode(nodeD);
+        assertEquals(3, graph.getNodeIndexOf("D"));
+        assertTrue(graph.getEdgesOf(nodeD).isEmpty());
+
+        graph.compact();
+        assertEquals(0, graph.getTombstoneCount());
+        assertEquals(0, graph.getNodeIndexOf("A"));
+        assertEquals(1, graph.getNodeIndexOf("C"));
+        assertEquals(2, graph.getNodeIndexOf("D"));
+        assertEquals(nodeC, graph.getNodeAtIndex(1));
+        assertEquals(new HashSet<>(Arrays.asList(edgeAC)), graph.getEdgesOf(nodeC));
+        assertEquals(3, graph.matrix.size());
+        for (ArrayList<GraphEdge<String>> row : graph.matrix)
+            assertEquals(3, row.size());
+        assertThrows(NullPointerException.class, () -> new AdjacencyMatrixUndirectedGraph<String>(null));
+    }
+
     @Test
     void testRemoveEdgeValid() {
         AdjacencyMatrixUndirectedGraph<String> graph = new AdjacencyMatrixUndirectedGraph<>();
@@ -523,4 +610,93 @@ class AdjacencyMatrixUndirectedGraphTest {
         // Prova a rimuovere un arco null
         assertThrows(NullPointerException.class, () -> graph.removeEdge(null));
     }
+
+    @Test
+    void testForEach() {
+        AdjacencyMatrixUndirectedGraph<String> graph = new AdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> nodeA = new GraphNode<>("A");
+        GraphNode<String> nodeB = new GraphNode<>("B");
+        GraphNode<String> nodeC = new GraphNode<>("C");
+        graph.addNode(nodeA);
+        graph.addNode(nodeB);
+        graph.addNode(nodeC);
+        GraphEdge<String> edgeAB = new GraphEdge<>(nodeA, nodeB, false, 1);
+        GraphEdge<String> edgeBB = new GraphEdge<>(nodeB, nodeB, false, 2);
+        GraphEdge<String> edgeBC = new GraphEdge<>(nodeB, nodeC, false, 3);
+        graph.addEdge(edgeAB);
+        graph.addEdge(edgeBB);
+        graph.addEdge(edgeBC);
+
+        // Ogni arco, cappi compresi, viene visitato una sola volta
+        List<GraphEdge<String>> visited = new ArrayList<>();
+        graph.forEachEdge(visited::add);
+        assertEquals(3, visited.size());
+        assertEquals(graph.getEdges(), new HashSet<>(visited));
+
+        Set<GraphEdge<String>> edgesOfB = new HashSet<>();
+        graph.forEachEdgeOf(nodeB, edgesOfB::add);
+        assertEquals(graph.getEdgesOf(nodeB), edgesOfB);
+
+        Set<GraphNode<String>> neighbours = new HashSet<>();
+        graph.forEachNeighbour(nodeB, neighbours::add);
+        assertEquals(graph.getAdjacentNodesOf(nodeB), neighbours);
+
+        List<Integer> indexes = new ArrayList<>();
+        graph.forEachNeighbourIndex(1, indexes::add);
+        assertEquals(Arrays.asList(0, 1, 2), indexes);
+        assertEquals(2, graph.getNeighbourIndexAt(1, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.getNeighbourIndexAt(1, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.getNeighbourIndexAt(1, -1));
+
+        assertThrows(IllegalArgumentException.class, () -> graph.forEachEdgeOf(new GraphNode<>("X"), e -> {}));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.forEachNeighbourIndex(3, i -> {}));
+        assertThrows(NullPointerException.class, () -> graph.forEachEdge(null));
+    }
+
+    @Test
+    void testIndexAccess() {
+        AdjacencyMatrixUndirectedGraph<String> graph = new AdjacencyMatrixUndirectedGraph<>(
+                AdjacencyMatrixUndirectedGraph.RemovalMode.TOMBSTONE);
+        GraphNode<String> nodeA = new GraphNode<>("A");
+        GraphNode<String> nodeB = new GraphNode<>("B");
+        GraphNode<String> nodeC = new GraphNode<>("C");
+        graph.addNode(nodeA);
+        graph.addNode(nodeB);
+        graph.addNode(nodeC);
+        GraphEdge<String> edgeAB = new GraphEdge<>(nodeA, nodeB, false, 1);
+        GraphEdge<String> edgeBB = new GraphEdge<>(nodeB, nodeB, false, 2);
+        GraphEdge<String> edgeBC = new GraphEdge<>(nodeB, nodeC, false);
+        graph.addEdge(edgeAB);
+        graph.addEdge(edgeBB);
+        graph.addEdge(edgeBC);
+
+        assertEquals(3, graph.getIndexBound());
+        assertEquals(3, graph.getDegreeAt(1));
+        assertSame(edgeAB, graph.getEdgeAt(1, 0));
+        assertSame(edgeBB, graph.getEdgeAt(1, 1));
+        assertNull(graph.getEdgeAt(0, 2));
+        assertTrue(graph.containsEdgeAt(2, 1));
+        assertFalse(graph.containsEdgeAt(0, 0));
+        assertEquals(1, graph.getEdgeWeightAt(0, 1));
+        // Arco assente o non pesato
+        assertTrue(Double.isNaN(graph.getEdgeWeightAt(0, 2)));
+        assertTrue(Double.isNaN(graph.getEdgeWeightAt(1, 2)));
+
+        // Ogni arco, cappi compresi, viene visitato una sola volta
+        List<String> visited = new ArrayList<>();
+        graph.forEachEdgeIndex((i, j, weight) -> visited.add(i + "-" + j + ":" + weight));
+        assertEquals(Arrays.asList("0-1:1.0", "1-1:2.0", "1-2:NaN"), visited);
+
+        // L'indice di un nodo cancellato resta valido ma è isolato
+        graph.removeNode(nodeA);
+        assertEquals(3, graph.getIndexBound());
+        assertEquals(0, graph.getDegreeAt(0));
+        assertFalse(graph.containsEdgeAt(0, 1));
+        assertEquals(2, graph.getDegreeAt(1));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.getDegreeAt(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.getEdgeAt(-1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.getEdgeWeightAt(0, 3));
+        assertThrows(NullPointerException.class, () -> graph.forEachEdgeIndex(null));
+    }
 }
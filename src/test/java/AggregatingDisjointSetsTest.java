@@ -0,0 +1,116 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe AggregatingDisjointSets.
+ *
+ * @author Riccardo Catervi
+ *
+ */
+class AggregatingDisjointSetsTest {
+
+    @Test
+    final void testStatistics() {
+        AggregatingDisjointSets<Integer, AggregatingDisjointSets.Statistics> ds = new AggregatingDisjointSets<>(
+                AggregatingDisjointSets.Aggregator.statistics(i -> i * 10.0));
+        for (int i = 1; i <= 4; i++)
+            ds.makeSet(i);
+        assertEquals(1, ds.getAggregate(3).getCount());
+        assertEquals(30, ds.getAggregate(3).getSum());
+        ds.union(1, 2);
+        ds.union(4, 1);
+        AggregatingDisjointSets.Statistics stats = ds.getAggregate(2);
+        assertEquals(3, stats.getCount());
+        assertEquals(10, stats.getMin());
+        assertEquals(40, stats.getMax());
+        assertEquals(70, stats.getSum());
+        assertEquals(70.0 / 3, stats.getMean(), 1e-12);
+        assertEquals(3, ds.getSetSize(4));
+        assertEquals(1, ds.getSetSize(3));
+    }
+
+    @Test
+    final void testMatchesRecomputation() {
+        AggregatingDisjointSets<Integer, Integer> ds = new AggregatingDisjointSets<>(
+                ForestDisjointSets.CompressionStrategy.SPLITTING,
+                new AggregatingDisjointSets.Aggregator<Integer, Integer>() {
+                    @Override
+                    public Integer lift(Integer e) {
+                        return e;
+                    }
+
+                    @Override
+                    public Integer combine(Integer a, Integer b) {
+                        return Math.max(a, b);
+                    }
+                });
+        int n = 300;
+        for (int i = 0; i < n; i++)
+            ds.makeSet(i);
+        Random random = new Random(20);
+        for (int k = 0; k < 250; k++) {
+            ds.union(random.nextInt(n), random.nextInt(n));
+            int e = random.nextInt(n);
+            Set<Integer> members = ds.getCurrentElementsOfSetContaining(e);
+            assertEquals(members.stream().mapToInt(Integer::intValue).max().getAsInt(), ds.getAggregate(e).intValue());
+            assertEquals(members.size(), ds.getSetSize(e));
+        }
+    }
+
+    @Test
+    final void testDelete() {
+        AggregatingDisjointSets<Integer, AggregatingDisjointSets.Statistics> ds = new AggregatingDisjointSets<>(
+                AggregatingDisjointSets.Aggregator.statistics(i -> i));
+        for (int i = 1; i <= 5; i++)
+            ds.makeSet(i);
+        ds.union(1, 2);
+        ds.union(3, 2);
+        ds.union(5, 2);
+        // Rimozione del rappresentante e di un altro elemento
+        assertEquals(2, ds.findSet(1));
+        ds.delete(2);
+        ds.delete(5);
+        AggregatingDisjointSets.Statistics stats = ds.getAggregate(3);
+        assertEquals(2, stats.getCount());
+        assertEquals(1, stats.getMin());
+        assertEquals(3, stats.getMax());
+        assertEquals(4, stats.getSum());
+        assertEquals(2, ds.getSetSize(1));
+        ds.delete(4);
+        assertFalse(ds.isPresent(4));
+        assertEquals(1, ds.setCount());
+    }
+
+    @Test
+    final void exceptionsTest() {
+        assertThrows(NullPointerException.class, () -> new AggregatingDisjointSets<String, Object>(null));
+        assertThrows(NullPointerException.class, () -> AggregatingDisjointSets.Aggregator.statistics(null));
+        AggregatingDisjointSets<String, AggregatingDisjointSets.Statistics> ds = new AggregatingDisjointSets<>(
+                AggregatingDisjointSets.Aggregator.statistics(String::length));
+        assertThrows(IllegalArgumentException.class, () -> ds.getAggregate("a"));
+        assertThrows(IllegalArgumentException.class, () -> ds.getSetSize("a"));
+        assertThrows(NullPointerException.class, () -> ds.getAggregate(null));
+    }
+
+    @Test
+    final void testUnionAll() {
+        AggregatingDisjointSets<Integer, AggregatingDisjointSets.Statistics> ds = new AggregatingDisjointSets<>(
+                AggregatingDisjointSets.Aggregator.statistics(i -> i));
+        for (int i = 1; i <= 5; i++)
+            ds.makeSet(i);
+        ds.unionAll(Arrays.asList(1, 2, 3, 2, 4, 5));
+        AggregatingDisjointSets.Statistics stats = ds.getAggregate(1);
+        assertEquals(3, stats.getCount());
+        assertEquals(6, stats.getSum());
+        assertEquals(3, stats.getMax());
+        assertEquals(9, ds.getAggregate(5).getSum());
+        assertEquals(2, ds.getAggregate(4).getCount());
+    }
+}
@@ -0,0 +1,84 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.function.Supplier;
+
+/**
+ * Esecuzione e misura delle configurazioni dei benchmark eseguibili a mano,
+ * come {@code MSPComputerBenchmark}. Ogni configurazione viene eseguita
+ * {@link #WARMUP_RUNS} volte a vuoto, per permettere alla JVM di compilare il
+ * codice, e poi {@link #MEASURED_RUNS} volte misurate; viene stampato il
+ * tempo medio delle esecuzioni misurate e viene verificato che il risultato
+ * dell'ultima esecuzione coincida con quello di riferimento.
+ *
+ * Il riferimento è dato alla costruzione oppure, se non viene dato, è il
+ * risultato della prima configurazione eseguita. Se richiesto, viene stampato
+ * anche il rapporto tra il tempo della prima configurazione e quello di ogni
+ * configurazione.
+ *
+ * @author Riccardo Catervi
+ *
+ * @param <T>
+ *                il tipo dei risultati delle configurazioni
+ */
+final class BenchmarkRunner<T> {
+
+    static final int WARMUP_RUNS = 3;
+    static final int MEASURED_RUNS = 5;
+
+    private final boolean showSpeedup; // Se stampare il rapporto con la prima configurazione.
+    private T reference; // Risultato atteso, null finché non è noto.
+    private double firstMillis; // Tempo della prima configurazione, 0 se non ancora eseguita.
+
+    /**
+     * Crea un esecutore il cui riferimento è il risultato della prima
+     * configurazione eseguita.
+     *
+     * @param showSpeedup
+     *                        se stampare il rapporto tra il tempo della prima
+     *                        configurazione e quello di ogni configurazione
+     */
+    BenchmarkRunner(boolean showSpeedup) {
+        this.showSpeedup = showSpeedup;
+    }
+
+    /**
+     * Crea un esecutore che confronta i risultati con il riferimento dato.
+     *
+     * @param reference
+     *                      il risultato atteso da ogni configurazione
+     */
+    BenchmarkRunner(T reference) {
+        this.showSpeedup = false;
+        this.reference = reference;
+    }
+
+    /**
+     * Esegue e misura una configurazione e stampa una riga con il suo nome,
+     * il tempo medio e l'esito del confronto con il riferimento.
+     *
+     * @param name
+     *                 il nome della configurazione
+     * @param task
+     *                 un'esecuzione della configurazione, che ne restituisce
+     *                 il risultato
+     */
+    void run(String name, Supplier<? extends T> task) {
+        T result = null;
+        for (int i = 0; i < WARMUP_RUNS; i++)
+            result = task.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++)
+            result = task.get();
+        double millis = (System.nanoTime() - start) / 1e6 / MEASURED_RUNS;
+
+        if (this.reference == null)
+            this.reference = result;
+        if (this.firstMillis == 0)
+            this.firstMillis = millis;
+        String check = this.reference.equals(result) ? "ok" : "RISULTATO DIVERSO";
+        if (this.showSpeedup)
+            System.out.printf("%-45s %10.2f ms  x%.2f  (%s)%n", name, millis, this.firstMillis / millis, check);
+        else
+            System.out.printf("%-45s %10.2f ms  (%s)%n", name, millis, check);
+    }
+}
@@ -0,0 +1,88 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe BoruvkaMSP. Oltre ai casi noti
+ * verifica che il risultato coincida con quello di KruskalMSP su grafi
+ * casuali abbastanza grandi da essere elaborati in parallelo e che non
+ * dipenda dal numero di thread.
+ * 
+ * @author Riccardo Catervi
+ *
+ */
+class BoruvkaMSPTest {
+
+    @Test
+    final void testComputeMSP() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(e);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 7));
+        gr.addEdge(new GraphEdge<String>(a, d, false, 10));
+        gr.addEdge(new GraphEdge<String>(a, e, false, 5));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 3));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 4));
+        gr.addEdge(new GraphEdge<String>(d, e, false, 2));
+        BoruvkaMSP<String> alg = new BoruvkaMSP<String>();
+        Set<GraphEdge<String>> result = new HashSet<GraphEdge<String>>();
+        result.add(new GraphEdge<String>(a, b, false, 1));
+        result.add(new GraphEdge<String>(d, e, false, 2));
+        result.add(new GraphEdge<String>(b, c, false, 3));
+        result.add(new GraphEdge<String>(c, d, false, 4));
+        assertEquals(result, alg.computeMSP(gr));
+        assertTrue(alg.getRoundCount() >= 1);
+
+        assertTrue(alg.computeMSP(new AdjacencyMatrixUndirectedGraph<String>()).isEmpty());
+    }
+
+    @Test
+    final void testLargeGraphsMatchKruskal() {
+        // Molti pesi uguali e più componenti connesse
+        Graph<Integer> gr = KruskalMSPTest.randomGraph(1500, 20000, 30, new Random(11));
+        Set<GraphEdge<Integer>> expected = new KruskalMSP<Integer>().computeMSP(gr);
+        assertEquals(expected, new BoruvkaMSP<Integer>().computeMSP(gr));
+
+        // Il risultato non dipende dal numero di thread
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool many = new ForkJoinPool(4);
+        try {
+            assertEquals(expected, new BoruvkaMSP<Integer>(single).computeMSP(gr));
+            assertEquals(expected, new BoruvkaMSP<Integer>(many).computeMSP(gr));
+        } finally {
+            single.shutdown();
+            many.shutdown();
+        }
+    }
+
+    @Test
+    final void exceptionsTest() {
+        BoruvkaMSP<String> alg = new BoruvkaMSP<String>();
+        assertThrows(NullPointerException.class, () -> alg.computeMSP(null));
+        assertThrows(NullPointerException.class, () -> new BoruvkaMSP<String>(null));
+        Graph<String> x = new AdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> A = new GraphNode<>("A");
+        x.addNode(A);
+        GraphNode<String> B = new GraphNode<>("B");
+        x.addNode(B);
+        x.addEdge(new GraphEdge<>(A, B, false, -2));
+        // Archi con pesi negativi
+        assertThrows(IllegalArgumentException.class, () -> alg.computeMSP(x));
+    }
+}
@@ -0,0 +1,186 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe CompressedSparseRowUndirectedGraph.
+ *
+ * @author Riccardo Catervi
+ *
+ */
+class CompressedSparseRowUndirectedGraphTest {
+
+    @Test
+    final void testCounts() {
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        GraphNode<String> c = new GraphNode<String>("c");
+        List<GraphEdge<String>> edges = new ArrayList<GraphEdge<String>>();
+        edges.add(new GraphEdge<String>(a, b, false, 1));
+        edges.add(new GraphEdge<String>(b, c, false, 2));
+        edges.add(new GraphEdge<String>(c, c, false, 3));
+        // Arco parallelo al primo: viene ignorato
+        edges.add(new GraphEdge<String>(b, a, false, 4));
+        Graph<String> g = new CompressedSparseRowUndirectedGraph<String>(Arrays.asList(a, b, c, a), edges);
+        assertEquals(3, g.nodeCount());
+        assertEquals(3, g.edgeCount());
+        assertEquals(6, g.size());
+        assertFalse(g.isDirected());
+        assertEquals(new HashSet<GraphNode<String>>(Arrays.asList(a, b, c)), g.getNodes());
+        assertTrue(new CompressedSparseRowUndirectedGraph<String>(Collections.<GraphNode<String>>emptyList(),
+                Collections.<GraphEdge<String>>emptyList()).isEmpty());
+    }
+
+    @Test
+    final void testNodeLookups() {
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        Graph<String> g = new CompressedSparseRowUndirectedGraph<String>(Arrays.asList(a, b),
+                Collections.<GraphEdge<String>>emptyList());
+        assertTrue(g.containsNode(new GraphNode<String>("b")));
+        assertFalse(g.containsNode(new GraphNode<String>("c")));
+        assertEquals(b, g.getNodeOf("b"));
+        assertNull(g.getNodeOf("c"));
+        assertEquals(0, g.getNodeIndexOf("a"));
+        assertEquals(1, g.getNodeIndexOf("b"));
+        assertEquals(a, g.getNodeAtIndex(0));
+        assertThrows(IllegalArgumentException.class, () -> g.getNodeIndexOf("c"));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getNodeAtIndex(2));
+        assertThrows(NullPointerException.class, () -> g.containsNode(null));
+        assertThrows(NullPointerException.class, () -> g.getNodeOf(null));
+    }
+
+    @Test
+    final void testEdges() {
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        GraphNode<String> c = new GraphNode<String>("c");
+        GraphNode<String> d = new GraphNode<String>("d");
+        GraphEdge<String> ab = new GraphEdge<String>(a, b, false, 1);
+        GraphEdge<String> ac = new GraphEdge<String>(a, c, false, 2);
+        GraphEdge<String> cc = new GraphEdge<String>(c, c, false, 3);
+        Graph<String> g = new CompressedSparseRowUndirectedGraph<String>(Arrays.asList(a, b, c, d),
+                Arrays.asList(ab, ac, cc));
+        assertEquals(new HashSet<GraphEdge<String>>(Arrays.asList(ab, ac, cc)), g.getEdges());
+        assertEquals(new HashSet<GraphEdge<String>>(Arrays.asList(ab, ac)), g.getEdgesOf(a));
+        assertEquals(new HashSet<GraphEdge<String>>(Arrays.asList(ac, cc)), g.getEdgesOf(c));
+        assertTrue(g.getEdgesOf(d).isEmpty());
+        assertEquals(new HashSet<GraphNode<String>>(Arrays.asList(b, c)), g.getAdjacentNodesOf(a));
+        assertEquals(new HashSet<GraphNode<String>>(Arrays.asList(a, c)), g.getAdjacentNodesOf(c));
+        assertTrue(g.containsEdge(new GraphEdge<String>(b, a, false)));
+        assertTrue(g.containsEdge(cc));
+        assertFalse(g.containsEdge(new GraphEdge<String>(b, c, false)));
+        assertFalse(g.containsEdge(new GraphEdge<String>(d, d, false)));
+        assertEquals(2, g.getDegreeOf(a));
+        // I pesi sono conservati
+        for (GraphEdge<String> edge : g.getEdgesOf(a))
+            assertEquals(edge.equals(ab) ? 1 : 2, edge.getWeight());
+        assertThrows(IllegalArgumentException.class,
+                () -> g.containsEdge(new GraphEdge<String>(a, new GraphNode<String>("x"), false)));
+        assertThrows(IllegalArgumentException.class, () -> g.containsEdge(new GraphEdge<String>(a, b, true)));
+        assertThrows(IllegalArgumentException.class, () -> g.getEdgesOf(new GraphNode<String>("x")));
+        assertThrows(NullPointerException.class, () -> g.getAdjacentNodesOf(null));
+    }
+
+    @Test
+    final void testMatchesAdjacencyMatrix() {
+        Random random = new Random(8);
+        Graph<Integer> matrix = KruskalMSPTest.randomGraph(200, 1000, 50, random);
+        Graph<Integer> csr = new CompressedSparseRowUndirectedGraph<Integer>(matrix.getNodes(),
+                matrix.getEdges());
+        assertEquals(matrix.nodeCount(), csr.nodeCount());
+        assertEquals(matrix.edgeCount(), csr.edgeCount());
+        assertEquals(matrix.getEdges(), csr.getEdges());
+        for (GraphNode<Integer> node : matrix.getNodes()) {
+            assertEquals(matrix.getEdgesOf(node), csr.getEdgesOf(node));
+            assertEquals(matrix.getAdjacentNodesOf(node), csr.getAdjacentNodesOf(node));
+            Set<GraphEdge<Integer>> edgesOf = new HashSet<GraphEdge<Integer>>();
+            csr.forEachEdgeOf(node, edgesOf::add);
+            assertEquals(matrix.getEdgesOf(node), edgesOf);
+            Set<GraphNode<Integer>> neighbours = new HashSet<GraphNode<Integer>>();
+            csr.forEachNeighbour(node, neighbours::add);
+            assertEquals(matrix.getAdjacentNodesOf(node), neighbours);
+            Set<GraphNode<Integer>> neighbourIndexes = new HashSet<GraphNode<Integer>>();
+            csr.forEachNeighbourIndex(csr.getNodeIndexOf(node.getLabel()),
+                    i -> neighbourIndexes.add(csr.getNodeAtIndex(i)));
+            assertEquals(matrix.getAdjacentNodesOf(node), neighbourIndexes);
+            int index = csr.getNodeIndexOf(node.getLabel());
+            List<Integer> ordered = new ArrayList<Integer>();
+            csr.forEachNeighbourIndex(index, ordered::add);
+            for (int k = 0; k < ordered.size(); k++)
+                assertEquals(ordered.get(k).intValue(), csr.getNeighbourIndexAt(index, k));
+            assertThrows(IndexOutOfBoundsException.class, () -> csr.getNeighbourIndexAt(index, ordered.size()));
+        }
+        for (GraphEdge<Integer> edge : matrix.getEdges()) {
+            int i = csr.getNodeIndexOf(edge.getNode1().getLabel());
+            int j = csr.getNodeIndexOf(edge.getNode2().getLabel());
+            assertEquals(edge, csr.getEdgeAt(j, i));
+            assertEquals(edge.getWeight(), csr.getEdgeWeightAt(i, j));
+            assertEquals(matrix.getDegreeOf(edge.getNode1()), csr.getDegreeAt(i));
+        }
+        int[] visitedIndexes = { 0 };
+        csr.forEachEdgeIndex((i, j, weight) -> {
+            assertEquals(weight, csr.getEdgeAt(i, j).getWeight());
+            visitedIndexes[0]++;
+        });
+        assertEquals(matrix.edgeCount(), visitedIndexes[0]);
+        List<GraphEdge<Integer>> visited = new ArrayList<GraphEdge<Integer>>();
+        csr.forEachEdge(visited::add);
+        assertEquals(matrix.edgeCount(), visited.size());
+        assertEquals(matrix.getEdges(), new HashSet<GraphEdge<Integer>>(visited));
+        for (GraphEdge<Integer> edge : matrix.getEdges())
+            assertTrue(csr.containsEdge(edge));
+    }
+
+    @Test
+    final void testMSPComputers() {
+        Random random = new Random(11);
+        Graph<Integer> matrix = KruskalMSPTest.randomGraph(300, 1200, 1000000, random);
+        Graph<Integer> csr = new CompressedSparseRowUndirectedGraph<Integer>(matrix.getNodes(),
+                matrix.getEdges());
+        Set<GraphEdge<Integer>> expected = new KruskalMSP<Integer>().computeMSP(matrix);
+        assertEquals(expected, new KruskalMSP<Integer>().computeMSP(csr));
+        // Percorsi per grafi generici, diversi dalla matrice di adiacenza
+        assertEquals(expected, new DensePrimMSP<Integer>().computeMSP(csr));
+        assertEquals(expected, new HeapPrimMSP<Integer>().computeMSP(csr));
+    }
+
+    @Test
+    final void exceptionsTest() {
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        List<GraphNode<String>> nodes = Arrays.asList(a);
+        List<GraphEdge<String>> noEdges = Collections.<GraphEdge<String>>emptyList();
+        assertThrows(NullPointerException.class,
+                () -> new CompressedSparseRowUndirectedGraph<String>(null, noEdges));
+        assertThrows(NullPointerException.class,
+                () -> new CompressedSparseRowUndirectedGraph<String>(nodes, null));
+        assertThrows(NullPointerException.class,
+                () -> new CompressedSparseRowUndirectedGraph<String>(Arrays.asList(a, null), noEdges));
+        // Estremo non presente tra i nodi
+        assertThrows(IllegalArgumentException.class, () -> new CompressedSparseRowUndirectedGraph<String>(nodes,
+                Arrays.asList(new GraphEdge<String>(a, b, false))));
+        // Arco orientato
+        assertThrows(IllegalArgumentException.class, () -> new CompressedSparseRowUndirectedGraph<String>(nodes,
+                Arrays.asList(new GraphEdge<String>(a, a, true))));
+        Graph<String> g = new CompressedSparseRowUndirectedGraph<String>(nodes, noEdges);
+        assertThrows(UnsupportedOperationException.class, () -> g.addNode(b));
+        assertThrows(UnsupportedOperationException.class, () -> g.removeNode(a));
+        assertThrows(UnsupportedOperationException.class, () -> g.addEdge(new GraphEdge<String>(a, a, false)));
+        assertThrows(UnsupportedOperationException.class, () -> g.removeEdge(new GraphEdge<String>(a, a, false)));
+        assertThrows(UnsupportedOperationException.class, () -> g.clear());
+        assertThrows(UnsupportedOperationException.class, () -> g.getPredecessorNodesOf(a));
+        assertThrows(UnsupportedOperationException.class, () -> g.getIngoingEdgesOf(a));
+        assertThrows(UnsupportedOperationException.class, () -> g.getNodes().add(b));
+    }
+}
@@ -0,0 +1,64 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Semplice benchmark, eseguibile tramite il metodo main, che misura la
+ * scalabilità di {@code ConcurrentDisjointSets} al crescere del numero di
+ * thread: la stessa sequenza di unioni casuali, seguite da altrettante
+ * verifiche {@code connected}, viene eseguita su un fork-join pool con 1, 2,
+ * 4, ... thread fino al numero di processori disponibili. Come riferimento
+ * viene misurato {@code IntDisjointSets} su un solo thread. Non è un test
+ * JUnit: viene eseguito a mano, ad esempio con
+ *
+ * <pre>
+ * java -cp out it.unicam.cs.asdl2425.mp2.ConcurrentDisjointSetsBenchmark 2000000
+ * </pre>
+ *
+ * Ogni configurazione viene misurata con {@code BenchmarkRunner}, che riporta
+ * anche l'accelerazione rispetto a {@code IntDisjointSets} e verifica che il
+ * numero finale di insiemi coincida con quello sequenziale.
+ *
+ * @author Riccardo Catervi
+ *
+ */
+public class ConcurrentDisjointSetsBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        Random random = new Random(42);
+        int[] sources = new int[n];
+        int[] targets = new int[n];
+        for (int k = 0; k < n; k++) {
+            sources[k] = random.nextInt(n);
+            targets[k] = random.nextInt(n);
+        }
+        System.out.println("Unioni casuali: " + n + " elementi, " + n + " unioni e " + n + " verifiche");
+
+        BenchmarkRunner<Integer> runner = new BenchmarkRunner<>(true);
+        runner.run("IntDisjointSets (1 thread)", () -> {
+            IntDisjointSets sets = new IntDisjointSets(n);
+            for (int k = 0; k < n; k++)
+                sets.union(sources[k], targets[k]);
+            for (int k = 0; k < n; k++)
+                sets.connected(targets[k], sources[(k + 1) % n]);
+            return sets.setCount();
+        });
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads = threads < processors ? Math.min(2 * threads, processors) : threads + 1) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            runner.run("ConcurrentDisjointSets (" + threads + " thread)", () -> {
+                ConcurrentDisjointSets<Integer> sets = ConcurrentDisjointSets.ofSize(n);
+                pool.submit(() -> {
+                    IntStream.range(0, n).parallel().forEach(k -> sets.union(sources[k], targets[k]));
+                    IntStream.range(0, n).parallel().forEach(k -> sets.connected(targets[k], sources[(k + 1) % n]));
+                }).join();
+                return sets.setCount();
+            });
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe ConcurrentDisjointSets. Oltre alle
+ * operazioni dell'interfaccia DisjointSets verifica, con più thread che
+ * eseguono unioni e ricerche contemporaneamente, che la partizione finale
+ * coincida con quella calcolata in modo sequenziale.
+ *
+ * @author Riccardo Catervi
+ *
+ */
+class ConcurrentDisjointSetsTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    final void testDisjointSets() {
+        ConcurrentDisjointSets<String> ds = new ConcurrentDisjointSets<String>(Arrays.asList("a", "b", "c", "a"));
+        assertEquals(3, ds.size());
+        assertEquals(3, ds.setCount());
+        assertTrue(ds.isPresent("a"));
+        assertFalse(ds.isPresent("d"));
+        assertFalse(ds.isPresent(null));
+        assertEquals("b", ds.findSet("b"));
+        assertNull(ds.findSet("d"));
+        ds.union("a", "b");
+        assertEquals(ds.findSet("a"), ds.findSet("b"));
+        assertEquals(2, ds.setCount());
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b")), ds.getCurrentElementsOfSetContaining("b"));
+        assertEquals(new HashSet<String>(Arrays.asList(ds.findSet("a"), "c")), ds.getCurrentRepresentatives());
+        assertTrue(ds.connected(ds.indexOf("a"), ds.indexOf("b")));
+        assertFalse(ds.connected(ds.indexOf("a"), ds.indexOf("c")));
+        assertEquals("c", ds.elementAt(ds.indexOf("c")));
+
+        // Gli elementi cancellati possono essere reinseriti
+        ds.clear();
+        assertFalse(ds.isPresent("a"));
+        assertEquals(0, ds.setCount());
+        assertTrue(ds.getCurrentRepresentatives().isEmpty());
+        ds.makeSet("a");
+        assertEquals("a", ds.findSet("a"));
+        assertEquals(1, ds.setCount());
+    }
+
+    @Test
+    final void testOfSize() {
+        ConcurrentDisjointSets<Integer> ds = ConcurrentDisjointSets.ofSize(4);
+        assertTrue(ds.union(0, 1));
+        assertFalse(ds.union(1, 0));
+        assertTrue(ds.union(2, 3));
+        assertEquals(2, ds.setCount());
+        assertEquals(ds.find(0), ds.findSet(1).intValue());
+        assertFalse(ds.isPresent(4));
+        assertEquals(Integer.valueOf(3), ds.elementAt(3));
+    }
+
+    @Test
+    final void testConcurrentUnions() throws InterruptedException {
+        int n = 100000;
+        int unionsPerThread = 40000;
+        int[][] pairs = new int[THREADS * unionsPerThread][];
+        Random random = new Random(18);
+        for (int k = 0; k < pairs.length; k++)
+            pairs[k] = new int[] { random.nextInt(n), random.nextInt(n) };
+
+        IntDisjointSets expected = new IntDisjointSets(n);
+        for (int[] pair : pairs)
+            expected.union(pair[0], pair[1]);
+
+        ConcurrentDisjointSets<Integer> ds = ConcurrentDisjointSets.ofSize(n);
+        AtomicInteger merged = new AtomicInteger();
+        runConcurrently(t -> {
+            for (int k = t; k < pairs.length; k += THREADS) {
+                if (ds.union(pairs[k][0], pairs[k][1]))
+                    merged.incrementAndGet();
+                // Ricerche e verifiche concorrenti alle unioni
+                assertTrue(ds.connected(pairs[k][0], pairs[k][1]));
+                ds.find(pairs[(k * 31) % pairs.length][0]);
+            }
+        });
+
+        // Ogni unione riuscita ha ridotto di uno il numero di insiemi
+        assertEquals(n - expected.setCount(), merged.get());
+        assertEquals(expected.setCount(), ds.setCount());
+        for (int i = 0; i < n; i += 7)
+            assertEquals(expected.connected(i, (i * 13) % n), ds.connected(i, (i * 13) % n));
+        for (int[] pair : pairs)
+            assertTrue(ds.connected(pair[0], pair[1]));
+    }
+
+    @Test
+    final void exceptionsTest() {
+        assertThrows(NullPointerException.class, () -> new ConcurrentDisjointSets<String>(null));
+        assertThrows(NullPointerException.class, () -> new ConcurrentDisjointSets<String>(Arrays.asList("a", null)));
+        assertThrows(IllegalArgumentException.class, () -> ConcurrentDisjointSets.ofSize(-1));
+        ConcurrentDisjointSets<String> ds = new ConcurrentDisjointSets<String>(Arrays.asList("a", "b"));
+        assertThrows(IllegalArgumentException.class, () -> ds.makeSet("a"));
+        assertThrows(UnsupportedOperationException.class, () -> ds.makeSet("c"));
+        assertThrows(IllegalArgumentException.class, () -> ds.union("a", "c"));
+        assertThrows(IllegalArgumentException.class, () -> ds.indexOf("c"));
+        assertThrows(IndexOutOfBoundsException.class, () -> ds.find(2));
+        assertThrows(NullPointerException.class, () -> ds.findSet(null));
+        ds.clear();
+        assertThrows(IllegalArgumentException.class, () -> ds.find(0));
+        assertThrows(IllegalArgumentException.class, () -> ds.getCurrentElementsOfSetContaining("a"));
+    }
+
+    /*
+     * ConcurrentDisjointSets non ridefinisce unionAll e findAll, quindi
+     * verifica le implementazioni di default di DisjointSets.
+     */
+    @Test
+    final void testDefaultBatchOperations() {
+        ConcurrentDisjointSets<String> ds = new ConcurrentDisjointSets<>(Arrays.asList("a", "b", "c", "d"));
+        BitSet merged = ds.unionAll(Arrays.asList("a", "b", "b", "a", "c", "d"));
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(2);
+        assertEquals(expected, merged);
+        assertEquals(2, ds.setCount());
+
+        List<String> representatives = new ArrayList<>();
+        ds.findAll(Arrays.asList("b", "x"), representatives);
+        assertEquals(Arrays.asList(ds.findSet("a"), null), representatives);
+
+        assertThrows(IllegalArgumentException.class, () -> ds.unionAll(Arrays.asList("a", "c", "b")));
+        assertThrows(IllegalArgumentException.class, () -> ds.unionAll(Arrays.asList("a", "c", "b", "x")));
+        assertThrows(NullPointerException.class, () -> ds.unionAll(Arrays.asList("a", null)));
+        assertEquals(2, ds.setCount());
+    }
+
+    /*
+     * Esegue il corpo dato su THREADS thread che partono insieme e rilancia il
+     * primo errore di un thread.
+     */
+    private static void runConcurrently(ThreadBody body) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> errors = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int id = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    body.run(id);
+                }
+                catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+        if (!errors.isEmpty())
+            fail(errors.get(0));
+    }
+
+    @FunctionalInterface
+    private interface ThreadBody {
+        void run(int thread) throws Exception;
+    }
+
+}
@@ -0,0 +1,66 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Semplice benchmark, eseguibile tramite il metodo main, che confronta il
+ * calcolo sequenziale delle componenti connesse di
+ * {@code UndirectedGraphConnectedComponentsComputer} con quello parallelo
+ * basato su Afforest. Non è un test JUnit: viene eseguito a mano, ad esempio
+ * con
+ *
+ * <pre>
+ * java -cp out it.unicam.cs.asdl2425.mp2.ConnectedComponentsBenchmark 1000000
+ * </pre>
+ *
+ * Il grafo, in formato CSR, ha una componente gigante che contiene gran parte
+ * dei nodi, il caso in cui Afforest evita di esaminare più archi, e molte
+ * piccole componenti. Come negli altri benchmark ogni configurazione viene
+ * misurata con {@code BenchmarkRunner}, che verifica anche che i risultati
+ * coincidano.
+ *
+ * @author Riccardo Catervi
+ *
+ */
+public class ConnectedComponentsBenchmark {
+
+    private static final int DEGREE = 8;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        Graph<Integer> g = giantComponentGraph(n, new Random(42));
+        System.out.println("Grafo con componente gigante: " + g.nodeCount() + " nodi, " + g.edgeCount() + " archi, "
+                + Runtime.getRuntime().availableProcessors() + " processori");
+
+        UndirectedGraphConnectedComponentsComputer<Integer> c = new UndirectedGraphConnectedComponentsComputer<>();
+        BenchmarkRunner<Set<Set<GraphNode<Integer>>>> runner = new BenchmarkRunner<>(false);
+        runner.run("Sequenziale", () -> c.computeConnectedComponents(g));
+        runner.run("Afforest parallelo", () -> c.computeConnectedComponentsInParallel(g));
+    }
+
+    /*
+     * Costruisce un grafo CSR in cui nove nodi su dieci sono collegati da
+     * archi casuali con grado medio circa DEGREE e i rimanenti formano coppie.
+     */
+    private static Graph<Integer> giantComponentGraph(int n, Random random) {
+        UndirectedGraphBuilder<Integer> builder = new UndirectedGraphBuilder<Integer>(n, n * DEGREE / 2);
+        List<GraphNode<Integer>> nodes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            nodes.add(new GraphNode<Integer>(i));
+            builder.addNode(nodes.get(i));
+        }
+        int giant = n / 10 * 9;
+        for (long k = 0; k < (long) giant * DEGREE / 2; k++) {
+            int u = random.nextInt(giant);
+            int v = random.nextInt(giant);
+            if (u != v)
+                builder.addEdge(new GraphEdge<Integer>(nodes.get(u), nodes.get(v), false));
+        }
+        for (int i = giant; i + 1 < n; i += 2)
+            builder.addEdge(new GraphEdge<Integer>(nodes.get(i), nodes.get(i + 1), false));
+        return builder.buildCompressedSparseRow();
+    }
+}
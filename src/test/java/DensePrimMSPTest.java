@@ -0,0 +1,122 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe DensePrimMSP.
+ * 
+ * @author Riccardo Catervi
+ *
+ */
+class DensePrimMSPTest {
+
+    @Test
+    final void testComputeMSP() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(e);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 7));
+        gr.addEdge(new GraphEdge<String>(a, d, false, 10));
+        gr.addEdge(new GraphEdge<String>(a, e, false, 5));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 3));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 4));
+        gr.addEdge(new GraphEdge<String>(d, e, false, 2));
+        DensePrimMSP<String> alg = new DensePrimMSP<String>();
+        Set<GraphEdge<String>> result = new HashSet<GraphEdge<String>>();
+        result.add(new GraphEdge<String>(a, b, false, 1));
+        result.add(new GraphEdge<String>(d, e, false, 2));
+        result.add(new GraphEdge<String>(b, c, false, 3));
+        result.add(new GraphEdge<String>(c, d, false, 4));
+        assertEquals(result, alg.computeMSP(gr));
+        assertTrue(alg.computeMSP(new AdjacencyMatrixUndirectedGraph<String>()).isEmpty());
+    }
+
+    @Test
+    final void testDisconnectedGraph() {
+        // Tre componenti, di cui una formata da un nodo isolato
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(e);
+        gr.addEdge(new GraphEdge<String>(a, c, false, 2));
+        gr.addEdge(new GraphEdge<String>(b, d, false, 1));
+        gr.addEdge(new GraphEdge<String>(d, e, false, 3));
+        gr.addEdge(new GraphEdge<String>(b, e, false, 4));
+        Set<GraphEdge<String>> result = new HashSet<GraphEdge<String>>();
+        result.add(new GraphEdge<String>(a, c, false, 2));
+        result.add(new GraphEdge<String>(b, d, false, 1));
+        result.add(new GraphEdge<String>(d, e, false, 3));
+        assertEquals(result, new DensePrimMSP<String>().computeMSP(gr));
+    }
+
+    @Test
+    final void testRandomGraphsMatchKruskal() {
+        // Con pesi distinti l'albero di copertura minimo è unico
+        Random random = new Random(5);
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<Integer>();
+        int n = 150;
+        for (int i = 0; i < n; i++)
+            gr.addNode(new GraphNode<Integer>(i));
+        for (int k = 0; k < 3000; k++) {
+            int i = random.nextInt(n);
+            int j = random.nextInt(n);
+            gr.addEdge(new GraphEdge<Integer>(gr.getNodeAtIndex(i), gr.getNodeAtIndex(j), false,
+                    random.nextDouble()));
+        }
+        assertEquals(new KruskalMSP<Integer>().computeMSP(gr), new DensePrimMSP<Integer>().computeMSP(gr));
+    }
+
+    @Test
+    final void testTiedWeightsMatchKruskal() {
+        // Con pochi pesi distinti gli alberi di copertura minimi sono molti:
+        // l'ordine per identificatore deve scegliere lo stesso di Kruskal.
+        Random random = new Random(17);
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<Integer>();
+        int n = 150;
+        for (int i = 0; i < n; i++)
+            gr.addNode(new GraphNode<Integer>(i));
+        for (int k = 0; k < 3000; k++)
+            gr.addEdge(new GraphEdge<Integer>(gr.getNodeAtIndex(random.nextInt(n)),
+                    gr.getNodeAtIndex(random.nextInt(n)), false, random.nextInt(3)));
+        assertEquals(new KruskalMSP<Integer>().computeMSP(gr), new DensePrimMSP<Integer>().computeMSP(gr));
+    }
+
+    @Test
+    final void exceptionsTest() {
+        DensePrimMSP<String> alg = new DensePrimMSP<String>();
+        assertThrows(NullPointerException.class, () -> alg.computeMSP(null));
+        Graph<String> x = new AdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> A = new GraphNode<>("A");
+        x.addNode(A);
+        GraphNode<String> B = new GraphNode<>("B");
+        x.addNode(B);
+        GraphNode<String> C = new GraphNode<>("C");
+        x.addNode(C);
+        x.addEdge(new GraphEdge<>(A, B, false, 0));
+        x.addEdge(new GraphEdge<>(B, C, false, -2));
+        // Archi con pesi negativi
+        assertThrows(IllegalArgumentException.class, () -> alg.computeMSP(x));
+    }
+}
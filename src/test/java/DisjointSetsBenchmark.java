@@ -0,0 +1,72 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Semplice benchmark, eseguibile tramite il metodo main, che confronta le
+ * strategie di compressione del cammino di {@code ForestDisjointSets} su
+ * carichi di lavoro di Kruskal: {@code KruskalMSP} viene eseguito sullo stesso
+ * grafo con una foresta per ogni strategia e, come riferimento, con
+ * {@code IndexedDisjointSets}. Non è un test JUnit: viene eseguito a mano, ad
+ * esempio con
+ *
+ * <pre>
+ * java -cp out it.unicam.cs.asdl2425.mp2.DisjointSetsBenchmark 4000
+ * </pre>
+ *
+ * Il primo grafo è sparso, con molte ricerche su alberi poco profondi; il
+ * secondo è un grafo sparso con più componenti, in cui nessuna terminazione
+ * anticipata è possibile e tutti gli archi vengono esaminati. Ogni
+ * configurazione viene misurata con {@code BenchmarkRunner}, che verifica
+ * anche che tutti i risultati coincidano.
+ *
+ * @author Riccardo Catervi
+ *
+ */
+public class DisjointSetsBenchmark {
+
+    private static final int SPARSE_DEGREE = 10;
+    private static final int COMPONENTS = 8;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        Random random = new Random(42);
+        run("Grafo sparso", MSPComputerBenchmark.sparseGraph(n, SPARSE_DEGREE, random));
+        run("Grafo sparso con " + COMPONENTS + " componenti", disconnectedGraph(n, random));
+    }
+
+    /*
+     * Esegue e misura Kruskal con ogni struttura per gli insiemi disgiunti.
+     */
+    private static void run(String title, Graph<Integer> g) {
+        System.out.println(title + ": " + g.nodeCount() + " nodi, " + g.edgeCount() + " archi");
+
+        Map<String, Supplier<DisjointSets<GraphNode<Integer>>>> structures = new LinkedHashMap<>();
+        for (ForestDisjointSets.CompressionStrategy strategy : ForestDisjointSets.CompressionStrategy.values())
+            structures.put("ForestDisjointSets " + strategy, () -> new ForestDisjointSets<>(strategy));
+        structures.put("IndexedDisjointSets", IndexedDisjointSets::new);
+
+        BenchmarkRunner<Set<GraphEdge<Integer>>> runner = new BenchmarkRunner<>(false);
+        for (Map.Entry<String, Supplier<DisjointSets<GraphNode<Integer>>>> entry : structures.entrySet()) {
+            KruskalMSP<Integer> kruskal = new KruskalMSP<Integer>(entry.getValue().get());
+            runner.run(entry.getKey(), () -> kruskal.computeMSP(g));
+        }
+    }
+
+    /*
+     * Costruisce un grafo sparso con COMPONENTS componenti connesse, ognuna
+     * generata come in MSPComputerBenchmark.sparseGraph.
+     */
+    private static Graph<Integer> disconnectedGraph(int n, Random random) {
+        UndirectedGraphBuilder<Integer> builder = new UndirectedGraphBuilder<Integer>();
+        for (int c = 0; c < COMPONENTS; c++) {
+            Graph<Integer> component = MSPComputerBenchmark.sparseGraph(n / COMPONENTS, SPARSE_DEGREE, random);
+            builder.addNodes(component.getNodes()).addEdges(component.getEdges());
+        }
+        return builder.buildCompressedSparseRow();
+    }
+}
@@ -0,0 +1,96 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe FilterKruskalMSP. Oltre ai casi
+ * noti verifica che il risultato coincida con quello di KruskalMSP su grafi
+ * casuali densi, anche in presenza di molti pesi uguali.
+ * 
+ * @author Riccardo Catervi
+ *
+ */
+class FilterKruskalMSPTest {
+
+    @Test
+    final void testComputeMSP() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(e);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 7));
+        gr.addEdge(new GraphEdge<String>(a, d, false, 10));
+        gr.addEdge(new GraphEdge<String>(a, e, false, 5));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 3));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 4));
+        gr.addEdge(new GraphEdge<String>(d, e, false, 2));
+        FilterKruskalMSP<String> alg = new FilterKruskalMSP<String>();
+        Set<GraphEdge<String>> result = new HashSet<GraphEdge<String>>();
+        result.add(new GraphEdge<String>(a, b, false, 1));
+        result.add(new GraphEdge<String>(d, e, false, 2));
+        result.add(new GraphEdge<String>(b, c, false, 3));
+        result.add(new GraphEdge<String>(c, d, false, 4));
+        assertEquals(result, alg.computeMSP(gr));
+    }
+
+    @Test
+    final void testDenseGraphsMatchKruskal() {
+        Random random = new Random(2024);
+        KruskalMSP<Integer> kruskal = new KruskalMSP<Integer>();
+        FilterKruskalMSP<Integer> filterKruskal = new FilterKruskalMSP<Integer>();
+        for (int round = 0; round < 5; round++) {
+            // Grafo completo con pochi pesi distinti
+            Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<Integer>();
+            int n = 60 + random.nextInt(40);
+            for (int i = 0; i < n; i++)
+                gr.addNode(new GraphNode<Integer>(i));
+            for (int i = 0; i < n; i++)
+                for (int j = i + 1; j < n; j++)
+                    gr.addEdge(new GraphEdge<Integer>(gr.getNodeAtIndex(i), gr.getNodeAtIndex(j), false,
+                            random.nextInt(10)));
+            assertEquals(kruskal.computeMSP(gr), filterKruskal.computeMSP(gr));
+            // Sui grafi densi la maggior parte degli archi pesanti viene filtrata
+            assertTrue(filterKruskal.getFilteredEdgeCount() > 0);
+        }
+    }
+
+    @Test
+    final void testDisconnectedGraph() {
+        Graph<Integer> gr = KruskalMSPTest.randomGraph(300, 600, 1000, new Random(3));
+        assertEquals(new KruskalMSP<Integer>().computeMSP(gr), new FilterKruskalMSP<Integer>().computeMSP(gr));
+
+        Graph<Integer> empty = new AdjacencyMatrixUndirectedGraph<Integer>();
+        assertTrue(new FilterKruskalMSP<Integer>().computeMSP(empty).isEmpty());
+    }
+
+    @Test
+    final void exceptionsTest() {
+        FilterKruskalMSP<String> alg = new FilterKruskalMSP<String>();
+        assertThrows(NullPointerException.class, () -> alg.computeMSP(null));
+        Graph<String> x = new AdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> A = new GraphNode<>("A");
+        x.addNode(A);
+        GraphNode<String> B = new GraphNode<>("B");
+        x.addNode(B);
+        GraphNode<String> C = new GraphNode<>("C");
+        x.addNode(C);
+        x.addEdge(new GraphEdge<>(A, B, false, 0));
+        x.addEdge(new GraphEdge<>(B, C, false));
+        // Archi non pesati
+        assertThrows(IllegalArgumentException.class, () -> alg.computeMSP(x));
+    }
+}
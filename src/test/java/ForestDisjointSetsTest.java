@@ -1,5 +1,15 @@
 package it.unicam.cs.asdl2425.mp2;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -198,4 +208,222 @@ class ForestDisjointSetsTest {
         assertTrue(ds.getCurrentRepresentatives().isEmpty());
         assertTrue(ds.currentElements.isEmpty());
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifica le strategie di compressione su una catena lunga, costruita
+     * direttamente tramite i parent: la ricerca iterativa non esaurisce lo
+     * stack.
+     */
+    @Test
+    final void testCompressionStrategies() {
+        int n = 200000;
+        for (ForestDisjointSets.CompressionStrategy strategy : ForestDisjointSets.CompressionStrategy.values()) {
+            ForestDisjointSets<Integer> ds = new ForestDisjointSets<>(strategy);
+            assertEquals(strategy, ds.getCompressionStrategy());
+            for (int i = 0; i < n; i++)
+                ds.makeSet(i);
+            // Catena 0 -> 1 -> ... -> n - 1
+            for (int i = 0; i < n - 1; i++)
+                ds.currentElements.get(i).parent = ds.currentElements.get(i + 1);
+
+            assertEquals(n - 1, ds.findSet(0));
+            ForestDisjointSets.Node<Integer> root = ds.currentElements.get(n - 1);
+            ForestDisjointSets.Node<Integer> node0 = ds.currentElements.get(0);
+            ForestDisjointSets.Node<Integer> node1 = ds.currentElements.get(1);
+            switch (strategy) {
+            case FULL:
+                // Tutto il cammino punta alla radice
+                assertSame(root, node0.parent);
+                assertSame(root, node1.parent);
+                break;
+            case HALVING:
+                // Solo i nodi visitati, uno ogni due, puntano al nonno
+                assertSame(ds.currentElements.get(2), node0.parent);
+                assertSame(ds.currentElements.get(2), node1.parent);
+                break;
+            default:
+                // Ogni nodo punta al nonno
+                assertSame(ds.currentElements.get(2), node0.parent);
+                assertSame(ds.currentElements.get(3), node1.parent);
+            }
+            for (int i = 0; i < n; i += 1000)
+                assertEquals(n - 1, ds.findSet(i));
+        }
+        assertThrows(NullPointerException.class, () -> new ForestDisjointSets<Integer>(null));
+    }
+
+    /**
+     * Verifica che le liste circolari dei membri corrispondano agli insiemi
+     * determinati con findSet, dopo molte unioni casuali.
+     */
+    @Test
+    final void testMemberChains() {
+        ForestDisjointSets<Integer> ds = new ForestDisjointSets<>();
+        int n = 500;
+        for (int i = 0; i < n; i++)
+            ds.makeSet(i);
+        assertEquals(Collections.singleton(7), ds.getCurrentElementsOfSetContaining(7));
+        Random random = new Random(16);
+        for (int k = 0; k < 400; k++) {
+            ds.union(random.nextInt(n), random.nextInt(n));
+            int e = random.nextInt(n);
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < n; i++)
+                if (ds.findSet(i).equals(ds.findSet(e)))
+                    expected.add(i);
+            assertEquals(expected, ds.getCurrentElementsOfSetContaining(e));
+        }
+        // Unire due elementi dello stesso insieme non altera la lista
+        ds.union(0, 0);
+        assertTrue(ds.getCurrentElementsOfSetContaining(0).contains(0));
+    }
+
+    /**
+     * Verifica il numero di insiemi e i rappresentanti, aggiornati da
+     * makeSet, union e clear. L'insieme dei rappresentanti restituito è una
+     * copia, che il chiamante può modificare e conservare.
+     */
+    @Test
+    final void testSetCountAndRepresentatives() {
+        ForestDisjointSets<Integer> ds = new ForestDisjointSets<>();
+        assertEquals(0, ds.setCount());
+        for (int i = 0; i < 4; i++)
+            ds.makeSet(i);
+        assertEquals(4, ds.setCount());
+        Set<Integer> representatives = ds.getCurrentRepresentatives();
+        assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 3)), representatives);
+        ds.union(0, 1);
+        ds.union(1, 0);
+        ds.union(2, 3);
+        assertEquals(2, ds.setCount());
+        assertEquals(new HashSet<>(Arrays.asList(1, 3)), ds.getCurrentRepresentatives());
+        // La copia precedente non cambia e può essere modificata
+        assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 3)), representatives);
+        for (Integer representative : ds.getCurrentRepresentatives())
+            ds.union(representative, 3);
+        assertEquals(1, ds.setCount());
+        assertEquals(Collections.singleton(3), ds.getCurrentRepresentatives());
+        representatives.add(5);
+        assertFalse(ds.isPresent(5));
+        ds.clear();
+        assertEquals(0, ds.setCount());
+        assertTrue(ds.getCurrentRepresentatives().isEmpty());
+    }
+
+    /**
+     * Verifica la rimozione di elementi confrontando la foresta, dopo
+     * operazioni casuali, con un modello che assegna ad ogni elemento
+     * l'etichetta del proprio insieme. Controlla inoltre che gli alberi non
+     * conservino più nodi vuoti che elementi presenti.
+     */
+    @Test
+    final void testDelete() {
+        ForestDisjointSets<Integer> ds = new ForestDisjointSets<>(ForestDisjointSets.CompressionStrategy.HALVING);
+        int n = 400;
+        Integer[] labels = new Integer[n]; // null se l'elemento non è presente
+        int nextLabel = 0;
+        Random random = new Random(23);
+        for (int k = 0; k < 6000; k++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            int operation = random.nextInt(3);
+            if (labels[a] == null) {
+                ds.makeSet(a);
+                labels[a] = nextLabel++;
+            }
+            else if (operation == 0) {
+                ds.delete(a);
+                labels[a] = null;
+                assertFalse(ds.isPresent(a));
+                assertNull(ds.findSet(a));
+            }
+            else if (labels[b] != null) {
+                ds.union(a, b);
+                Integer old = labels[a];
+                for (int i = 0; i < n; i++)
+                    if (old.equals(labels[i]))
+                        labels[i] = labels[b];
+            }
+
+            int e = random.nextInt(n);
+            if (labels[e] == null)
+                continue;
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < n; i++)
+                if (labels[e].equals(labels[i]))
+                    expected.add(i);
+            assertEquals(expected, ds.getCurrentElementsOfSetContaining(e));
+            assertEquals(expected.size(), ds.getSetSize(e));
+            assertTrue(expected.contains(ds.findSet(e)));
+        }
+
+        Set<Integer> labelSet = new HashSet<>();
+        Set<ForestDisjointSets.Node<Integer>> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < n; i++)
+            if (labels[i] != null) {
+                labelSet.add(labels[i]);
+                assertTrue(ds.getCurrentRepresentatives().contains(ds.findSet(i)));
+                for (ForestDisjointSets.Node<Integer> node = ds.currentElements.get(i); nodes.add(node); node = node.parent)
+                    ;
+            }
+        assertEquals(labelSet.size(), ds.setCount());
+        assertTrue(nodes.size() <= 2 * ds.currentElements.size());
+
+        // Un elemento rimosso può essere reinserito
+        int e = random.nextInt(n);
+        if (labels[e] != null)
+            ds.delete(e);
+        ds.makeSet(e);
+        assertEquals(Collections.singleton(e), ds.getCurrentElementsOfSetContaining(e));
+        assertThrows(NullPointerException.class, () -> ds.delete(null));
+        assertThrows(IllegalArgumentException.class, () -> ds.delete(n));
+    }
+
+    /**
+     * Verifica unionAll e findAll: le coppie unite a blocchi danno lo stesso
+     * risultato delle unioni una alla volta, un blocco non valido non
+     * modifica la foresta e findAll restituisce null per gli elementi non
+     * presenti.
+     */
+    @Test
+    final void testBatchOperations() {
+        int n = 200;
+        Random random = new Random(24);
+        List<Integer> pairs = new ArrayList<>();
+        for (int k = 0; k < 2 * 300; k++)
+            pairs.add(random.nextInt(n));
+
+        ForestDisjointSets<Integer> expected = new ForestDisjointSets<>();
+        ForestDisjointSets<Integer> ds = new ForestDisjointSets<>();
+        for (int i = 0; i < n; i++) {
+            expected.makeSet(i);
+            ds.makeSet(i);
+        }
+        BitSet expectedMerged = new BitSet();
+        for (int k = 0; k < pairs.size() / 2; k++) {
+            if (!expected.findSet(pairs.get(2 * k)).equals(expected.findSet(pairs.get(2 * k + 1))))
+                expectedMerged.set(k);
+            expected.union(pairs.get(2 * k), pairs.get(2 * k + 1));
+        }
+        assertEquals(expectedMerged, ds.unionAll(pairs));
+        assertEquals(expected.getCurrentRepresentatives(), ds.getCurrentRepresentatives());
+        for (int i = 0; i < n; i++)
+            assertEquals(expected.findSet(i), ds.findSet(i));
+
+        List<Integer> representatives = new ArrayList<>();
+        ds.findAll(Arrays.asList(3, n, 7), representatives);
+        assertEquals(Arrays.asList(ds.findSet(3), null, ds.findSet(7)), representatives);
+
+        // Un blocco non valido viene rifiutato prima di qualsiasi unione
+        ForestDisjointSets<Integer> fresh = new ForestDisjointSets<>();
+        for (int i = 0; i < 4; i++)
+            fresh.makeSet(i);
+        assertThrows(IllegalArgumentException.class, () -> fresh.unionAll(Arrays.asList(0, 1, 2)));
+        assertThrows(IllegalArgumentException.class, () -> fresh.unionAll(Arrays.asList(0, 1, 2, 9)));
+        assertThrows(NullPointerException.class, () -> fresh.unionAll(Arrays.asList(0, 1, null, 2)));
+        assertThrows(NullPointerException.class, () -> fresh.unionAll(null));
+        assertThrows(NullPointerException.class, () -> fresh.findAll(Arrays.asList(0), null));
+        assertEquals(4, fresh.setCount());
+        assertTrue(fresh.unionAll(new ArrayList<Integer>()).isEmpty());
+    }
+}
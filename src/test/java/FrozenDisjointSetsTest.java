@@ -0,0 +1,96 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe FrozenDisjointSets e per il
+ * metodo freeze di ForestDisjointSets.
+ *
+ * @author Riccardo Catervi
+ *
+ */
+class FrozenDisjointSetsTest {
+
+    @Test
+    final void testFreeze() {
+        ForestDisjointSets<String> forest = new ForestDisjointSets<>();
+        for (String e : Arrays.asList("a", "b", "c", "d"))
+            forest.makeSet(e);
+        forest.union("a", "b");
+        forest.union("c", "b");
+        FrozenDisjointSets<String> frozen = forest.freeze();
+
+        assertEquals(4, frozen.size());
+        assertEquals(2, frozen.setCount());
+        assertEquals("b", frozen.findSet("a"));
+        assertEquals("b", frozen.findSet("c"));
+        assertEquals("d", frozen.findSet("d"));
+        assertNull(frozen.findSet("e"));
+        assertTrue(frozen.connected("a", "c"));
+        assertFalse(frozen.connected("a", "d"));
+        assertEquals(3, frozen.getSetSize("c"));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), frozen.getCurrentElementsOfSetContaining("a"));
+        assertEquals(new HashSet<>(Arrays.asList("b", "d")), frozen.getCurrentRepresentatives());
+        assertEquals(frozen.indexOf("b"), frozen.find(frozen.indexOf("a")));
+        assertEquals(-1, frozen.indexOf("e"));
+        assertFalse(frozen.isPresent("e"));
+        assertFalse(frozen.isPresent(null));
+
+        // Le modifiche successive della foresta non si riflettono sull'istantanea
+        forest.union("a", "d");
+        assertFalse(frozen.connected("a", "d"));
+        assertEquals(2, frozen.setCount());
+    }
+
+    @Test
+    final void testConcurrentLookups() {
+        ForestDisjointSets<Integer> forest = new ForestDisjointSets<>();
+        int n = 20000;
+        for (int i = 0; i < n; i++)
+            forest.makeSet(i);
+        Random random = new Random(22);
+        for (int k = 0; k < 15000; k++)
+            forest.union(random.nextInt(n), random.nextInt(n));
+        FrozenDisjointSets<Integer> frozen = forest.freeze();
+
+        assertEquals(forest.setCount(), frozen.setCount());
+        assertEquals(forest.getCurrentRepresentatives(), frozen.getCurrentRepresentatives());
+        // La foresta non è thread-safe: i valori attesi sono calcolati prima
+        // delle letture parallele dell'istantanea
+        int[] expectedRoots = new int[n];
+        int[] expectedSizes = new int[n];
+        for (int i = 0; i < n; i++) {
+            expectedRoots[i] = forest.findSet(i);
+            expectedSizes[i] = forest.getSetSize(i);
+        }
+        IntStream.range(0, n).parallel().forEach(i -> {
+            assertEquals(expectedRoots[i], frozen.findSet(i).intValue());
+            assertEquals(expectedSizes[i], frozen.getSetSize(i));
+        });
+    }
+
+    @Test
+    final void exceptionsTest() {
+        ForestDisjointSets<String> forest = new ForestDisjointSets<>();
+        forest.makeSet("a");
+        FrozenDisjointSets<String> frozen = forest.freeze();
+        assertThrows(UnsupportedOperationException.class, () -> frozen.makeSet("b"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.union("a", "a"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.clear());
+        assertThrows(UnsupportedOperationException.class, () -> frozen.delete("a"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.unionAll(Arrays.asList("a", "a")));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.getCurrentRepresentatives().add("b"));
+        assertThrows(IllegalArgumentException.class, () -> frozen.getCurrentElementsOfSetContaining("b"));
+        assertThrows(IllegalArgumentException.class, () -> frozen.connected("a", "b"));
+        assertThrows(NullPointerException.class, () -> frozen.findSet(null));
+        assertThrows(IndexOutOfBoundsException.class, () -> frozen.find(1));
+        assertTrue(new ForestDisjointSets<String>().freeze().getCurrentRepresentatives().isEmpty());
+    }
+}
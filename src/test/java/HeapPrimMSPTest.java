@@ -0,0 +1,122 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe HeapPrimMSP.
+ * 
+ * @author Riccardo Catervi
+ *
+ */
+class HeapPrimMSPTest {
+
+    @Test
+    final void testComputeMSP() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(e);
+        GraphNode<String> f = new GraphNode<String>("f");
+        gr.addNode(f);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 7));
+        gr.addEdge(new GraphEdge<String>(a, d, false, 10));
+        gr.addEdge(new GraphEdge<String>(a, e, false, 5));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 3));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 4));
+        gr.addEdge(new GraphEdge<String>(d, e, false, 2));
+        HeapPrimMSP<String> alg = new HeapPrimMSP<String>();
+        Set<GraphEdge<String>> result = new HashSet<GraphEdge<String>>();
+        result.add(new GraphEdge<String>(a, b, false, 1));
+        result.add(new GraphEdge<String>(d, e, false, 2));
+        result.add(new GraphEdge<String>(b, c, false, 3));
+        result.add(new GraphEdge<String>(c, d, false, 4));
+        // f è isolato: il risultato è una foresta
+        assertEquals(result, alg.computeMSP(gr));
+        assertTrue(alg.computeMSP(new AdjacencyMatrixUndirectedGraph<String>()).isEmpty());
+    }
+
+    @Test
+    final void testSparseGraphsMatchKruskal() {
+        Random random = new Random(9);
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<Integer>();
+        int n = 400;
+        for (int i = 0; i < n; i++)
+            gr.addNode(new GraphNode<Integer>(i));
+        for (int k = 0; k < 3 * n; k++)
+            gr.addEdge(new GraphEdge<Integer>(gr.getNodeAtIndex(random.nextInt(n)),
+                    gr.getNodeAtIndex(random.nextInt(n)), false, random.nextDouble()));
+        Set<GraphEdge<Integer>> expected = new KruskalMSP<Integer>().computeMSP(gr);
+        for (int arity = 2; arity <= 6; arity++)
+            assertEquals(expected, new HeapPrimMSP<Integer>(arity).computeMSP(gr));
+    }
+
+    @Test
+    final void testTiedWeightsMatchKruskal() {
+        // Con pochi pesi distinti gli alberi di copertura minimi sono molti:
+        // l'ordine per identificatore deve scegliere lo stesso di Kruskal.
+        Random random = new Random(17);
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<Integer>();
+        int n = 200;
+        for (int i = 0; i < n; i++)
+            gr.addNode(new GraphNode<Integer>(i));
+        for (int k = 0; k < 4 * n; k++)
+            gr.addEdge(new GraphEdge<Integer>(gr.getNodeAtIndex(random.nextInt(n)),
+                    gr.getNodeAtIndex(random.nextInt(n)), false, random.nextInt(3)));
+        Set<GraphEdge<Integer>> expected = new KruskalMSP<Integer>().computeMSP(gr);
+        for (int arity = 2; arity <= 6; arity++)
+            assertEquals(expected, new HeapPrimMSP<Integer>(arity).computeMSP(gr));
+    }
+
+    @Test
+    final void testSignedZeroWeights() {
+        // -0.0 supera il controllo dei pesi ma è minore di 0.0 secondo
+        // Double.compare: lo heap deve usare lo stesso ordine degli archi.
+        double[][] weights = { { 0.0, 0.0, -0.0 }, { -0.0, 0.0, -0.0 } };
+        for (double[] w : weights) {
+            Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+            GraphNode<String> a = new GraphNode<String>("a");
+            gr.addNode(a);
+            GraphNode<String> b = new GraphNode<String>("b");
+            gr.addNode(b);
+            GraphNode<String> c = new GraphNode<String>("c");
+            gr.addNode(c);
+            gr.addEdge(new GraphEdge<String>(a, b, false, w[0]));
+            gr.addEdge(new GraphEdge<String>(a, c, false, w[1]));
+            gr.addEdge(new GraphEdge<String>(b, c, false, w[2]));
+            Set<GraphEdge<String>> expected = new KruskalMSP<String>().computeMSP(gr);
+            assertEquals(2, expected.size());
+            for (int arity = 2; arity <= 4; arity++)
+                assertEquals(expected, new HeapPrimMSP<String>(arity).computeMSP(gr));
+            assertEquals(expected, new DensePrimMSP<String>().computeMSP(gr));
+        }
+    }
+
+    @Test
+    final void exceptionsTest() {
+        assertThrows(IllegalArgumentException.class, () -> new HeapPrimMSP<String>(1));
+        HeapPrimMSP<String> alg = new HeapPrimMSP<String>();
+        assertThrows(NullPointerException.class, () -> alg.computeMSP(null));
+        Graph<String> x = new AdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> A = new GraphNode<>("A");
+        x.addNode(A);
+        GraphNode<String> B = new GraphNode<>("B");
+        x.addNode(B);
+        x.addEdge(new GraphEdge<>(A, B, false));
+        // Archi non pesati
+        assertThrows(IllegalArgumentException.class, () -> alg.computeMSP(x));
+    }
+}
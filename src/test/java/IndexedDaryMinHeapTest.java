@@ -0,0 +1,109 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe IndexedDaryMinHeap.
+ * 
+ * @author Riccardo Catervi
+ *
+ */
+class IndexedDaryMinHeapTest {
+
+    @Test
+    final void testInsertAndExtractMin() {
+        IndexedDaryMinHeap heap = new IndexedDaryMinHeap(5, 3);
+        assertTrue(heap.isEmpty());
+        heap.insert(3, 2.5);
+        heap.insert(0, 7);
+        heap.insert(4, 1);
+        heap.insert(1, 4);
+        assertEquals(4, heap.size());
+        assertTrue(heap.contains(0));
+        assertFalse(heap.contains(2));
+        assertEquals(4, heap.peekMin());
+        assertEquals(4, heap.extractMin());
+        assertEquals(3, heap.extractMin());
+        assertEquals(1, heap.extractMin());
+        assertEquals(0, heap.extractMin());
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(4));
+    }
+
+    @Test
+    final void testDecreaseKey() {
+        IndexedDaryMinHeap heap = new IndexedDaryMinHeap(4, 2);
+        heap.insert(0, 10);
+        heap.insert(1, 20);
+        heap.insert(2, 30);
+        heap.decreaseKey(2, 5);
+        assertEquals(5, heap.getKey(2));
+        assertEquals(2, heap.extractMin());
+        // Chiave invariata ammessa, chiave maggiore no
+        heap.decreaseKey(1, 20);
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(1, 21));
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(0));
+        heap.insert(0, 1);
+        assertEquals(0, heap.extractMin());
+    }
+
+    @Test
+    final void testTieBreaking() {
+        IndexedDaryMinHeap heap = new IndexedDaryMinHeap(4, 2);
+        heap.insert(0, 1, 9);
+        heap.insert(1, 1, 4);
+        heap.insert(2, 1, 7);
+        heap.insert(3, 2, 0);
+        // A parità di chiave, stessa seconda chiave ammessa, maggiore no
+        heap.decreaseKey(0, 1, 3);
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(2, 1, 8));
+        heap.decreaseKey(2, 1, 7);
+        assertEquals(0, heap.extractMin());
+        assertEquals(1, heap.extractMin());
+        assertEquals(2, heap.extractMin());
+        assertEquals(3, heap.extractMin());
+    }
+
+    @Test
+    final void testRandomOperationsSortKeys() {
+        Random random = new Random(1);
+        for (int arity = 2; arity <= 8; arity++) {
+            int n = 1000;
+            IndexedDaryMinHeap heap = new IndexedDaryMinHeap(n, arity);
+            double[] keys = new double[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = random.nextDouble();
+                heap.insert(i, keys[i]);
+            }
+            for (int i = 0; i < n; i += 3) {
+                keys[i] /= 2;
+                heap.decreaseKey(i, keys[i]);
+            }
+            double[] extracted = new double[n];
+            for (int i = 0; i < n; i++)
+                extracted[i] = keys[heap.extractMin()];
+            Arrays.sort(keys);
+            assertArrayEquals(keys, extracted);
+        }
+    }
+
+    @Test
+    final void exceptionsTest() {
+        assertThrows(IllegalArgumentException.class, () -> new IndexedDaryMinHeap(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new IndexedDaryMinHeap(3, 1));
+        IndexedDaryMinHeap heap = new IndexedDaryMinHeap(3, 2);
+        assertThrows(NoSuchElementException.class, () -> heap.extractMin());
+        assertThrows(NoSuchElementException.class, () -> heap.getKey(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> heap.insert(3, 0));
+        heap.insert(1, 0);
+        assertThrows(IllegalArgumentException.class, () -> heap.insert(1, 0));
+    }
+}
@@ -0,0 +1,211 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi delle classi IntDisjointSets e
+ * IndexedDisjointSets.
+ *
+ * @author Riccardo Catervi
+ *
+ */
+class IntDisjointSetsTest {
+
+    @Test
+    final void testUnionFind() {
+        IntDisjointSets ds = new IntDisjointSets(5);
+        assertEquals(5, ds.size());
+        assertEquals(5, ds.setCount());
+        assertEquals(3, ds.find(3));
+        assertTrue(ds.union(0, 1));
+        assertFalse(ds.union(1, 0));
+        assertTrue(ds.union(2, 3));
+        assertTrue(ds.union(1, 3));
+        assertEquals(2, ds.setCount());
+        assertTrue(ds.connected(0, 2));
+        assertFalse(ds.connected(0, 4));
+        assertEquals(4, ds.setSize(0));
+        assertEquals(1, ds.setSize(4));
+        // A parità di rango diventa rappresentante la radice del secondo elemento
+        assertEquals(3, ds.find(0));
+        assertEquals(3, ds.find(1));
+    }
+
+    @Test
+    final void testMakeSetAndClear() {
+        IntDisjointSets ds = new IntDisjointSets();
+        for (int i = 0; i < 100; i++)
+            assertEquals(i, ds.makeSet());
+        for (int i = 1; i < 100; i++)
+            ds.union(i - 1, i);
+        assertEquals(1, ds.setCount());
+        assertEquals(100, ds.setSize(42));
+        ds.clear();
+        assertEquals(0, ds.size());
+        assertEquals(0, ds.setCount());
+        assertEquals(0, ds.makeSet());
+        assertEquals(1, ds.setSize(0));
+    }
+
+    @Test
+    final void testMatchesForestDisjointSets() {
+        Random random = new Random(14);
+        int n = 2000;
+        IntDisjointSets ints = new IntDisjointSets(n);
+        IndexedDisjointSets<Integer> indexed = new IndexedDisjointSets<Integer>();
+        ForestDisjointSets<Integer> forest = new ForestDisjointSets<Integer>();
+        for (int i = 0; i < n; i++) {
+            indexed.makeSet(i);
+            forest.makeSet(i);
+        }
+        for (int k = 0; k < 3000; k++) {
+            int i = random.nextInt(n);
+            int j = random.nextInt(n);
+            ints.union(i, j);
+            indexed.union(i, j);
+            forest.union(i, j);
+        }
+        // Stesse regole di unione, quindi stessi rappresentanti
+        for (int i = 0; i < n; i++) {
+            assertEquals(forest.findSet(i).intValue(), ints.find(i));
+            assertEquals(forest.findSet(i), indexed.findSet(i));
+            assertEquals(forest.getCurrentElementsOfSetContaining(i).size(), ints.setSize(i));
+        }
+        assertEquals(forest.getCurrentRepresentatives(), indexed.getCurrentRepresentatives());
+        assertEquals(forest.getCurrentRepresentatives().size(), ints.setCount());
+        assertEquals(ints.setCount(), indexed.setCount());
+        assertEquals(forest.getCurrentElementsOfSetContaining(7), indexed.getCurrentElementsOfSetContaining(7));
+    }
+
+    @Test
+    final void testIndexedDisjointSets() {
+        IndexedDisjointSets<String> ds = new IndexedDisjointSets<String>();
+        assertFalse(ds.isPresent("a"));
+        assertFalse(ds.isPresent(null));
+        assertFalse(new ForestDisjointSets<String>().isPresent(null));
+        ds.makeSet("a");
+        ds.makeSet("b");
+        assertTrue(ds.isPresent("a"));
+        assertNull(ds.findSet("c"));
+        ds.union("a", "b");
+        assertEquals("b", ds.findSet("a"));
+        assertEquals(1, ds.setCount());
+        ds.clear();
+        assertFalse(ds.isPresent("a"));
+        assertTrue(ds.getCurrentRepresentatives().isEmpty());
+    }
+
+    @Test
+    final void testBatchOperations() {
+        int n = 300;
+        Random random = new Random(24);
+        int[] pairs = new int[2 * 500];
+        for (int k = 0; k < pairs.length; k++)
+            pairs[k] = random.nextInt(n);
+
+        // Riferimento: unioni una alla volta
+        IntDisjointSets expected = new IntDisjointSets(n);
+        BitSet expectedMerged = new BitSet();
+        for (int k = 0; k < pairs.length / 2; k++)
+            if (expected.union(pairs[2 * k], pairs[2 * k + 1]))
+                expectedMerged.set(k);
+
+        IntDisjointSets ints = new IntDisjointSets(n);
+        BitSet merged = ints.unionAll(pairs, 0, 400);
+        BitSet tail = ints.unionAll(pairs, 400, pairs.length);
+        for (int k = tail.nextSetBit(0); k >= 0; k = tail.nextSetBit(k + 1))
+            merged.set(200 + k);
+        assertEquals(expectedMerged, merged);
+        int[] elements = new int[n];
+        for (int i = 0; i < n; i++)
+            elements[i] = n - 1 - i;
+        int[] roots = new int[n];
+        ints.findAll(elements, roots);
+        for (int i = 0; i < n; i++)
+            assertEquals(expected.find(elements[i]), roots[i]);
+
+        // Le implementazioni di DisjointSets, compresa quella di default
+        List<Integer> list = new ArrayList<>();
+        for (int p : pairs)
+            list.add(p);
+        List<DisjointSets<Integer>> all = new ArrayList<>();
+        all.add(new ForestDisjointSets<>());
+        all.add(new IndexedDisjointSets<>());
+        for (DisjointSets<Integer> ds : all)
+            for (int i = 0; i < n; i++)
+                ds.makeSet(i);
+        all.add(ConcurrentDisjointSets.ofSize(n));
+        for (DisjointSets<Integer> ds : all) {
+            assertEquals(expectedMerged, ds.unionAll(list));
+            List<Integer> representatives = new ArrayList<>();
+            ds.findAll(Arrays.asList(3, n, 7), representatives);
+            assertEquals(ds.findSet(3), representatives.get(0));
+            assertNull(representatives.get(1));
+            assertEquals(ds.findSet(7), representatives.get(2));
+            for (int k = 0; k < pairs.length; k += 2)
+                assertEquals(ds.findSet(pairs[k]), ds.findSet(pairs[k + 1]));
+
+            // Un blocco non valido non modifica la struttura
+            int sets = ds.getCurrentRepresentatives().size();
+            assertThrows(IllegalArgumentException.class, () -> ds.unionAll(Arrays.asList(0, 1, 2)));
+            assertThrows(IllegalArgumentException.class, () -> ds.unionAll(Arrays.asList(0, 1, 2, n)));
+            assertThrows(NullPointerException.class, () -> ds.unionAll(Arrays.asList(0, null)));
+            assertEquals(sets, ds.getCurrentRepresentatives().size());
+        }
+    }
+
+    @Test
+    final void exceptionsTest() {
+        assertThrows(IllegalArgumentException.class, () -> new IntDisjointSets(-1));
+        IntDisjointSets ints = new IntDisjointSets(2);
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.find(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.union(0, -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.setSize(5));
+        assertThrows(IllegalArgumentException.class, () -> ints.unionAll(new int[] { 0, 1, 0 }, 0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.unionAll(new int[] { 0, 1 }, 0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.unionAll(new int[] { 0, 1, 0, 2 }, 0, 4));
+        assertEquals(2, ints.setCount());
+        assertThrows(IllegalArgumentException.class, () -> ints.findAll(new int[] { 0, 1 }, new int[1]));
+        assertThrows(NullPointerException.class, () -> ints.findAll(null, new int[1]));
+        IndexedDisjointSets<String> ds = new IndexedDisjointSets<String>();
+        ds.makeSet("a");
+        assertThrows(NullPointerException.class, () -> ds.makeSet(null));
+        assertThrows(IllegalArgumentException.class, () -> ds.makeSet("a"));
+        assertThrows(IllegalArgumentException.class, () -> ds.union("a", "b"));
+        assertThrows(NullPointerException.class, () -> ds.union(null, "a"));
+        assertThrows(IllegalArgumentException.class, () -> ds.getCurrentElementsOfSetContaining("b"));
+    }
+
+    @Test
+    final void testIndexedBatchOperations() {
+        IndexedDisjointSets<String> ds = new IndexedDisjointSets<String>();
+        for (String e : Arrays.asList("a", "b", "c", "d"))
+            ds.makeSet(e);
+        // La terza coppia è già nello stesso insieme dopo le prime due
+        BitSet merged = ds.unionAll(Arrays.asList("a", "b", "b", "c", "c", "a", "d", "d"));
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(1);
+        assertEquals(expected, merged);
+        assertEquals(2, ds.setCount());
+        assertEquals(ds.findSet("a"), ds.findSet("c"));
+
+        List<String> representatives = new ArrayList<>();
+        ds.findAll(Arrays.asList("a", "x", "d"), representatives);
+        assertEquals(Arrays.asList(ds.findSet("a"), null, "d"), representatives);
+
+        // Un blocco non valido viene rifiutato prima di qualsiasi unione
+        assertThrows(IllegalArgumentException.class, () -> ds.unionAll(Arrays.asList("a", "d", "b")));
+        assertThrows(IllegalArgumentException.class, () -> ds.unionAll(Arrays.asList("a", "d", "b", "x")));
+        assertThrows(NullPointerException.class, () -> ds.unionAll(Arrays.asList("a", null)));
+        assertEquals(2, ds.setCount());
+    }
+}
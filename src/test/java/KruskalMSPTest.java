@@ -3,6 +3,7 @@ package it.unicam.cs.asdl2425.mp2;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -293,4 +294,223 @@ class KruskalMSPTest {
         assertEquals(result, alg.computeMSP(gr),
                 "Il risultato non corrisponde all'MST del grafo disconnesso.");
     }
+
+    @Test
+    final void testComputeMSPOnPrimitiveArrays() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(e);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 7));
+        gr.addEdge(new GraphEdge<String>(a, d, false, 10));
+        gr.addEdge(new GraphEdge<String>(a, e, false, 5));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 3));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 4));
+        gr.addEdge(new GraphEdge<String>(d, e, false, 2));
+        KruskalMSP<String> alg = new KruskalMSP<String>();
+        Set<GraphEdge<String>> result = new HashSet<GraphEdge<String>>();
+        result.add(new GraphEdge<String>(a, b, false, 1));
+        result.add(new GraphEdge<String>(d, e, false, 2));
+        result.add(new GraphEdge<String>(b, c, false, 3));
+        result.add(new GraphEdge<String>(c, d, false, 4));
+        assertEquals(result, alg.computeMSPOnPrimitiveArrays(gr));
+
+        // Grafo vuoto e grafo con un solo nodo
+        Graph<String> empty = new AdjacencyMatrixUndirectedGraph<String>();
+        assertTrue(alg.computeMSPOnPrimitiveArrays(empty).isEmpty());
+        empty.addNode(a);
+        assertTrue(alg.computeMSPOnPrimitiveArrays(empty).isEmpty());
+
+        // Eccezioni
+        assertThrows(NullPointerException.class, () -> alg.computeMSPOnPrimitiveArrays(null));
+        gr.addEdge(new GraphEdge<String>(b, e, false, -1));
+        assertThrows(IllegalArgumentException.class, () -> alg.computeMSPOnPrimitiveArrays(gr));
+    }
+
+    @Test
+    final void testComputeMSPOnPrimitiveArraysMatchesComputeMSP() {
+        // Grafo casuale con molti pesi uguali e più componenti connesse:
+        // le due modalità devono restituire esattamente lo stesso insieme.
+        Graph<Integer> gr = randomGraph(200, 1500, 20, new Random(42));
+        KruskalMSP<Integer> alg = new KruskalMSP<Integer>();
+        assertEquals(alg.computeMSP(gr), alg.computeMSPOnPrimitiveArrays(gr));
+    }
+
+    @Test
+    final void testEnginesOnGraphWithoutIndexes() {
+        // Gli algoritmi basati su IndexedEdgeList numerano da sé i nodi se il
+        // grafo non supporta le operazioni sugli indici.
+        Graph<Integer> source = randomGraph(150, 1000, 20, new Random(44));
+        Graph<Integer> gr = new GraphWithoutIndexes<Integer>();
+        for (GraphNode<Integer> node : source.getNodes())
+            gr.addNode(node);
+        for (GraphEdge<Integer> edge : source.getEdges())
+            gr.addEdge(edge);
+        assertThrows(UnsupportedOperationException.class, () -> gr.getNodeIndexOf(0));
+
+        Set<GraphEdge<Integer>> expected = new KruskalMSP<Integer>().computeMSP(gr);
+        assertEquals(expected, new KruskalMSP<Integer>().computeMSPOnPrimitiveArrays(gr));
+        assertEquals(expected, new FilterKruskalMSP<Integer>().computeMSP(gr));
+        assertEquals(expected, new BoruvkaMSP<Integer>().computeMSP(gr));
+        assertEquals(expected, new HeapPrimMSP<Integer>().computeMSP(gr));
+        assertEquals(expected, new DensePrimMSP<Integer>().computeMSP(gr));
+    }
+
+    @Test
+    final void testIndexVisitFailureIsNotHidden() {
+        // Il grafo supporta gli indici: un errore durante la visita degli
+        // archi sugli indici non deve attivare la numerazione alternativa.
+        Graph<Integer> source = randomGraph(20, 50, 5, new Random(45));
+        Graph<Integer> gr = new GraphWithFailingIndexVisit<Integer>();
+        for (int i = 0; i < source.nodeCount(); i++)
+            gr.addNode(source.getNodeAtIndex(i));
+        for (GraphEdge<Integer> edge : source.getEdges())
+            gr.addEdge(edge);
+        assertThrows(UnsupportedOperationException.class, () -> new FilterKruskalMSP<Integer>().computeMSP(gr));
+        assertThrows(UnsupportedOperationException.class, () -> new BoruvkaMSP<Integer>().computeMSP(gr));
+    }
+
+    @Test
+    final void testComputeMSPWithIndexedDisjointSets() {
+        Graph<Integer> gr = randomGraph(200, 1500, 20, new Random(43));
+        KruskalMSP<Integer> alg = new KruskalMSP<Integer>(new IndexedDisjointSets<GraphNode<Integer>>());
+        // La struttura viene svuotata a ogni computazione
+        assertEquals(new KruskalMSP<Integer>().computeMSP(gr), alg.computeMSP(gr));
+        assertEquals(new KruskalMSP<Integer>().computeMSP(gr), alg.computeMSP(gr));
+        assertThrows(NullPointerException.class, () -> new KruskalMSP<Integer>(null));
+    }
+
+    @Test
+    final void testEarlyTermination() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 2));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 3));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 4));
+        gr.addEdge(new GraphEdge<String>(a, d, false, 5));
+        gr.addEdge(new GraphEdge<String>(b, d, false, 6));
+        KruskalMSP<String> alg = new KruskalMSP<String>();
+        Set<GraphEdge<String>> result = new HashSet<GraphEdge<String>>();
+        result.add(new GraphEdge<String>(a, b, false, 1));
+        result.add(new GraphEdge<String>(b, c, false, 2));
+        result.add(new GraphEdge<String>(c, d, false, 3));
+        // I tre archi più pesanti non vengono esaminati
+        assertEquals(result, alg.computeMSP(gr));
+        assertEquals(3, alg.getSkippedEdgeCount());
+        assertEquals(result, alg.computeMSPOnPrimitiveArrays(gr));
+        assertEquals(3, alg.getSkippedEdgeCount());
+
+        // Grafo con due componenti connesse: senza conoscerne il numero
+        // vengono esaminati tutti gli archi
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(e);
+        GraphNode<String> f = new GraphNode<String>("f");
+        gr.addNode(f);
+        gr.addEdge(new GraphEdge<String>(e, f, false, 0.5));
+        result.add(new GraphEdge<String>(e, f, false, 0.5));
+        assertEquals(result, alg.computeMSP(gr));
+        assertEquals(0, alg.getSkippedEdgeCount());
+        assertEquals(result, alg.computeMSP(gr, 2));
+        assertEquals(3, alg.getSkippedEdgeCount());
+        assertEquals(result, alg.computeMSPOnPrimitiveArrays(gr, 2));
+        assertEquals(3, alg.getSkippedEdgeCount());
+
+        // Numero di componenti non valido
+        assertThrows(IllegalArgumentException.class, () -> alg.computeMSP(gr, 0));
+        assertThrows(IllegalArgumentException.class, () -> alg.computeMSPOnPrimitiveArrays(gr, 7));
+    }
+
+    @Test
+    final void testLazyHeapOrdering() {
+        Graph<Integer> gr = randomGraph(300, 4000, 50, new Random(7));
+        KruskalMSP<Integer> alg = new KruskalMSP<Integer>();
+        Set<GraphEdge<Integer>> expected = alg.computeMSP(gr);
+        int expectedExtracted = alg.getExtractedEdgeCount();
+
+        // Lo heap restituisce gli archi nello stesso ordine dell'ordinamento
+        // completo, quindi il risultato e gli archi estratti coincidono
+        assertEquals(expected, alg.computeMSPOnPrimitiveArrays(gr, KruskalMSP.EdgeOrdering.LAZY_HEAP));
+        assertEquals(expectedExtracted, alg.getExtractedEdgeCount());
+        assertEquals(gr.edgeCount(), alg.getExtractedEdgeCount() + alg.getSkippedEdgeCount());
+
+        // Con il numero di componenti noto lo heap viene svuotato solo in parte
+        UndirectedGraphConnectedComponentsComputer<Integer> cc = new UndirectedGraphConnectedComponentsComputer<Integer>();
+        int components = cc.computeConnectedComponents(gr).size();
+        assertEquals(expected, alg.computeMSPOnPrimitiveArrays(gr, components, KruskalMSP.EdgeOrdering.LAZY_HEAP));
+        assertTrue(alg.getExtractedEdgeCount() < gr.edgeCount());
+        assertEquals(expected, alg.computeMSPOnPrimitiveArrays(gr, components, KruskalMSP.EdgeOrdering.FULL_SORT));
+
+        assertThrows(NullPointerException.class, () -> alg.computeMSPOnPrimitiveArrays(gr, null));
+    }
+
+    /*
+     * Costruisce un grafo casuale con nodesCount nodi, al più edgesCount archi
+     * e pesi interi in [0, maxWeight).
+     */
+    static Graph<Integer> randomGraph(int nodesCount, int edgesCount, int maxWeight, Random random) {
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < nodesCount; i++)
+            gr.addNode(new GraphNode<Integer>(i));
+        for (int k = 0; k < edgesCount; k++) {
+            GraphNode<Integer> u = gr.getNodeAtIndex(random.nextInt(nodesCount));
+            GraphNode<Integer> v = gr.getNodeAtIndex(random.nextInt(nodesCount));
+            if (!u.equals(v))
+                gr.addEdge(new GraphEdge<Integer>(u, v, false, random.nextInt(maxWeight)));
+        }
+        return gr;
+    }
+
+    /*
+     * Grafo che non supporta le operazioni opzionali sugli indici dei nodi.
+     */
+    private static class GraphWithoutIndexes<L> extends AdjacencyMatrixUndirectedGraph<L> {
+
+        @Override
+        public int getNodeIndexOf(L label) {
+            throw new UnsupportedOperationException("Operazioni sugli indici non supportate");
+        }
+
+        @Override
+        public GraphNode<L> getNodeAtIndex(int i) {
+            throw new UnsupportedOperationException("Operazioni sugli indici non supportate");
+        }
+
+        @Override
+        public void forEachEdgeIndex(EdgeIndexConsumer action) {
+            throw new UnsupportedOperationException("Operazioni sugli indici non supportate");
+        }
+
+        @Override
+        public GraphEdge<L> getEdgeAt(int i, int j) {
+            throw new UnsupportedOperationException("Operazioni sugli indici non supportate");
+        }
+    }
+
+    /*
+     * Grafo che supporta gli indici dei nodi ma la cui visita degli archi
+     * sugli indici fallisce.
+     */
+    private static class GraphWithFailingIndexVisit<L> extends AdjacencyMatrixUndirectedGraph<L> {
+
+        @Override
+        public void forEachEdgeIndex(EdgeIndexConsumer action) {
+            throw new UnsupportedOperationException("Visita degli archi non riuscita");
+        }
+    }
 }
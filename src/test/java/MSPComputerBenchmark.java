@@ -0,0 +1,103 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Semplice benchmark, eseguibile tramite il metodo main, che confronta i tempi
+ * delle diverse implementazioni di {@code MSPComputer} sugli stessi grafi,
+ * uno denso e uno sparso, rappresentati con
+ * {@code AdjacencyMatrixUndirectedGraph}; il grafo sparso viene misurato anche
+ * come {@code CompressedSparseRowUndirectedGraph}. Non è un test JUnit: viene eseguito a mano, ad esempio con
+ * 
+ * <pre>
+ * java -cp out it.unicam.cs.asdl2425.mp2.MSPComputerBenchmark 1500
+ * </pre>
+ * 
+ * Ogni algoritmo viene eseguito e misurato con {@code BenchmarkRunner}, che
+ * verifica anche che tutti gli algoritmi restituiscano lo stesso insieme di
+ * archi.
+ * 
+ * @author Riccardo Catervi
+ *
+ */
+public class MSPComputerBenchmark {
+
+    private static final int SPARSE_DEGREE = 10;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        Random random = new Random(42);
+        run("Grafo completo", completeGraph(n, random));
+        Graph<Integer> sparse = sparseGraph(4 * n, SPARSE_DEGREE, random);
+        run("Grafo sparso", sparse);
+        run("Grafo sparso (CSR)",
+                new CompressedSparseRowUndirectedGraph<Integer>(sparse.getNodes(), sparse.getEdges()));
+    }
+
+    /*
+     * Esegue e misura tutti gli algoritmi sullo stesso grafo.
+     */
+    private static void run(String title, Graph<Integer> g) {
+        System.out.println(title + ": " + g.nodeCount() + " nodi, " + g.edgeCount() + " archi");
+
+        Map<String, MSPComputer<Integer>> computers = new LinkedHashMap<>();
+        final KruskalMSP<Integer> kruskal = new KruskalMSP<Integer>();
+        computers.put("KruskalMSP.computeMSP", kruskal);
+        computers.put("KruskalMSP.computeMSPOnPrimitiveArrays", graph -> kruskal.computeMSPOnPrimitiveArrays(graph));
+        computers.put("FilterKruskalMSP", new FilterKruskalMSP<Integer>());
+        computers.put("BoruvkaMSP", new BoruvkaMSP<Integer>());
+        computers.put("DensePrimMSP", new DensePrimMSP<Integer>());
+        computers.put("HeapPrimMSP", new HeapPrimMSP<Integer>());
+
+        BenchmarkRunner<Set<GraphEdge<Integer>>> runner = new BenchmarkRunner<>(false);
+        for (Map.Entry<String, MSPComputer<Integer>> entry : computers.entrySet())
+            runner.run(entry.getKey(), () -> entry.getValue().computeMSP(g));
+    }
+
+    /*
+     * Costruisce un grafo completo con n nodi e pesi casuali in [0, 1).
+     * L'hashCode degli archi somma quelli dei nodi: con etichette consecutive
+     * tutte le coppie con la stessa somma collidono e i tempi degli algoritmi
+     * che usano mappe di archi esploderebbero, per questo le etichette sono
+     * interi casuali distinti.
+     */
+    static Graph<Integer> completeGraph(int n, Random random) {
+        Graph<Integer> g = new AdjacencyMatrixUndirectedGraph<Integer>();
+        List<GraphNode<Integer>> nodes = new ArrayList<>(n);
+        while (nodes.size() < n) {
+            GraphNode<Integer> node = new GraphNode<Integer>(random.nextInt());
+            if (g.addNode(node))
+                nodes.add(node);
+        }
+        for (int i = 0; i < n; i++)
+            for (int j = i + 1; j < n; j++)
+                g.addEdge(new GraphEdge<Integer>(nodes.get(i), nodes.get(j), false, random.nextDouble()));
+        return g;
+    }
+
+    /*
+     * Costruisce un grafo con n nodi e grado medio circa pari a degree: un
+     * cammino che garantisce la connessione più archi casuali.
+     */
+    static Graph<Integer> sparseGraph(int n, int degree, Random random) {
+        Graph<Integer> g = new AdjacencyMatrixUndirectedGraph<Integer>();
+        List<GraphNode<Integer>> nodes = new ArrayList<>(n);
+        while (nodes.size() < n) {
+            GraphNode<Integer> node = new GraphNode<Integer>(random.nextInt());
+            if (g.addNode(node))
+                nodes.add(node);
+        }
+        for (int i = 1; i < n; i++)
+            g.addEdge(new GraphEdge<Integer>(nodes.get(i - 1), nodes.get(i), false, random.nextDouble()));
+        long edges = (long) n * degree / 2;
+        for (long k = n - 1; k < edges; k++)
+            g.addEdge(new GraphEdge<Integer>(nodes.get(random.nextInt(n)), nodes.get(random.nextInt(n)), false,
+                    random.nextDouble()));
+        return g;
+    }
+}
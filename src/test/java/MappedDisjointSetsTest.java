@@ -0,0 +1,121 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Classe di test per i metodi della classe MappedDisjointSets. I file sono
+ * creati in una cartella temporanea; segmenti di pochi elementi permettono di
+ * verificare la suddivisione degli array anche con file piccoli.
+ *
+ * @author Riccardo Catervi
+ *
+ */
+class MappedDisjointSetsTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    final void testDisjointSets() {
+        try (MappedDisjointSets ds = MappedDisjointSets.create(folder.resolve("sets.bin"), 10)) {
+            assertEquals(10, ds.capacity());
+            assertEquals(0, ds.size());
+            assertFalse(ds.isPresent(3L));
+            ds.makeSet(1L);
+            ds.makeSet(2L);
+            ds.makeSet(3L);
+            assertEquals(Long.valueOf(2), ds.findSet(2L));
+            assertNull(ds.findSet(4L));
+            ds.union(1L, 2L);
+            // A parità di rango diventa rappresentante la radice del secondo elemento
+            assertEquals(Long.valueOf(2), ds.findSet(1L));
+            assertEquals(2, ds.setCount());
+            assertEquals(3, ds.size());
+            assertEquals(new HashSet<Long>(Arrays.asList(1L, 2L)), ds.getCurrentElementsOfSetContaining(1L));
+            assertEquals(new HashSet<Long>(Arrays.asList(2L, 3L)), ds.getCurrentRepresentatives());
+            assertTrue(ds.connected(1, 2));
+            assertFalse(ds.connected(1, 3));
+            ds.clear();
+            assertEquals(0, ds.setCount());
+            assertFalse(ds.isPresent(1L));
+            assertTrue(ds.getCurrentRepresentatives().isEmpty());
+        }
+    }
+
+    @Test
+    final void testSegmentsAndReopen() {
+        Path file = folder.resolve("segments.bin");
+        int n = 5000;
+        Random random = new Random(21);
+        int[][] pairs = new int[4000][];
+        for (int k = 0; k < pairs.length; k++)
+            pairs[k] = new int[] { random.nextInt(n), random.nextInt(n) };
+        IntDisjointSets expected = new IntDisjointSets(n);
+        for (int[] pair : pairs)
+            expected.union(pair[0], pair[1]);
+
+        // Segmenti di 2^8 elementi
+        try (MappedDisjointSets ds = MappedDisjointSets.create(file, n, 8)) {
+            for (long i = 0; i < n; i++)
+                ds.makeSet(i);
+            for (int k = 0; k < pairs.length / 2; k++)
+                ds.union(pairs[k][0], pairs[k][1]);
+        }
+        // La struttura riaperta prosegue da dove era stata lasciata
+        try (MappedDisjointSets ds = MappedDisjointSets.open(file, 8)) {
+            assertEquals(n, ds.size());
+            for (int k = pairs.length / 2; k < pairs.length; k++)
+                ds.union(pairs[k][0], pairs[k][1]);
+            assertEquals(expected.setCount(), ds.setCount());
+            for (int i = 0; i < n; i++) {
+                assertEquals(expected.find(i), ds.find(i));
+                assertEquals(expected.connected(i, (i * 7) % n), ds.connected(i, (i * 7) % n));
+            }
+        }
+    }
+
+    @Test
+    final void exceptionsTest() throws IOException {
+        assertThrows(NullPointerException.class, () -> MappedDisjointSets.create(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> MappedDisjointSets.create(folder.resolve("a.bin"), -1));
+        Path other = Files.write(folder.resolve("other.bin"), new byte[100]);
+        assertThrows(IllegalArgumentException.class, () -> MappedDisjointSets.open(other));
+        // Intestazioni corrotte: capacità negativa, che causa overflow o
+        // maggiore di quella contenuta nel file
+        assertThrows(IllegalArgumentException.class, () -> MappedDisjointSets.open(withCapacity("c.bin", -1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> MappedDisjointSets.open(withCapacity("d.bin", Long.MAX_VALUE / 2)));
+        assertThrows(IllegalArgumentException.class, () -> MappedDisjointSets.open(withCapacity("e.bin", 1000)));
+        try (MappedDisjointSets ds = MappedDisjointSets.create(folder.resolve("b.bin"), 2)) {
+            ds.makeSet(0L);
+            assertThrows(IllegalArgumentException.class, () -> ds.makeSet(0L));
+            assertThrows(IndexOutOfBoundsException.class, () -> ds.makeSet(2L));
+            assertThrows(IllegalArgumentException.class, () -> ds.union(0L, 1L));
+            assertThrows(IllegalArgumentException.class, () -> ds.find(1));
+            assertThrows(NullPointerException.class, () -> ds.findSet(null));
+        }
+    }
+
+    /*
+     * Crea una struttura valida di 4 elementi e sovrascrive la capacità
+     * nella sua intestazione.
+     */
+    private Path withCapacity(String name, long capacity) throws IOException {
+        Path file = folder.resolve(name);
+        MappedDisjointSets.create(file, 4).close();
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putLong(8, capacity);
+        return Files.write(file, bytes);
+    }
+}
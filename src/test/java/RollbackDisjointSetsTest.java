@@ -0,0 +1,107 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe RollbackDisjointSets.
+ *
+ * @author Riccardo Catervi
+ *
+ */
+class RollbackDisjointSetsTest {
+
+    @Test
+    final void testUnionFind() {
+        RollbackDisjointSets ds = new RollbackDisjointSets(4);
+        assertTrue(ds.union(0, 1));
+        assertFalse(ds.union(1, 0));
+        assertTrue(ds.union(2, 3));
+        assertTrue(ds.union(0, 3));
+        assertEquals(1, ds.setCount());
+        assertEquals(4, ds.setSize(2));
+        // A parità di rango diventa rappresentante la radice del secondo elemento
+        assertEquals(3, ds.find(0));
+        assertTrue(ds.connected(1, 2));
+    }
+
+    @Test
+    final void testRollback() {
+        RollbackDisjointSets ds = new RollbackDisjointSets(6);
+        ds.union(0, 1);
+        int base = ds.checkpoint();
+
+        ds.union(1, 2);
+        int middle = ds.checkpoint();
+        int added = ds.makeSet();
+        assertEquals(6, added);
+        ds.union(added, 0);
+        ds.union(3, 4);
+        assertEquals(3, ds.setCount());
+        assertEquals(4, ds.setSize(2));
+
+        ds.rollback(middle);
+        assertEquals(6, ds.size());
+        assertEquals(4, ds.setCount());
+        assertEquals(3, ds.setSize(0));
+        assertFalse(ds.connected(3, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> ds.find(6));
+
+        ds.rollback(base);
+        assertEquals(5, ds.setCount());
+        assertTrue(ds.connected(0, 1));
+        assertFalse(ds.connected(1, 2));
+        assertEquals(2, ds.setSize(1));
+        assertEquals(1, ds.setSize(2));
+        assertEquals(base, ds.checkpoint());
+    }
+
+    @Test
+    final void testScenariosShareBase() {
+        int n = 1000;
+        Random random = new Random(19);
+        int[][] basePairs = randomPairs(n, 400, random);
+        RollbackDisjointSets ds = new RollbackDisjointSets(n);
+        for (int[] pair : basePairs)
+            ds.union(pair[0], pair[1]);
+        int base = ds.checkpoint();
+
+        // Ogni scenario parte dalla stessa base e deve coincidere con una
+        // struttura ricostruita da zero
+        for (int scenario = 0; scenario < 20; scenario++) {
+            int[][] pairs = randomPairs(n, 300, random);
+            IntDisjointSets expected = new IntDisjointSets(n);
+            for (int[] pair : basePairs)
+                expected.union(pair[0], pair[1]);
+            for (int[] pair : pairs) {
+                expected.union(pair[0], pair[1]);
+                ds.union(pair[0], pair[1]);
+            }
+            assertEquals(expected.setCount(), ds.setCount());
+            for (int i = 0; i < n; i++) {
+                assertEquals(expected.setSize(i), ds.setSize(i));
+                assertEquals(expected.connected(i, (i * 7) % n), ds.connected(i, (i * 7) % n));
+            }
+            ds.rollback(base);
+        }
+    }
+
+    @Test
+    final void exceptionsTest() {
+        assertThrows(IllegalArgumentException.class, () -> new RollbackDisjointSets(-1));
+        RollbackDisjointSets ds = new RollbackDisjointSets(2);
+        assertThrows(IndexOutOfBoundsException.class, () -> ds.union(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> ds.rollback(1));
+        assertThrows(IllegalArgumentException.class, () -> ds.rollback(-1));
+    }
+
+    private static int[][] randomPairs(int n, int count, Random random) {
+        int[][] pairs = new int[count][];
+        for (int k = 0; k < count; k++)
+            pairs[k] = new int[] { random.nextInt(n), random.nextInt(n) };
+        return pairs;
+    }
+}
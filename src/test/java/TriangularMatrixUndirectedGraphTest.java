@@ -0,0 +1,160 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe TriangularMatrixUndirectedGraph.
+ *
+ * @author Riccardo Catervi
+ *
+ */
+class TriangularMatrixUndirectedGraphTest {
+
+    @Test
+    final void testAddNodeAndEdge() {
+        Graph<String> g = new TriangularMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        GraphNode<String> c = new GraphNode<String>("c");
+        assertTrue(g.addNode(a));
+        assertTrue(g.addNode(b));
+        assertFalse(g.addNode(new GraphNode<String>("a")));
+        assertTrue(g.addNode(c));
+        assertEquals(3, g.nodeCount());
+        assertEquals(2, g.getNodeIndexOf("c"));
+        assertEquals(b, g.getNodeAtIndex(1));
+        assertEquals(c, g.getNodeOf("c"));
+
+        assertTrue(g.addEdge(new GraphEdge<String>(a, b, false, 1.5)));
+        assertFalse(g.addEdge(new GraphEdge<String>(b, a, false, 3)));
+        assertTrue(g.addEdge(new GraphEdge<String>(c, c, false, 0)));
+        assertTrue(g.addEdge(new GraphEdge<String>(b, c, false)));
+        assertEquals(3, g.edgeCount());
+        assertTrue(g.containsEdge(new GraphEdge<String>(b, a, false)));
+        assertFalse(g.containsEdge(new GraphEdge<String>(a, c, false)));
+        assertEquals(new HashSet<GraphNode<String>>(Arrays.asList(a, c)), g.getAdjacentNodesOf(b));
+        assertEquals(2, g.getDegreeOf(c));
+
+        // I pesi sono conservati, anche l'assenza di peso
+        for (GraphEdge<String> edge : g.getEdges()) {
+            if (edge.equals(new GraphEdge<String>(a, b, false)))
+                assertEquals(1.5, edge.getWeight());
+            else if (edge.equals(new GraphEdge<String>(c, c, false)))
+                assertEquals(0, edge.getWeight());
+            else
+                assertFalse(edge.hasWeight());
+        }
+    }
+
+    @Test
+    final void testRemove() {
+        Graph<String> g = new TriangularMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        GraphNode<String> c = new GraphNode<String>("c");
+        GraphNode<String> d = new GraphNode<String>("d");
+        g.addNode(a);
+        g.addNode(b);
+        g.addNode(c);
+        g.addNode(d);
+        g.addEdge(new GraphEdge<String>(a, b, false, 1));
+        g.addEdge(new GraphEdge<String>(b, c, false, 2));
+        g.addEdge(new GraphEdge<String>(b, b, false, 3));
+        g.addEdge(new GraphEdge<String>(a, d, false, 4));
+        g.addEdge(new GraphEdge<String>(c, d, false, 5));
+        assertTrue(g.removeEdge(new GraphEdge<String>(d, c, false)));
+        assertFalse(g.removeEdge(new GraphEdge<String>(d, c, false)));
+        assertEquals(4, g.edgeCount());
+
+        assertTrue(g.removeNode(b));
+        assertFalse(g.removeNode(b));
+        assertEquals(3, g.nodeCount());
+        assertEquals(1, g.edgeCount());
+        assertEquals(1, g.getNodeIndexOf("c"));
+        assertEquals(d, g.getNodeAtIndex(2));
+        assertEquals(new HashSet<GraphEdge<String>>(Arrays.asList(new GraphEdge<String>(a, d, false))),
+                g.getEdges());
+        assertTrue(g.getEdgesOf(c).isEmpty());
+        // Un nodo aggiunto dopo la rimozione non eredita archi
+        GraphNode<String> e = new GraphNode<String>("e");
+        g.addNode(e);
+        assertTrue(g.getEdgesOf(e).isEmpty());
+
+        g.clear();
+        assertTrue(g.isEmpty());
+        assertNull(g.getNodeOf("a"));
+    }
+
+    @Test
+    final void testMatchesAdjacencyMatrix() {
+        Graph<Integer> matrix = KruskalMSPTest.randomGraph(150, 2000, 30, new Random(5));
+        Graph<Integer> triangular = new TriangularMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < matrix.nodeCount(); i++)
+            triangular.addNode(matrix.getNodeAtIndex(i));
+        for (GraphEdge<Integer> edge : matrix.getEdges())
+            triangular.addEdge(edge);
+        assertEquals(matrix.edgeCount(), triangular.edgeCount());
+        assertEquals(matrix.getEdges(), triangular.getEdges());
+        for (GraphNode<Integer> node : matrix.getNodes()) {
+            assertEquals(matrix.getEdgesOf(node), triangular.getEdgesOf(node));
+            assertEquals(matrix.getAdjacentNodesOf(node), triangular.getAdjacentNodesOf(node));
+            Set<GraphEdge<Integer>> edgesOf = new HashSet<GraphEdge<Integer>>();
+            triangular.forEachEdgeOf(node, edgesOf::add);
+            assertEquals(matrix.getEdgesOf(node), edgesOf);
+            Set<GraphNode<Integer>> neighbours = new HashSet<GraphNode<Integer>>();
+            triangular.forEachNeighbour(node, neighbours::add);
+            assertEquals(matrix.getAdjacentNodesOf(node), neighbours);
+            Set<GraphNode<Integer>> neighbourIndexes = new HashSet<GraphNode<Integer>>();
+            triangular.forEachNeighbourIndex(triangular.getNodeIndexOf(node.getLabel()),
+                    i -> neighbourIndexes.add(triangular.getNodeAtIndex(i)));
+            assertEquals(matrix.getAdjacentNodesOf(node), neighbourIndexes);
+        }
+        for (GraphEdge<Integer> edge : matrix.getEdges()) {
+            int i = triangular.getNodeIndexOf(edge.getNode1().getLabel());
+            int j = triangular.getNodeIndexOf(edge.getNode2().getLabel());
+            assertEquals(edge, triangular.getEdgeAt(j, i));
+            assertEquals(edge.getWeight(), triangular.getEdgeWeightAt(i, j));
+            assertEquals(matrix.getDegreeOf(edge.getNode1()), triangular.getDegreeAt(i));
+        }
+        int[] visitedIndexes = { 0 };
+        triangular.forEachEdgeIndex((i, j, weight) -> {
+            assertEquals(weight, triangular.getEdgeAt(i, j).getWeight());
+            visitedIndexes[0]++;
+        });
+        assertEquals(matrix.edgeCount(), visitedIndexes[0]);
+        List<GraphEdge<Integer>> visited = new ArrayList<GraphEdge<Integer>>();
+        triangular.forEachEdge(visited::add);
+        assertEquals(matrix.edgeCount(), visited.size());
+        assertEquals(matrix.getEdges(), new HashSet<GraphEdge<Integer>>(visited));
+        // Con pesi ripetuti gli alberi possono differire, il peso totale no
+        assertEquals(new KruskalMSP<Integer>().computeMSP(matrix).stream().mapToDouble(GraphEdge::getWeight).sum(),
+                new KruskalMSP<Integer>().computeMSP(triangular).stream().mapToDouble(GraphEdge::getWeight).sum());
+    }
+
+    @Test
+    final void exceptionsTest() {
+        Graph<String> g = new TriangularMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        g.addNode(a);
+        GraphNode<String> x = new GraphNode<String>("x");
+        assertThrows(NullPointerException.class, () -> g.addNode(null));
+        assertThrows(NullPointerException.class, () -> g.addEdge(null));
+        assertThrows(NullPointerException.class, () -> g.getNodeOf(null));
+        assertThrows(IllegalArgumentException.class, () -> g.addEdge(new GraphEdge<String>(a, x, false)));
+        assertThrows(IllegalArgumentException.class, () -> g.addEdge(new GraphEdge<String>(a, a, true)));
+        assertThrows(IllegalArgumentException.class, () -> g.getEdgesOf(x));
+        assertThrows(IllegalArgumentException.class, () -> g.getNodeIndexOf("x"));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getNodeAtIndex(1));
+        assertThrows(UnsupportedOperationException.class, () -> g.getPredecessorNodesOf(a));
+        assertThrows(UnsupportedOperationException.class, () -> g.getIngoingEdgesOf(a));
+    }
+}
@@ -0,0 +1,95 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe UndirectedGraphBuilder.
+ *
+ * @author Riccardo Catervi
+ *
+ */
+class UndirectedGraphBuilderTest {
+
+    @Test
+    final void testBuildAdjacencyMatrix() {
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        GraphNode<String> c = new GraphNode<String>("c");
+        GraphEdge<String> ab = new GraphEdge<String>(a, b, false, 1);
+        GraphEdge<String> bc = new GraphEdge<String>(b, c, false, 2);
+        // Gli archi possono precedere i nodi
+        UndirectedGraphBuilder<String> builder = new UndirectedGraphBuilder<String>(3, 3)
+                .addEdges(ab, bc)
+                .addEdge(new GraphEdge<String>(b, a, false, 5))
+                .addNodes(Arrays.asList(a, b))
+                .addNodes(c, a);
+        assertEquals(3, builder.nodeCount());
+        assertEquals(3, builder.edgeCount());
+
+        AdjacencyMatrixUndirectedGraph<String> g = builder.buildAdjacencyMatrix();
+        assertEquals(3, g.nodeCount());
+        assertEquals(2, g.edgeCount());
+        assertEquals(0, g.getNodeIndexOf("a"));
+        assertEquals(2, g.getNodeIndexOf("c"));
+        assertEquals(c, g.getNodeOf("c"));
+        assertEquals(new HashSet<GraphEdge<String>>(Arrays.asList(ab, bc)), g.getEdges());
+        // Viene mantenuto il primo arco tra a e b
+        for (GraphEdge<String> edge : g.getEdgesOf(a))
+            assertEquals(1, edge.getWeight());
+        assertEquals(AdjacencyMatrixUndirectedGraph.RemovalMode.SHIFT, g.getRemovalMode());
+        for (ArrayList<GraphEdge<String>> row : g.matrix)
+            assertEquals(3, row.size());
+
+        // Il grafo ottenuto è un grafo normale, modificabile
+        GraphNode<String> d = new GraphNode<String>("d");
+        assertTrue(g.addNode(d));
+        assertEquals(3, g.getNodeIndexOf("d"));
+        assertTrue(g.addEdge(new GraphEdge<String>(c, d, false, 3)));
+        assertTrue(g.removeNode(a));
+        assertEquals(2, g.edgeCount());
+    }
+
+    @Test
+    final void testBuildCompressedSparseRow() {
+        Graph<Integer> expected = KruskalMSPTest.randomGraph(100, 500, 20, new Random(3));
+        UndirectedGraphBuilder<Integer> builder = new UndirectedGraphBuilder<Integer>()
+                .addNodes(expected.getNodes())
+                .addEdges(expected.getEdges())
+                .removalMode(AdjacencyMatrixUndirectedGraph.RemovalMode.TOMBSTONE);
+        Graph<Integer> csr = builder.buildCompressedSparseRow();
+        AdjacencyMatrixUndirectedGraph<Integer> matrix = builder.buildAdjacencyMatrix();
+        assertEquals(AdjacencyMatrixUndirectedGraph.RemovalMode.TOMBSTONE, matrix.getRemovalMode());
+        for (Graph<Integer> g : Arrays.asList(csr, matrix)) {
+            assertEquals(expected.nodeCount(), g.nodeCount());
+            assertEquals(expected.edgeCount(), g.edgeCount());
+            assertEquals(expected.getEdges(), g.getEdges());
+            for (GraphNode<Integer> node : expected.getNodes())
+                assertEquals(expected.getEdgesOf(node), g.getEdgesOf(node));
+        }
+    }
+
+    @Test
+    final void exceptionsTest() {
+        assertThrows(IllegalArgumentException.class, () -> new UndirectedGraphBuilder<String>(-1, 0));
+        UndirectedGraphBuilder<String> builder = new UndirectedGraphBuilder<String>();
+        assertThrows(NullPointerException.class, () -> builder.addNode(null));
+        assertThrows(NullPointerException.class, () -> builder.addEdge(null));
+        assertThrows(NullPointerException.class, () -> builder.removalMode(null));
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        builder.addNode(a).addEdge(new GraphEdge<String>(a, b, false));
+        // Estremo non presente tra i nodi
+        assertThrows(IllegalArgumentException.class, () -> builder.buildAdjacencyMatrix());
+        assertThrows(IllegalArgumentException.class, () -> builder.buildCompressedSparseRow());
+        // Arco orientato
+        builder.addNode(b).addEdge(new GraphEdge<String>(b, a, true));
+        assertThrows(IllegalArgumentException.class, () -> builder.buildAdjacencyMatrix());
+    }
+}
@@ -2,8 +2,12 @@ package it.unicam.cs.asdl2425.mp2;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -174,4 +178,100 @@ class UndirectedGraphConnectedComponentsComputerTest {
         assertTrue(c.computeConnectedComponents(g).equals(result),
                 "Un grafo completamente connesso dovrebbe essere una singola componente.");
     }
+
+    @Test
+    final void testGraphWithoutIndexes() {
+        // Se il grafo non supporta le operazioni sugli indici, i nodi vengono
+        // numerati dal calcolatore.
+        Graph<Integer> source = KruskalMSPTest.randomGraph(300, 200, 10, new Random(26));
+        Graph<Integer> g = new GraphWithoutIndexes<Integer>();
+        for (GraphNode<Integer> node : source.getNodes())
+            g.addNode(node);
+        for (GraphEdge<Integer> edge : source.getEdges())
+            g.addEdge(edge);
+        assertThrows(UnsupportedOperationException.class, () -> g.getIndexBound());
+
+        UndirectedGraphConnectedComponentsComputer<Integer> c = new UndirectedGraphConnectedComponentsComputer<>();
+        assertEquals(c.computeConnectedComponents(source), c.computeConnectedComponents(g));
+        // Il calcolo parallelo ricorre a quello sequenziale
+        assertEquals(c.computeConnectedComponents(source), c.computeConnectedComponentsInParallel(g));
+    }
+
+    @Test
+    final void testParallelMatchesSequential() {
+        // Grafo grande con una componente gigante, catene corte e nodi isolati
+        Random random = new Random(25);
+        int n = 20000;
+        UndirectedGraphBuilder<Integer> builder = new UndirectedGraphBuilder<>();
+        List<GraphNode<Integer>> nodes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            nodes.add(new GraphNode<>(i));
+            builder.addNode(nodes.get(i));
+        }
+        int giant = 3 * n / 4;
+        for (int k = 0; k < 2 * giant; k++) {
+            int u = random.nextInt(giant), v = random.nextInt(giant);
+            if (u != v)
+                builder.addEdge(new GraphEdge<>(nodes.get(u), nodes.get(v), false));
+        }
+        for (int i = giant; i + 1 < n; i += 3)
+            builder.addEdge(new GraphEdge<>(nodes.get(i), nodes.get(i + 1), false));
+        Graph<Integer> csr = builder.buildCompressedSparseRow();
+
+        UndirectedGraphConnectedComponentsComputer<Integer> c = new UndirectedGraphConnectedComponentsComputer<>();
+        Set<Set<GraphNode<Integer>>> expected = c.computeConnectedComponents(csr);
+        assertEquals(expected, c.computeConnectedComponentsInParallel(csr));
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertEquals(expected,
+                    new UndirectedGraphConnectedComponentsComputer<Integer>(pool).computeConnectedComponentsInParallel(csr));
+        }
+        finally {
+            pool.shutdown();
+        }
+
+        // Grafo piccolo su matrice di adiacenza, con molte componenti
+        Graph<Integer> matrix = KruskalMSPTest.randomGraph(300, 200, 10, random);
+        assertEquals(c.computeConnectedComponents(matrix), c.computeConnectedComponentsInParallel(matrix));
+    }
+
+    @Test
+    final void testParallelExceptionsAndTrivialCases() {
+        UndirectedGraphConnectedComponentsComputer<String> c = new UndirectedGraphConnectedComponentsComputer<String>();
+        assertThrows(NullPointerException.class, () -> c.computeConnectedComponentsInParallel(null));
+        assertThrows(NullPointerException.class, () -> new UndirectedGraphConnectedComponentsComputer<String>(null));
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        assertTrue(c.computeConnectedComponentsInParallel(g).isEmpty());
+        g.addNode(new GraphNode<String>("a"));
+        g.addNode(new GraphNode<String>("b"));
+        assertEquals(2, c.computeConnectedComponentsInParallel(g).size());
+        g.addEdge(new GraphEdge<String>(new GraphNode<String>("a"), new GraphNode<String>("b"), false));
+        assertEquals(c.computeConnectedComponents(g), c.computeConnectedComponentsInParallel(g));
+    }
+
+    /*
+     * Grafo che non supporta le operazioni opzionali sugli indici dei nodi.
+     */
+    private static class GraphWithoutIndexes<L> extends AdjacencyMatrixUndirectedGraph<L> {
+
+        @Override
+        public int getNodeIndexOf(L label) {
+            throw new UnsupportedOperationException("Operazioni sugli indici non supportate");
+        }
+
+        @Override
+        public GraphNode<L> getNodeAtIndex(int i) {
+            throw new UnsupportedOperationException("Operazioni sugli indici non supportate");
+        }
+
+        @Override
+        public int getIndexBound() {
+            throw new UnsupportedOperationException("Operazioni sugli indici non supportate");
+        }
+
+        @Override
+        public void forEachEdgeIndex(EdgeIndexConsumer action) {
+            throw new UnsupportedOperationException("Operazioni sugli indici non supportate");
+        }
+    }
 }